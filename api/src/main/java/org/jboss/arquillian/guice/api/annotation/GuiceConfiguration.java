@@ -17,6 +17,7 @@
 package org.jboss.arquillian.guice.api.annotation;
 
 import com.google.inject.Module;
+import com.google.inject.Stage;
 
 import java.lang.annotation.Documented;
 import java.lang.annotation.Inherited;
@@ -44,4 +45,20 @@ public @interface GuiceConfiguration {
      * @return guice module classes
      */
     Class<? extends Module>[] value();
+
+    /**
+     * <p>The Guice stage used for creating the injector. At most one stage can be specified, when none is given the
+     * stage configured for the extension is being used.</p>
+     *
+     * @return the guice stage
+     */
+    Stage[] stage() default {};
+
+    /**
+     * <p>The time budget in milliseconds for creating the injector and enriching the test instance with it. The test
+     * class fails when its startup exceeds the budget, zero means no budget.</p>
+     *
+     * @return the startup budget in milliseconds
+     */
+    long startupBudget() default 0;
 }
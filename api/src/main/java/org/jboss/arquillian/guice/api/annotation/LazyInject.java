@@ -0,0 +1,41 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.arquillian.guice.api.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Marks the test class field that is being injected lazily.
+ * <p />
+ * Instead of the actual dependency the field is being assigned a proxy, the dependency is provisioned by the Guice
+ * injector on the first method invocation on the proxy. The field type must be an interface and may be accompanied by
+ * a binding annotation. The annotation is meant to be used instead of the {@code @Inject}:
+ * <pre>
+ * &#64;LazyInject
+ * private EmployeeService employeeService;
+ * </pre>
+ */
+@Documented
+@Retention(RUNTIME)
+@Target(FIELD)
+public @interface LazyInject {
+}
@@ -0,0 +1,175 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.arquillian.guice.impl.client;
+
+import org.jboss.shrinkwrap.api.Archive;
+import org.jboss.shrinkwrap.api.ArchivePaths;
+import org.jboss.shrinkwrap.api.Node;
+import org.jboss.shrinkwrap.api.asset.ArchiveAsset;
+import org.jboss.shrinkwrap.api.asset.Asset;
+import org.jboss.shrinkwrap.api.spec.WebArchive;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * The libraries already bundled within the deployment archive. The Guice libraries are being recognized by their file
+ * names and, for the libraries and classes added through ShrinkWrap, by the presence of the Guice classes.
+ */
+final class ArchiveLibraries {
+
+    /**
+     * Represents the path of the {@link com.google.inject.Injector} class.
+     */
+    private static final String INJECTOR_CLASS = "com/google/inject/Injector.class";
+
+    /**
+     * Represents the path of the {@link com.google.inject.servlet.GuiceFilter} class.
+     */
+    private static final String GUICE_FILTER_CLASS = "com/google/inject/servlet/GuiceFilter.class";
+
+    /**
+     * Represents the file name pattern of the Guice library.
+     */
+    private static final Pattern GUICE_LIBRARY = Pattern.compile("guice-[0-9].*\\.jar");
+
+    /**
+     * Represents the file name pattern of the Guice servlet library.
+     */
+    private static final Pattern GUICE_SERVLET_LIBRARY = Pattern.compile("guice-servlet-.*\\.jar");
+
+    /**
+     * Represents the names of the bundled libraries.
+     */
+    private final Set<String> names = new HashSet<String>();
+
+    /**
+     * Represents whether the archive contains Guice.
+     */
+    private boolean guice;
+
+    /**
+     * Represents whether the archive contains the Guice servlet extension.
+     */
+    private boolean guiceServlet;
+
+    /**
+     * Creates new instance of {@link ArchiveLibraries} class.
+     *
+     * Private constructor prevents from instantiation outside this class.
+     */
+    private ArchiveLibraries() {
+        // empty constructor
+    }
+
+    /**
+     * Inspects the libraries bundled within the given archive: within the WEB-INF/lib directory of the web archive,
+     * or within the root and the lib directory of the enterprise archive.
+     *
+     * @param archive the archive
+     *
+     * @return the bundled libraries
+     */
+    static ArchiveLibraries inspect(Archive<?> archive) {
+
+        ArchiveLibraries libraries = new ArchiveLibraries();
+
+        if (archive instanceof WebArchive) {
+
+            libraries.addDirectory(archive, "/WEB-INF/lib");
+            libraries.guice |= archive.contains(ArchivePaths.create("/WEB-INF/classes", INJECTOR_CLASS));
+            libraries.guiceServlet |= archive.contains(ArchivePaths.create("/WEB-INF/classes", GUICE_FILTER_CLASS));
+        } else {
+
+            libraries.addDirectory(archive, "/");
+            libraries.addDirectory(archive, "/lib");
+        }
+
+        return libraries;
+    }
+
+    /**
+     * Returns whether the archive contains both Guice and its servlet extension.
+     *
+     * @return true if the archive contains all the Guice libraries, false otherwise
+     */
+    boolean containsGuiceLibraries() {
+
+        return guice && guiceServlet;
+    }
+
+    /**
+     * Returns whether the given library is already bundled within the archive, either under the same name or, for the
+     * Guice libraries, in any version.
+     *
+     * @param library the library
+     *
+     * @return true if the library is already bundled, false otherwise
+     */
+    boolean contains(File library) {
+
+        String name = library.getName();
+
+        return names.contains(name)
+                || (guice && GUICE_LIBRARY.matcher(name).matches())
+                || (guiceServlet && GUICE_SERVLET_LIBRARY.matcher(name).matches());
+    }
+
+    /**
+     * Adds the libraries within the given directory of the archive.
+     *
+     * @param archive   the archive
+     * @param directory the directory path
+     */
+    private void addDirectory(Archive<?> archive, String directory) {
+
+        Node node = archive.get(directory);
+
+        if (node == null) {
+            return;
+        }
+
+        for (Node child : node.getChildren()) {
+
+            String name = child.getPath().get().substring(child.getPath().get().lastIndexOf('/') + 1);
+
+            if (!name.endsWith(".jar")) {
+                continue;
+            }
+
+            names.add(name);
+            guice |= GUICE_LIBRARY.matcher(name).matches() || containsClass(child.getAsset(), INJECTOR_CLASS);
+            guiceServlet |= GUICE_SERVLET_LIBRARY.matcher(name).matches()
+                    || containsClass(child.getAsset(), GUICE_FILTER_CLASS);
+        }
+    }
+
+    /**
+     * Returns whether the library added through ShrinkWrap contains the given class.
+     *
+     * @param asset     the library asset
+     * @param classPath the path of the class
+     *
+     * @return true if the library contains the class, false otherwise
+     */
+    private static boolean containsClass(Asset asset, String classPath) {
+
+        return asset instanceof ArchiveAsset && ((ArchiveAsset) asset).getArchive().contains(classPath);
+    }
+}
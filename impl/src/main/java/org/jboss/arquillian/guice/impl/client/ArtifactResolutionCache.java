@@ -0,0 +1,139 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.arquillian.guice.impl.client;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Memoizes the resolved Maven artifacts for the lifetime of the JVM, so that the dependencies of every deployment are
+ * being resolved only once. The first resolution of each artifact runs in its own thread, which allows to resolve
+ * multiple artifacts concurrently. A failed resolution is not being retained.
+ */
+final class ArtifactResolutionCache {
+
+    /**
+     * Represents the resolutions of the artifacts by their coordinates.
+     */
+    private static final ConcurrentMap<String, Resolution> RESOLUTIONS = new ConcurrentHashMap<String, Resolution>();
+
+    /**
+     * Creates new instance of {@link ArtifactResolutionCache}.
+     *
+     * Private constructor prevents from instantiation outside this class.
+     */
+    private ArtifactResolutionCache() {
+        // empty constructor
+    }
+
+    /**
+     * Retrieves the resolution of the artifact with the given coordinates, starting it in the background if the
+     * artifact has not been resolved yet.
+     *
+     * @param coordinates the artifact coordinates
+     * @param resolver    the resolver of the artifact
+     *
+     * @return the resolution of the artifact
+     */
+    static Future<List<File>> resolve(String coordinates, Callable<List<File>> resolver) {
+
+        Resolution resolution = RESOLUTIONS.get(coordinates);
+
+        if (resolution == null) {
+
+            Resolution created = new Resolution(coordinates, resolver);
+            resolution = RESOLUTIONS.putIfAbsent(coordinates, created);
+
+            if (resolution == null) {
+
+                resolution = created;
+
+                Thread thread = new Thread(created, "arquillian-guice-resolver-" + coordinates);
+                thread.setDaemon(true);
+                thread.start();
+            }
+        }
+
+        return resolution;
+    }
+
+    /**
+     * Waits for the given resolution and retrieves the resolved files.
+     *
+     * @param resolution the artifact resolution
+     *
+     * @return the resolved files
+     *
+     * @throws RuntimeException if the artifact could not be resolved
+     */
+    static List<File> get(Future<List<File>> resolution) {
+
+        try {
+
+            return resolution.get();
+        } catch (InterruptedException e) {
+
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("The resolution of the guice libraries has been interrupted.", e);
+        } catch (ExecutionException e) {
+
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+
+            throw new RuntimeException("Could not resolve the guice libraries.", e.getCause());
+        }
+    }
+
+    /**
+     * The resolution of the single artifact.
+     */
+    private static class Resolution extends FutureTask<List<File>> {
+
+        /**
+         * Represents the artifact coordinates.
+         */
+        private final String coordinates;
+
+        /**
+         * Creates new instance of {@link Resolution} class.
+         *
+         * @param coordinates the artifact coordinates
+         * @param resolver    the resolver of the artifact
+         */
+        private Resolution(String coordinates, Callable<List<File>> resolver) {
+            super(resolver);
+            this.coordinates = coordinates;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected void setException(Throwable t) {
+
+            RESOLUTIONS.remove(coordinates, this);
+            super.setException(t);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.arquillian.guice.impl.client;
+
+import java.io.File;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Finds the Guice libraries on the class path of the test, through the code sources of the Guice classes and of the
+ * API classes Guice depends on. This guarantees that the deployment uses the very same Guice build as the test.
+ */
+final class ClasspathLibraries {
+
+    /**
+     * Represents the classes whose libraries are always required.
+     */
+    static final String[] REQUIRED_CLASSES = {
+            "com.google.inject.Injector",
+            "com.google.inject.servlet.GuiceFilter",
+            "javax.inject.Inject",
+            "org.aopalliance.intercept.MethodInterceptor"
+    };
+
+    /**
+     * Represents the Guava class that Guice depends on, unless Guice repackages Guava itself.
+     */
+    static final String GUAVA_CLASS = "com.google.common.base.Preconditions";
+
+    /**
+     * Represents the Guava class repackaged by Guice 3.0 and older.
+     */
+    static final String REPACKAGED_GUAVA_CLASS = "com.google.inject.internal.util.$Preconditions";
+
+    /**
+     * Creates new instance of {@link ClasspathLibraries}.
+     *
+     * Private constructor prevents from instantiation outside this class.
+     */
+    private ClasspathLibraries() {
+        // empty constructor
+    }
+
+    /**
+     * Finds the Guice libraries on the class path.
+     *
+     * @return the library files or null if any of the libraries is not available as the jar file
+     */
+    static List<File> findGuiceLibraries() {
+
+        List<String> classNames = new ArrayList<String>();
+
+        for (String className : REQUIRED_CLASSES) {
+            classNames.add(className);
+        }
+
+        if (!SecurityActions.isClassPresent(REPACKAGED_GUAVA_CLASS)) {
+            classNames.add(GUAVA_CLASS);
+        }
+
+        Set<File> libraries = new LinkedHashSet<File>();
+
+        for (String className : classNames) {
+
+            File library = findLibrary(className);
+
+            if (library == null) {
+                return null;
+            }
+
+            libraries.add(library);
+        }
+
+        return new ArrayList<File>(libraries);
+    }
+
+    /**
+     * Finds the jar file containing the class with the given name.
+     *
+     * @param className the fully qualified class name
+     *
+     * @return the jar file or null if the class is not available or it has not been loaded from a jar file
+     */
+    static File findLibrary(String className) {
+
+        try {
+
+            CodeSource codeSource = SecurityActions.getCodeSource(SecurityActions.loadClass(className));
+            URL location = codeSource != null ? codeSource.getLocation() : null;
+
+            if (location == null || !"file".equals(location.getProtocol())) {
+                return null;
+            }
+
+            File library = new File(location.toURI());
+
+            return library.isFile() && library.getName().endsWith(".jar") ? library : null;
+        } catch (ClassNotFoundException e) {
+            return null;
+        } catch (URISyntaxException e) {
+            return null;
+        }
+    }
+}
@@ -18,38 +18,86 @@ package org.jboss.arquillian.guice.impl.client;
 
 import org.jboss.arquillian.container.test.spi.RemoteLoadableExtension;
 import org.jboss.arquillian.container.test.spi.client.deployment.CachedAuxilliaryArchiveAppender;
+import org.jboss.arquillian.core.api.Instance;
+import org.jboss.arquillian.core.api.annotation.Inject;
 import org.jboss.arquillian.guice.api.annotation.GuiceConfiguration;
 import org.jboss.arquillian.guice.api.servlet.ArquillianGuiceFilter;
 import org.jboss.arquillian.guice.api.utils.InjectorHolder;
 import org.jboss.arquillian.guice.impl.GuiceExtensionConsts;
+import org.jboss.arquillian.guice.impl.configuration.GuiceExtensionConfiguration;
+import org.jboss.arquillian.guice.impl.configuration.GuiceExtensionConfigurationProducer;
 import org.jboss.arquillian.guice.impl.container.GuiceEnricherRemoteExtension;
 import org.jboss.arquillian.guice.impl.enricher.GuiceInjectionEnricher;
+import org.jboss.arquillian.guice.impl.index.TestClassIndex;
 import org.jboss.arquillian.guice.impl.inject.InjectorProducer;
+import org.jboss.arquillian.guice.impl.monitor.FlightRecorderEvent;
 import org.jboss.shrinkwrap.api.Archive;
 import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.asset.Asset;
+import org.jboss.shrinkwrap.api.asset.ByteArrayAsset;
 import org.jboss.shrinkwrap.api.spec.JavaArchive;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
 /**
- * Guice archive appender, adds all the required classes into the model deployment.
+ * Guice archive appender, adds all the required classes into the model deployment. The resolved extension
+ * configuration is added as well, so that it applies within the container.
  *
  * @author <a href="mailto:jmnarloch@gmail.com">Jakub Narloch</a>
  */
 public class GuiceEnricherArchiveAppender extends CachedAuxilliaryArchiveAppender {
 
+    /**
+     * Represents the instance of extension configuration.
+     */
+    @Inject
+    private Instance<GuiceExtensionConfiguration> configurationInstance;
+
     /**
      * {@inheritDoc}
      */
     @Override
     protected Archive<?> buildArchive() {
 
-        return ShrinkWrap.create(JavaArchive.class, "arquillian-guice.jar")
+        JavaArchive archive = ShrinkWrap.create(JavaArchive.class, "arquillian-guice.jar")
                 .addPackage(GuiceEnricherRemoteExtension.class.getPackage())
                 .addPackage(GuiceInjectionEnricher.class.getPackage())
                 .addPackage(InjectorProducer.class.getPackage())
                 .addPackage(GuiceExtensionConsts.class.getPackage())
+                .addPackage(GuiceExtensionConfiguration.class.getPackage())
+                .addPackage(TestClassIndex.class.getPackage())
+                .addPackage(FlightRecorderEvent.class.getPackage())
                 .addPackage(GuiceConfiguration.class.getPackage())
                 .addPackage(ArquillianGuiceFilter.class.getPackage())
                 .addPackage(InjectorHolder.class.getPackage())
                 .addAsServiceProvider(RemoteLoadableExtension.class, GuiceEnricherRemoteExtension.class);
+
+        if (configurationInstance.get() != null) {
+
+            archive.addAsResource(getConfigurationAsset(configurationInstance.get()),
+                    GuiceExtensionConfigurationProducer.CONFIGURATION_RESOURCE);
+        }
+
+        return archive;
+    }
+
+    /**
+     * Creates the asset containing the resolved extension configuration.
+     *
+     * @param configuration the extension configuration
+     *
+     * @return the configuration asset
+     */
+    private static Asset getConfigurationAsset(GuiceExtensionConfiguration configuration) {
+
+        try {
+
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            GuiceExtensionConfigurationProducer.toProperties(configuration).store(output, null);
+            return new ByteArrayAsset(output.toByteArray());
+        } catch (IOException e) {
+            throw new RuntimeException("Could not write the guice extension configuration.", e);
+        }
     }
 }
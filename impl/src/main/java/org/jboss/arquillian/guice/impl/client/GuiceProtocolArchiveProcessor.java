@@ -22,6 +22,7 @@ import org.jboss.arquillian.core.api.Instance;
 import org.jboss.arquillian.core.api.annotation.Inject;
 import org.jboss.arquillian.guice.impl.GuiceExtensionConsts;
 import org.jboss.arquillian.guice.impl.configuration.GuiceExtensionConfiguration;
+import org.jboss.arquillian.guice.impl.monitor.FlightRecorderEvent;
 import org.jboss.shrinkwrap.api.Archive;
 import org.jboss.shrinkwrap.api.spec.EnterpriseArchive;
 import org.jboss.shrinkwrap.api.spec.WebArchive;
@@ -31,10 +32,16 @@ import org.jboss.shrinkwrap.resolver.api.maven.ScopeType;
 import org.jboss.shrinkwrap.resolver.api.maven.coordinate.MavenDependencies;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * Guice {@link ProtocolArchiveProcessor} that adds all the required dependencies into model deployment, so that the
@@ -44,6 +51,11 @@ import java.util.List;
  */
 public class GuiceProtocolArchiveProcessor implements ProtocolArchiveProcessor {
 
+    /**
+     * The logger used by this class.
+     */
+    private static final Logger log = Logger.getLogger(GuiceProtocolArchiveProcessor.class.getName());
+
     /**
      * Represents the instance of extension configuration.
      */
@@ -55,16 +67,28 @@ public class GuiceProtocolArchiveProcessor implements ProtocolArchiveProcessor {
      */
     public void process(TestDeployment testDeployment, Archive<?> protocolArchive) {
 
+        FlightRecorderEvent event = FlightRecorderEvent.begin(FlightRecorderEvent.ARCHIVE_PROCESSING);
+        Archive<?> archive = null;
+        int libraries = 0;
+
         if (configurationInstance.get().isAutoPackage()) {
 
             if (isEnterpriseArchive(testDeployment.getApplicationArchive()) ||
                     isWebArchive(testDeployment.getApplicationArchive())) {
-                addGuiceLibraries(testDeployment.getApplicationArchive());
+                archive = testDeployment.getApplicationArchive();
             } else if (isEnterpriseArchive(protocolArchive) || isWebArchive(protocolArchive)) {
                 // otherwise try to add the required dependencies into the protocol archive
-                addGuiceLibraries(protocolArchive);
+                archive = protocolArchive;
+            }
+
+            if (archive != null) {
+                libraries = addGuiceLibraries(archive);
             }
         }
+
+        if (event.isRecording()) {
+            event.commit(testDeployment.getDeploymentName(), archive != null ? archive.getName() : null, libraries);
+        }
     }
 
     /**
@@ -90,72 +114,149 @@ public class GuiceProtocolArchiveProcessor implements ProtocolArchiveProcessor {
     }
 
     /**
-     * Adds the required by Guice libraries.
+     * Adds the required by Guice libraries. The libraries already bundled within the archive are not being added again,
+     * so that processing the same archive repeatedly does not duplicate them.
      *
      * @param archive the archive to which the libraries will be added
+     *
+     * @return the number of the added libraries
      */
-    private void addGuiceLibraries(Archive<?> archive) {
+    private int addGuiceLibraries(Archive<?> archive) {
 
-        File[] guiceLibraries = resolveGuiceDependencies();
+        ArchiveLibraries archiveLibraries = ArchiveLibraries.inspect(archive);
+
+        if (archiveLibraries.containsGuiceLibraries()) {
+
+            log.fine("The archive " + archive.getName() + " already contains the guice libraries.");
+            return 0;
+        }
+
+        List<File> libraries = new ArrayList<File>();
+
+        for (File library : resolveGuiceDependencies()) {
+
+            if (!archiveLibraries.contains(library)) {
+                libraries.add(library);
+            }
+        }
+
+        File[] guiceLibraries = libraries.toArray(new File[libraries.size()]);
 
         if (archive instanceof EnterpriseArchive) {
             ((EnterpriseArchive) archive).addAsModules(guiceLibraries);
         } else if (archive instanceof WebArchive) {
             ((WebArchive) archive).addAsLibraries(guiceLibraries);
         }
+
+        return guiceLibraries.length;
     }
 
     /**
-     * Resolves Guice dependencies using maven.
+     * Resolves Guice dependencies. Unless specific Guice version has been configured, the libraries the test runs with
+     * are being taken from its class path, otherwise the dependencies are being resolved using maven.
      *
      * @return the resolved dependencies
      */
     private File[] resolveGuiceDependencies() {
 
-        List<File> dependencies = new ArrayList<File>();
-        dependencies.addAll(resolveArtifact(GuiceExtensionConsts.GUICE_ARTIFACT_NAME, configurationInstance.get().getGuiceVersion(),
-                GuiceExtensionConsts.GUICE_ARTIFACT_VERSION));
-        dependencies.addAll(resolveArtifact(GuiceExtensionConsts.GUICE_SEVLET_ARTIFACT_NAME, configurationInstance.get().getGuiceVersion(),
-                GuiceExtensionConsts.GUICE_ARTIFACT_VERSION));
+        if (configurationInstance.get().getGuiceVersion() == null) {
+
+            List<File> libraries = ClasspathLibraries.findGuiceLibraries();
+
+            if (libraries != null) {
+
+                return libraries.toArray(new File[libraries.size()]);
+            }
+
+            log.fine("The guice libraries are not available on the class path as jar files, "
+                    + "resolving them using maven.");
+        }
+
+        return resolveMavenDependencies();
+    }
+
+    /**
+     * Resolves Guice dependencies using maven. The resolved dependencies are being reused for the lifetime of the JVM,
+     * the guice and guice-servlet artifacts are being resolved concurrently.
+     *
+     * @return the resolved dependencies
+     */
+    private File[] resolveMavenDependencies() {
+
+        String version = GuiceVersion.determine(configurationInstance.get().getGuiceVersion());
+
+        Future<List<File>> guice = resolveArtifactOnce(GuiceExtensionConsts.GUICE_ARTIFACT_NAME, version);
+        Future<List<File>> guiceServlet = resolveArtifactOnce(GuiceExtensionConsts.GUICE_SEVLET_ARTIFACT_NAME, version);
+
+        Set<File> dependencies = new LinkedHashSet<File>();
+        dependencies.addAll(ArtifactResolutionCache.get(guice));
+        dependencies.addAll(ArtifactResolutionCache.get(guiceServlet));
 
         return dependencies.toArray(new File[dependencies.size()]);
     }
 
     /**
-     * Resolves the given artifact in specified version with help of maven build system.
+     * Retrieves the resolution of the given artifact in specified version, which is being shared by all the
+     * deployments. The files recorded in the valid resolution manifest are being used without running the resolver.
      *
      * @param artifact the artifact name
      * @param version  the artifact version
      *
-     * @return the resolved files
+     * @return the resolution of the artifact
      */
-    private Collection<File> resolveArtifact(String artifact, String version, String defaultVersion) {
+    private Future<List<File>> resolveArtifactOnce(String artifact, String version) {
+
+        final String coordinates = artifact + ":" + version;
+        final boolean offline = configurationInstance.get().isOffline();
+        final ResolutionManifest manifest = new ResolutionManifest(
+                new File(configurationInstance.get().getResolutionCacheDirectory()), coordinates);
+
+        return ArtifactResolutionCache.resolve(coordinates, new Callable<List<File>>() {
+            public List<File> call() {
 
-        File[] artifacts = null;
+                List<File> files = manifest.load();
 
-        String artifactVersion = version != null ? version : defaultVersion;
+                if (files == null) {
+
+                    files = resolveArtifact(coordinates, offline);
+                    storeManifest(manifest, files);
+                }
+
+                return files;
+            }
+        });
+    }
+
+    /**
+     * Stores the resolved files in the resolution manifest, so that they are being reused by the next test run.
+     *
+     * @param manifest the resolution manifest
+     * @param files    the resolved files
+     */
+    private static void storeManifest(ResolutionManifest manifest, List<File> files) {
 
         try {
 
-            artifacts = resolveArtifact(artifact);
-        } catch (Exception e) {
-            artifacts = resolveArtifact(artifact + ":" + artifactVersion);
+            manifest.store(files);
+        } catch (IOException e) {
+            log.log(Level.WARNING, "Could not store the resolved guice libraries.", e);
         }
-        return Arrays.asList(artifacts);
     }
 
     /**
-     * Resolves the given artifact by it's name with help of maven build system.
+     * Resolves the given artifact together with its transitive dependencies with help of maven build system.
      *
-     * @param artifact the fully qualified artifact name
+     * @param coordinates the artifact coordinates, including its version
+     * @param offline     whether to resolve the artifact without accessing the remote repositories
      *
      * @return the resolved files
      */
-    private File[] resolveArtifact(String artifact) {
+    private static List<File> resolveArtifact(String coordinates, boolean offline) {
 
-        return Maven.resolver()
-                .resolve(artifact)
+        return Arrays.asList(Maven.resolver()
+                .offline(offline)
+                .resolve(coordinates)
                 .withTransitivity()
-                .asFile();
+                .asFile());
     }
 }
@@ -0,0 +1,150 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.arquillian.guice.impl.client;
+
+import org.jboss.arquillian.guice.impl.GuiceExtensionConsts;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+import java.util.jar.Attributes;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.zip.ZipEntry;
+
+/**
+ * Determines the version of the Guice libraries to be resolved, in the following order: the version configured for
+ * the extension, the implementation version from the manifest of the Guice library on the class path, the version
+ * from the Maven metadata of that library and finally the {@link GuiceExtensionConsts#GUICE_ARTIFACT_VERSION}.
+ */
+final class GuiceVersion {
+
+    /**
+     * Represents the path of the Maven metadata of the Guice library.
+     */
+    private static final String POM_PROPERTIES = "META-INF/maven/com.google.inject/guice/pom.properties";
+
+    /**
+     * Represents the version detected from the class path, once it has been detected.
+     */
+    private static volatile String classpathVersion;
+
+    /**
+     * Creates new instance of {@link GuiceVersion}.
+     *
+     * Private constructor prevents from instantiation outside this class.
+     */
+    private GuiceVersion() {
+        // empty constructor
+    }
+
+    /**
+     * Determines the version of the Guice libraries. The version of the Guice library on the class path is being
+     * detected only once.
+     *
+     * @param configuredVersion the version configured for the extension or null if none has been configured
+     *
+     * @return the Guice version
+     */
+    static String determine(String configuredVersion) {
+
+        if (configuredVersion != null && configuredVersion.trim().length() > 0) {
+            return configuredVersion.trim();
+        }
+
+        String version = classpathVersion;
+
+        if (version == null) {
+
+            version = detect(ClasspathLibraries.findLibrary(GuiceExtensionConsts.INJECTOR));
+
+            if (version == null) {
+                version = GuiceExtensionConsts.GUICE_ARTIFACT_VERSION;
+            }
+
+            classpathVersion = version;
+        }
+
+        return version;
+    }
+
+    /**
+     * Detects the version of the given Guice library from its manifest or from its Maven metadata.
+     *
+     * @param library the Guice library or null if it is not available
+     *
+     * @return the detected version or null if the library does not declare its version
+     */
+    static String detect(File library) {
+
+        if (library == null) {
+            return null;
+        }
+
+        try {
+
+            JarFile jarFile = new JarFile(library);
+
+            try {
+
+                Manifest manifest = jarFile.getManifest();
+                String version = manifest != null
+                        ? manifest.getMainAttributes().getValue(Attributes.Name.IMPLEMENTATION_VERSION) : null;
+
+                if (version == null) {
+                    version = getPomVersion(jarFile);
+                }
+
+                return version;
+            } finally {
+                jarFile.close();
+            }
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Retrieves the version from the Maven metadata of the given library.
+     *
+     * @param jarFile the library
+     *
+     * @return the version or null if the library does not contain the Maven metadata
+     *
+     * @throws IOException if any error occurs
+     */
+    private static String getPomVersion(JarFile jarFile) throws IOException {
+
+        ZipEntry entry = jarFile.getEntry(POM_PROPERTIES);
+
+        if (entry == null) {
+            return null;
+        }
+
+        Properties properties = new Properties();
+        InputStream input = jarFile.getInputStream(entry);
+
+        try {
+            properties.load(input);
+        } finally {
+            input.close();
+        }
+
+        return properties.getProperty("version");
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.arquillian.guice.impl.client;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * The manifest of the files resolved for the single artifact, persisted between the test runs.
+ * <p />
+ * The manifest records the path, size, modification time and SHA-1 checksum of every resolved file. The manifest is
+ * valid as long as all the files exist unchanged, the checksum being computed only for the files whose size matches
+ * but the modification time does not.
+ */
+final class ResolutionManifest {
+
+    /**
+     * Represents the property holding the number of the files.
+     */
+    private static final String COUNT = "count";
+
+    /**
+     * Represents the prefix of the property holding the file path.
+     */
+    private static final String PATH = "path.";
+
+    /**
+     * Represents the prefix of the property holding the file size.
+     */
+    private static final String SIZE = "size.";
+
+    /**
+     * Represents the prefix of the property holding the file modification time.
+     */
+    private static final String LAST_MODIFIED = "lastModified.";
+
+    /**
+     * Represents the prefix of the property holding the file checksum.
+     */
+    private static final String CHECKSUM = "sha1.";
+
+    /**
+     * Represents the manifest file.
+     */
+    private final File file;
+
+    /**
+     * Creates new instance of {@link ResolutionManifest} class.
+     *
+     * @param directory   the directory of the manifests
+     * @param coordinates the coordinates of the resolved artifact
+     */
+    ResolutionManifest(File directory, String coordinates) {
+        this.file = new File(directory, coordinates.replaceAll("[^A-Za-z0-9._-]", "_") + ".properties");
+    }
+
+    /**
+     * Loads the resolved files from the manifest.
+     *
+     * @return the resolved files or null if the manifest does not exist or any of the files has been changed
+     */
+    List<File> load() {
+
+        if (!file.isFile()) {
+            return null;
+        }
+
+        try {
+
+            Properties properties = new Properties();
+            InputStream input = new FileInputStream(file);
+
+            try {
+                properties.load(input);
+            } finally {
+                input.close();
+            }
+
+            int count = Integer.parseInt(properties.getProperty(COUNT));
+            List<File> files = new ArrayList<File>(count);
+
+            for (int i = 0; i < count; i++) {
+
+                File resolved = new File(properties.getProperty(PATH + i));
+
+                if (!resolved.isFile() || resolved.length() != Long.parseLong(properties.getProperty(SIZE + i))) {
+                    return null;
+                }
+
+                if (resolved.lastModified() != Long.parseLong(properties.getProperty(LAST_MODIFIED + i))
+                        && !checksum(resolved).equals(properties.getProperty(CHECKSUM + i))) {
+                    return null;
+                }
+
+                files.add(resolved);
+            }
+
+            return files;
+        } catch (IOException e) {
+            return null;
+        } catch (RuntimeException e) {
+            // the manifest is incomplete
+            return null;
+        }
+    }
+
+    /**
+     * Stores the resolved files in the manifest. The manifest is being replaced at once, so that it is never read
+     * partially written.
+     *
+     * @param files the resolved files
+     *
+     * @throws IOException if any error occurs
+     */
+    void store(List<File> files) throws IOException {
+
+        Properties properties = new Properties();
+        properties.setProperty(COUNT, Integer.toString(files.size()));
+
+        for (int i = 0; i < files.size(); i++) {
+
+            File resolved = files.get(i).getAbsoluteFile();
+            properties.setProperty(PATH + i, resolved.getPath());
+            properties.setProperty(SIZE + i, Long.toString(resolved.length()));
+            properties.setProperty(LAST_MODIFIED + i, Long.toString(resolved.lastModified()));
+            properties.setProperty(CHECKSUM + i, checksum(resolved));
+        }
+
+        File directory = file.getParentFile();
+
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Could not create the directory: " + directory);
+        }
+
+        File temporary = File.createTempFile(file.getName(), ".tmp", directory);
+        OutputStream output = new FileOutputStream(temporary);
+
+        try {
+            properties.store(output, "Resolved guice libraries");
+        } finally {
+            output.close();
+        }
+
+        if (!temporary.renameTo(file)) {
+
+            // the rename does not replace the existing file on every platform
+            if (!file.delete() || !temporary.renameTo(file)) {
+
+                temporary.delete();
+                throw new IOException("Could not write the resolution manifest: " + file);
+            }
+        }
+    }
+
+    /**
+     * Computes the SHA-1 checksum of the given file.
+     *
+     * @param file the file
+     *
+     * @return the hex encoded checksum
+     *
+     * @throws IOException if any error occurs
+     */
+    private static String checksum(File file) throws IOException {
+
+        MessageDigest digest;
+
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException("The SHA-1 algorithm is not available.");
+        }
+
+        InputStream input = new FileInputStream(file);
+
+        try {
+
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        } finally {
+            input.close();
+        }
+
+        StringBuilder checksum = new StringBuilder();
+
+        for (byte b : digest.digest()) {
+            checksum.append(String.format("%02x", b));
+        }
+
+        return checksum.toString();
+    }
+}
@@ -16,6 +16,11 @@
  */
 package org.jboss.arquillian.guice.impl.configuration;
 
+import com.google.inject.Stage;
+
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Represents the configuration used by this component. The extension settings are being configured by
  * ArquillianDescriptor (arquillian.xml file).
@@ -34,6 +39,95 @@ public class GuiceExtensionConfiguration {
      */
     private String guiceVersion;
 
+    /**
+     * Represents the maximum number of injectors shared between the test classes, zero disables the cache.
+     */
+    private int injectorCacheSize;
+
+    /**
+     * Represents the fully qualified class names of the modules used for creating the suite level parent injector.
+     */
+    private List<String> parentModules = new ArrayList<String>();
+
+    /**
+     * Represents the Guice stage used for creating the injectors.
+     */
+    private Stage stage = Stage.DEVELOPMENT;
+
+    /**
+     * Represents the fully qualified class names of the test classes whose injectors are built in the background.
+     */
+    private List<String> prebuildTestClasses = new ArrayList<String>();
+
+    /**
+     * Represents whether to build in the background the injectors of all the test classes listed in the compile time
+     * test class index.
+     */
+    private boolean prebuildIndexedTestClasses;
+
+    /**
+     * Represents whether to record the elements of each module once and replay them for every injector.
+     */
+    private boolean cacheModuleElements;
+
+    /**
+     * Represents whether to instantiate and configure the modules of a single injector concurrently.
+     */
+    private boolean parallelModuleConfiguration;
+
+    /**
+     * Represents whether to build the injectors only from the bindings reachable from the test class injection points.
+     */
+    private boolean minimalInjector;
+
+    /**
+     * Represents whether to report the bindings that have been provisioned during the test suite.
+     */
+    private boolean bindingCoverageReport;
+
+    /**
+     * Represents whether to report the time spent constructing the injectors.
+     */
+    private boolean constructionReport;
+
+    /**
+     * Represents whether to trace the provisions in the collapsed stack format of the flame graphs.
+     */
+    private boolean provisionTrace;
+
+    /**
+     * Represents the time in milliseconds above which the provision of the single binding is being reported as slow,
+     * zero disables the detection.
+     */
+    private long slowProvisionThresholdMs;
+
+    /**
+     * Represents whether to fail the test when any slow provision has been detected.
+     */
+    private boolean failOnSlowProvision;
+
+    /**
+     * Represents whether the members injectors generated at compile time are used to enrich the test classes. The
+     * members injectors are only generated when the {@code arquillian.guice.generatedMembersInjectors} option has been
+     * passed to the annotation processor.
+     */
+    private boolean generatedMembersInjectors;
+
+    /**
+     * Represents the directory the reports are being written to.
+     */
+    private String reportDirectory = "target";
+
+    /**
+     * Represents whether the guice libraries should be resolved without accessing the remote repositories.
+     */
+    private boolean offline;
+
+    /**
+     * Represents the directory the manifests of the resolved guice libraries are being persisted to.
+     */
+    private String resolutionCacheDirectory = "target/arquillian-guice";
+
     /**
      * Creates new instance of {@link GuiceExtensionConfiguration} class.
      */
@@ -76,4 +170,310 @@ public class GuiceExtensionConfiguration {
     public void setGuiceVersion(String guiceVersion) {
         this.guiceVersion = guiceVersion;
     }
+
+    /**
+     * Retrieves the maximum number of cached injectors.
+     *
+     * @return the maximum number of cached injectors
+     */
+    public int getInjectorCacheSize() {
+        return injectorCacheSize;
+    }
+
+    /**
+     * Sets the maximum number of cached injectors.
+     *
+     * @param injectorCacheSize the maximum number of cached injectors
+     */
+    public void setInjectorCacheSize(int injectorCacheSize) {
+        this.injectorCacheSize = injectorCacheSize;
+    }
+
+    /**
+     * Retrieves the class names of the parent injector modules.
+     *
+     * @return the class names of the parent injector modules
+     */
+    public List<String> getParentModules() {
+        return parentModules;
+    }
+
+    /**
+     * Sets the class names of the parent injector modules.
+     *
+     * @param parentModules the class names of the parent injector modules
+     */
+    public void setParentModules(List<String> parentModules) {
+        this.parentModules = parentModules;
+    }
+
+    /**
+     * Retrieves the Guice stage.
+     *
+     * @return the Guice stage
+     */
+    public Stage getStage() {
+        return stage;
+    }
+
+    /**
+     * Sets the Guice stage.
+     *
+     * @param stage the Guice stage
+     */
+    public void setStage(Stage stage) {
+        this.stage = stage;
+    }
+
+    /**
+     * Retrieves the class names of the test classes whose injectors are built in the background.
+     *
+     * @return the class names of the test classes
+     */
+    public List<String> getPrebuildTestClasses() {
+        return prebuildTestClasses;
+    }
+
+    /**
+     * Sets the class names of the test classes whose injectors are built in the background.
+     *
+     * @param prebuildTestClasses the class names of the test classes
+     */
+    public void setPrebuildTestClasses(List<String> prebuildTestClasses) {
+        this.prebuildTestClasses = prebuildTestClasses;
+    }
+
+    /**
+     * Retrieves whether to prebuild the injectors of the indexed test classes.
+     *
+     * @return whether to prebuild the injectors of the indexed test classes
+     */
+    public boolean isPrebuildIndexedTestClasses() {
+        return prebuildIndexedTestClasses;
+    }
+
+    /**
+     * Sets whether to prebuild the injectors of the indexed test classes.
+     *
+     * @param prebuildIndexedTestClasses whether to prebuild the injectors of the indexed test classes
+     */
+    public void setPrebuildIndexedTestClasses(boolean prebuildIndexedTestClasses) {
+        this.prebuildIndexedTestClasses = prebuildIndexedTestClasses;
+    }
+
+    /**
+     * Retrieves whether to record and replay the module elements.
+     *
+     * @return whether to record and replay the module elements
+     */
+    public boolean isCacheModuleElements() {
+        return cacheModuleElements;
+    }
+
+    /**
+     * Sets whether to record and replay the module elements.
+     *
+     * @param cacheModuleElements whether to record and replay the module elements
+     */
+    public void setCacheModuleElements(boolean cacheModuleElements) {
+        this.cacheModuleElements = cacheModuleElements;
+    }
+
+    /**
+     * Retrieves whether to configure the modules concurrently.
+     *
+     * @return whether to configure the modules concurrently
+     */
+    public boolean isParallelModuleConfiguration() {
+        return parallelModuleConfiguration;
+    }
+
+    /**
+     * Sets whether to configure the modules concurrently.
+     *
+     * @param parallelModuleConfiguration whether to configure the modules concurrently
+     */
+    public void setParallelModuleConfiguration(boolean parallelModuleConfiguration) {
+        this.parallelModuleConfiguration = parallelModuleConfiguration;
+    }
+
+    /**
+     * Retrieves whether to build the minimal injectors.
+     *
+     * @return whether to build the minimal injectors
+     */
+    public boolean isMinimalInjector() {
+        return minimalInjector;
+    }
+
+    /**
+     * Sets whether to build the minimal injectors.
+     *
+     * @param minimalInjector whether to build the minimal injectors
+     */
+    public void setMinimalInjector(boolean minimalInjector) {
+        this.minimalInjector = minimalInjector;
+    }
+
+    /**
+     * Retrieves whether to report the bindings that have been provisioned during the test suite.
+     *
+     * @return whether to report the binding coverage
+     */
+    public boolean isBindingCoverageReport() {
+        return bindingCoverageReport;
+    }
+
+    /**
+     * Sets whether to report the bindings that have been provisioned during the test suite.
+     *
+     * @param bindingCoverageReport whether to report the binding coverage
+     */
+    public void setBindingCoverageReport(boolean bindingCoverageReport) {
+        this.bindingCoverageReport = bindingCoverageReport;
+    }
+
+    /**
+     * Retrieves whether to report the time spent constructing the injectors.
+     *
+     * @return whether to report the injector construction
+     */
+    public boolean isConstructionReport() {
+        return constructionReport;
+    }
+
+    /**
+     * Sets whether to report the time spent constructing the injectors.
+     *
+     * @param constructionReport whether to report the injector construction
+     */
+    public void setConstructionReport(boolean constructionReport) {
+        this.constructionReport = constructionReport;
+    }
+
+    /**
+     * Retrieves whether to trace the provisions in the collapsed stack format of the flame graphs.
+     *
+     * @return whether to trace the provisions
+     */
+    public boolean isProvisionTrace() {
+        return provisionTrace;
+    }
+
+    /**
+     * Sets whether to trace the provisions in the collapsed stack format of the flame graphs.
+     *
+     * @param provisionTrace whether to trace the provisions
+     */
+    public void setProvisionTrace(boolean provisionTrace) {
+        this.provisionTrace = provisionTrace;
+    }
+
+    /**
+     * Retrieves the time in milliseconds above which the provision of the single binding is being reported as slow.
+     *
+     * @return the slow provision threshold, zero if the detection is disabled
+     */
+    public long getSlowProvisionThresholdMs() {
+        return slowProvisionThresholdMs;
+    }
+
+    /**
+     * Sets the time in milliseconds above which the provision of the single binding is being reported as slow.
+     *
+     * @param slowProvisionThresholdMs the slow provision threshold, zero disables the detection
+     */
+    public void setSlowProvisionThresholdMs(long slowProvisionThresholdMs) {
+        this.slowProvisionThresholdMs = slowProvisionThresholdMs;
+    }
+
+    /**
+     * Retrieves whether to fail the test when any slow provision has been detected.
+     *
+     * @return whether to fail on slow provision
+     */
+    public boolean isFailOnSlowProvision() {
+        return failOnSlowProvision;
+    }
+
+    /**
+     * Sets whether to fail the test when any slow provision has been detected.
+     *
+     * @param failOnSlowProvision whether to fail on slow provision
+     */
+    public void setFailOnSlowProvision(boolean failOnSlowProvision) {
+        this.failOnSlowProvision = failOnSlowProvision;
+    }
+
+    /**
+     * Retrieves whether the members injectors generated at compile time are used to enrich the test classes.
+     *
+     * @return whether to use the generated members injectors
+     */
+    public boolean isGeneratedMembersInjectors() {
+        return generatedMembersInjectors;
+    }
+
+    /**
+     * Sets whether the members injectors generated at compile time are used to enrich the test classes.
+     *
+     * @param generatedMembersInjectors whether to use the generated members injectors
+     */
+    public void setGeneratedMembersInjectors(boolean generatedMembersInjectors) {
+        this.generatedMembersInjectors = generatedMembersInjectors;
+    }
+
+    /**
+     * Retrieves the directory the reports are being written to.
+     *
+     * @return the report directory
+     */
+    public String getReportDirectory() {
+        return reportDirectory;
+    }
+
+    /**
+     * Sets the directory the reports are being written to.
+     *
+     * @param reportDirectory the report directory
+     */
+    public void setReportDirectory(String reportDirectory) {
+        this.reportDirectory = reportDirectory;
+    }
+
+    /**
+     * Retrieves whether the guice libraries should be resolved without accessing the remote repositories.
+     *
+     * @return whether to work offline
+     */
+    public boolean isOffline() {
+        return offline;
+    }
+
+    /**
+     * Sets whether the guice libraries should be resolved without accessing the remote repositories.
+     *
+     * @param offline whether to work offline
+     */
+    public void setOffline(boolean offline) {
+        this.offline = offline;
+    }
+
+    /**
+     * Retrieves the directory the manifests of the resolved guice libraries are being persisted to.
+     *
+     * @return the resolution cache directory
+     */
+    public String getResolutionCacheDirectory() {
+        return resolutionCacheDirectory;
+    }
+
+    /**
+     * Sets the directory the manifests of the resolved guice libraries are being persisted to.
+     *
+     * @param resolutionCacheDirectory the resolution cache directory
+     */
+    public void setResolutionCacheDirectory(String resolutionCacheDirectory) {
+        this.resolutionCacheDirectory = resolutionCacheDirectory;
+    }
 }
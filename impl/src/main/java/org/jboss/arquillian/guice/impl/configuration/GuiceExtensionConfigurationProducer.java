@@ -16,6 +16,7 @@
  */
 package org.jboss.arquillian.guice.impl.configuration;
 
+import com.google.inject.Stage;
 import org.jboss.arquillian.config.descriptor.api.ArquillianDescriptor;
 import org.jboss.arquillian.config.descriptor.api.ExtensionDef;
 import org.jboss.arquillian.core.api.Instance;
@@ -25,8 +26,12 @@ import org.jboss.arquillian.core.api.annotation.Inject;
 import org.jboss.arquillian.core.api.annotation.Observes;
 import org.jboss.arquillian.test.spi.event.suite.BeforeSuite;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Properties;
 
 /**
  * A producer responsible for creating the extension configuration.
@@ -36,6 +41,11 @@ import java.util.Map;
  */
 public class GuiceExtensionConfigurationProducer {
 
+    /**
+     * Represents the resource the resolved configuration is being written to within the test deployment.
+     */
+    public static final String CONFIGURATION_RESOURCE = "META-INF/arquillian-guice.properties";
+
     /**
      * Represents the name of the guice extension configuration.
      */
@@ -51,6 +61,96 @@ public class GuiceExtensionConfigurationProducer {
      */
     private static final String GUICE_VERSION_PROPERTY_NAME = "guiceVersion";
 
+    /**
+     * Represents the name of property for setting the injector cache size.
+     */
+    private static final String INJECTOR_CACHE_SIZE_PROPERTY_NAME = "injectorCacheSize";
+
+    /**
+     * Represents the name of property for setting the parent injector modules.
+     */
+    private static final String PARENT_MODULES_PROPERTY_NAME = "parentModules";
+
+    /**
+     * Represents the name of property for setting the Guice stage.
+     */
+    private static final String STAGE_PROPERTY_NAME = "stage";
+
+    /**
+     * Represents the name of property for setting the test classes whose injectors are built in the background.
+     */
+    private static final String PREBUILD_TEST_CLASSES_PROPERTY_NAME = "prebuildTestClasses";
+
+    /**
+     * Represents the name of property for enabling the background build of the injectors of the indexed test classes.
+     */
+    private static final String PREBUILD_INDEXED_TEST_CLASSES_PROPERTY_NAME = "prebuildIndexedTestClasses";
+
+    /**
+     * Represents the name of property for enabling the module elements cache.
+     */
+    private static final String CACHE_MODULE_ELEMENTS_PROPERTY_NAME = "cacheModuleElements";
+
+    /**
+     * Represents the name of property for enabling the concurrent module configuration.
+     */
+    private static final String PARALLEL_MODULE_CONFIGURATION_PROPERTY_NAME = "parallelModuleConfiguration";
+
+    /**
+     * Represents the name of property for enabling the injectors pruned to the reachable bindings.
+     */
+    private static final String MINIMAL_INJECTOR_PROPERTY_NAME = "minimalInjector";
+
+    /**
+     * Represents the name of property for enabling the binding coverage report.
+     */
+    private static final String BINDING_COVERAGE_REPORT_PROPERTY_NAME = "bindingCoverageReport";
+
+    /**
+     * Represents the name of property for enabling the injector construction report.
+     */
+    private static final String CONSTRUCTION_REPORT_PROPERTY_NAME = "constructionReport";
+
+    /**
+     * Represents the name of property for enabling the provision trace.
+     */
+    private static final String PROVISION_TRACE_PROPERTY_NAME = "provisionTrace";
+
+    /**
+     * Represents the name of property for setting the slow provision threshold.
+     */
+    private static final String SLOW_PROVISION_THRESHOLD_PROPERTY_NAME = "slowProvisionThresholdMs";
+
+    /**
+     * Represents the name of property for failing the test on slow provision.
+     */
+    private static final String FAIL_ON_SLOW_PROVISION_PROPERTY_NAME = "failOnSlowProvision";
+
+    /**
+     * Represents the name of property for enabling the members injectors generated at compile time.
+     */
+    private static final String GENERATED_MEMBERS_INJECTORS_PROPERTY_NAME = "generatedMembersInjectors";
+
+    /**
+     * Represents the name of property for setting the report directory.
+     */
+    private static final String REPORT_DIRECTORY_PROPERTY_NAME = "reportDirectory";
+
+    /**
+     * Represents the name of property for resolving the guice libraries offline.
+     */
+    private static final String OFFLINE_PROPERTY_NAME = "offline";
+
+    /**
+     * Represents the name of property for setting the resolution cache directory.
+     */
+    private static final String RESOLUTION_CACHE_DIRECTORY_PROPERTY_NAME = "resolutionCacheDirectory";
+
+    /**
+     * Represents the separator of the list values.
+     */
+    private static final String LIST_SEPARATOR = ",";
+
     /**
      * The arquillian descriptor.
      */
@@ -85,21 +185,218 @@ public class GuiceExtensionConfigurationProducer {
      */
     private GuiceExtensionConfiguration getConfiguration(ArquillianDescriptor arquillianDescriptor) {
 
+        return getConfiguration(getGuiceExtensionSettings(arquillianDescriptor));
+    }
+
+    /**
+     * Creates the extension configuration from the given extension settings.
+     *
+     * @param guiceExt the extension settings
+     *
+     * @return the created configuration
+     */
+    static GuiceExtensionConfiguration getConfiguration(Map<String, String> guiceExt) {
+
         GuiceExtensionConfiguration config = new GuiceExtensionConfiguration();
 
-        Map<String, String> guiceExt = getGuiceExtensionSettings(descriptor.get());
         if (!guiceExt.isEmpty()) {
 
             if (guiceExt.containsKey(AUTO_PACKAGE_PROPERTY_NAME)) {
                 config.setAutoPackage(Boolean.parseBoolean(guiceExt.get(AUTO_PACKAGE_PROPERTY_NAME)));
             }
             config.setGuiceVersion(guiceExt.get(GUICE_VERSION_PROPERTY_NAME));
+
+            if (guiceExt.containsKey(INJECTOR_CACHE_SIZE_PROPERTY_NAME)) {
+                config.setInjectorCacheSize((int) parseNumber(guiceExt, INJECTOR_CACHE_SIZE_PROPERTY_NAME,
+                        Integer.MAX_VALUE));
+            }
+
+            if (guiceExt.containsKey(PARENT_MODULES_PROPERTY_NAME)) {
+                config.setParentModules(parseList(guiceExt.get(PARENT_MODULES_PROPERTY_NAME)));
+            }
+
+            if (guiceExt.containsKey(STAGE_PROPERTY_NAME)) {
+                config.setStage(Stage.valueOf(guiceExt.get(STAGE_PROPERTY_NAME).trim().toUpperCase(Locale.ENGLISH)));
+            }
+
+            if (guiceExt.containsKey(PREBUILD_TEST_CLASSES_PROPERTY_NAME)) {
+                config.setPrebuildTestClasses(parseList(guiceExt.get(PREBUILD_TEST_CLASSES_PROPERTY_NAME)));
+            }
+
+            if (guiceExt.containsKey(PREBUILD_INDEXED_TEST_CLASSES_PROPERTY_NAME)) {
+                config.setPrebuildIndexedTestClasses(
+                        Boolean.parseBoolean(guiceExt.get(PREBUILD_INDEXED_TEST_CLASSES_PROPERTY_NAME)));
+            }
+
+            if (guiceExt.containsKey(CACHE_MODULE_ELEMENTS_PROPERTY_NAME)) {
+                config.setCacheModuleElements(
+                        Boolean.parseBoolean(guiceExt.get(CACHE_MODULE_ELEMENTS_PROPERTY_NAME)));
+            }
+
+            if (guiceExt.containsKey(PARALLEL_MODULE_CONFIGURATION_PROPERTY_NAME)) {
+                config.setParallelModuleConfiguration(
+                        Boolean.parseBoolean(guiceExt.get(PARALLEL_MODULE_CONFIGURATION_PROPERTY_NAME)));
+            }
+
+            if (guiceExt.containsKey(MINIMAL_INJECTOR_PROPERTY_NAME)) {
+                config.setMinimalInjector(Boolean.parseBoolean(guiceExt.get(MINIMAL_INJECTOR_PROPERTY_NAME)));
+            }
+
+            if (guiceExt.containsKey(BINDING_COVERAGE_REPORT_PROPERTY_NAME)) {
+                config.setBindingCoverageReport(
+                        Boolean.parseBoolean(guiceExt.get(BINDING_COVERAGE_REPORT_PROPERTY_NAME)));
+            }
+
+            if (guiceExt.containsKey(CONSTRUCTION_REPORT_PROPERTY_NAME)) {
+                config.setConstructionReport(Boolean.parseBoolean(guiceExt.get(CONSTRUCTION_REPORT_PROPERTY_NAME)));
+            }
+
+            if (guiceExt.containsKey(PROVISION_TRACE_PROPERTY_NAME)) {
+                config.setProvisionTrace(Boolean.parseBoolean(guiceExt.get(PROVISION_TRACE_PROPERTY_NAME)));
+            }
+
+            if (guiceExt.containsKey(SLOW_PROVISION_THRESHOLD_PROPERTY_NAME)) {
+                config.setSlowProvisionThresholdMs(parseNumber(guiceExt, SLOW_PROVISION_THRESHOLD_PROPERTY_NAME,
+                        Long.MAX_VALUE));
+            }
+
+            if (guiceExt.containsKey(FAIL_ON_SLOW_PROVISION_PROPERTY_NAME)) {
+                config.setFailOnSlowProvision(
+                        Boolean.parseBoolean(guiceExt.get(FAIL_ON_SLOW_PROVISION_PROPERTY_NAME)));
+            }
+
+            if (guiceExt.containsKey(GENERATED_MEMBERS_INJECTORS_PROPERTY_NAME)) {
+                config.setGeneratedMembersInjectors(
+                        Boolean.parseBoolean(guiceExt.get(GENERATED_MEMBERS_INJECTORS_PROPERTY_NAME)));
+            }
+
+            if (guiceExt.containsKey(REPORT_DIRECTORY_PROPERTY_NAME)) {
+                config.setReportDirectory(guiceExt.get(REPORT_DIRECTORY_PROPERTY_NAME).trim());
+            }
+
+            if (guiceExt.containsKey(OFFLINE_PROPERTY_NAME)) {
+                config.setOffline(Boolean.parseBoolean(guiceExt.get(OFFLINE_PROPERTY_NAME)));
+            }
+
+            if (guiceExt.containsKey(RESOLUTION_CACHE_DIRECTORY_PROPERTY_NAME)) {
+                config.setResolutionCacheDirectory(guiceExt.get(RESOLUTION_CACHE_DIRECTORY_PROPERTY_NAME).trim());
+            }
         }
 
 
         return config;
     }
 
+    /**
+     * Converts the resolved configuration into the extension settings, from which the same configuration is being
+     * created within the container.
+     *
+     * @param config the resolved configuration
+     *
+     * @return the extension settings
+     */
+    public static Properties toProperties(GuiceExtensionConfiguration config) {
+
+        Properties properties = new Properties();
+
+        properties.setProperty(AUTO_PACKAGE_PROPERTY_NAME, String.valueOf(config.isAutoPackage()));
+        if (config.getGuiceVersion() != null) {
+            properties.setProperty(GUICE_VERSION_PROPERTY_NAME, config.getGuiceVersion());
+        }
+        properties.setProperty(INJECTOR_CACHE_SIZE_PROPERTY_NAME, String.valueOf(config.getInjectorCacheSize()));
+        properties.setProperty(PARENT_MODULES_PROPERTY_NAME, joinList(config.getParentModules()));
+        properties.setProperty(STAGE_PROPERTY_NAME, config.getStage().name());
+        properties.setProperty(PREBUILD_TEST_CLASSES_PROPERTY_NAME, joinList(config.getPrebuildTestClasses()));
+        properties.setProperty(PREBUILD_INDEXED_TEST_CLASSES_PROPERTY_NAME,
+                String.valueOf(config.isPrebuildIndexedTestClasses()));
+        properties.setProperty(CACHE_MODULE_ELEMENTS_PROPERTY_NAME, String.valueOf(config.isCacheModuleElements()));
+        properties.setProperty(PARALLEL_MODULE_CONFIGURATION_PROPERTY_NAME,
+                String.valueOf(config.isParallelModuleConfiguration()));
+        properties.setProperty(MINIMAL_INJECTOR_PROPERTY_NAME, String.valueOf(config.isMinimalInjector()));
+        properties.setProperty(BINDING_COVERAGE_REPORT_PROPERTY_NAME, String.valueOf(config.isBindingCoverageReport()));
+        properties.setProperty(CONSTRUCTION_REPORT_PROPERTY_NAME, String.valueOf(config.isConstructionReport()));
+        properties.setProperty(PROVISION_TRACE_PROPERTY_NAME, String.valueOf(config.isProvisionTrace()));
+        properties.setProperty(SLOW_PROVISION_THRESHOLD_PROPERTY_NAME,
+                String.valueOf(config.getSlowProvisionThresholdMs()));
+        properties.setProperty(FAIL_ON_SLOW_PROVISION_PROPERTY_NAME, String.valueOf(config.isFailOnSlowProvision()));
+        properties.setProperty(GENERATED_MEMBERS_INJECTORS_PROPERTY_NAME,
+                String.valueOf(config.isGeneratedMembersInjectors()));
+        properties.setProperty(REPORT_DIRECTORY_PROPERTY_NAME, config.getReportDirectory());
+        properties.setProperty(OFFLINE_PROPERTY_NAME, String.valueOf(config.isOffline()));
+        properties.setProperty(RESOLUTION_CACHE_DIRECTORY_PROPERTY_NAME, config.getResolutionCacheDirectory());
+
+        return properties;
+    }
+
+    /**
+     * Joins the list values into the comma separated property value.
+     *
+     * @param values the list of values
+     *
+     * @return the property value
+     */
+    private static String joinList(List<String> values) {
+
+        StringBuilder result = new StringBuilder();
+
+        for (String value : values) {
+
+            result.append(result.length() > 0 ? LIST_SEPARATOR : "").append(value);
+        }
+
+        return result.toString();
+    }
+
+    /**
+     * Parses the trimmed value of the given numeric property.
+     *
+     * @param settings the extension settings
+     * @param name     the property name
+     * @param maxValue the maximum allowed value
+     *
+     * @return the property value
+     *
+     * @throws IllegalArgumentException if the property value is not a valid number
+     */
+    private static long parseNumber(Map<String, String> settings, String name, long maxValue) {
+
+        String value = settings.get(name).trim();
+
+        try {
+            long result = Long.parseLong(value);
+
+            if (result > maxValue) {
+                throw new NumberFormatException("The value is too large.");
+            }
+
+            return result;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("The guice extension property " + name + " is not a valid number: "
+                    + value, e);
+        }
+    }
+
+    /**
+     * Splits the comma separated property value into list of trimmed values.
+     *
+     * @param value the property value
+     *
+     * @return the list of values
+     */
+    private static List<String> parseList(String value) {
+
+        List<String> result = new ArrayList<String>();
+
+        for (String item : value.split(LIST_SEPARATOR)) {
+
+            if (item.trim().length() > 0) {
+                result.add(item.trim());
+            }
+        }
+
+        return result;
+    }
+
     /**
      * Retrieves the extension settings from the arquillian descriptor.
      *
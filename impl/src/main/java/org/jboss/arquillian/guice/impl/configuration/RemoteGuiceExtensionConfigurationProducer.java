@@ -0,0 +1,105 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.arquillian.guice.impl.configuration;
+
+import org.jboss.arquillian.core.api.InstanceProducer;
+import org.jboss.arquillian.core.api.annotation.ApplicationScoped;
+import org.jboss.arquillian.core.api.annotation.Inject;
+import org.jboss.arquillian.core.api.annotation.Observes;
+import org.jboss.arquillian.test.spi.event.suite.BeforeSuite;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+/**
+ * A producer responsible for creating the extension configuration within the container, from the configuration
+ * resolved on the client side and shipped within the test deployment.
+ *
+ * @see GuiceExtensionConfigurationProducer#CONFIGURATION_RESOURCE
+ */
+public class RemoteGuiceExtensionConfigurationProducer {
+
+    /**
+     * The logger used by this class.
+     */
+    private static final Logger log = Logger.getLogger(RemoteGuiceExtensionConfigurationProducer.class.getName());
+
+    /**
+     * The instance of the extension configuration.
+     */
+    @Inject
+    @ApplicationScoped
+    private InstanceProducer<GuiceExtensionConfiguration> configurationInstance;
+
+    /**
+     * Loads the extension configuration before the test suite is being run.
+     *
+     * @param beforeSuiteEvent the event fired before execution of the test suite
+     */
+    public void loadConfiguration(@Observes BeforeSuite beforeSuiteEvent) {
+
+        Map<String, String> settings = readSettings();
+
+        if (settings != null) {
+
+            configurationInstance.set(GuiceExtensionConfigurationProducer.getConfiguration(settings));
+        }
+    }
+
+    /**
+     * Reads the extension settings shipped within the test deployment.
+     *
+     * @return the extension settings or null if the deployment does not contain them
+     */
+    private Map<String, String> readSettings() {
+
+        InputStream input = SecurityActions.getThreadContextClassLoader().getResourceAsStream(
+                GuiceExtensionConfigurationProducer.CONFIGURATION_RESOURCE);
+
+        if (input == null) {
+
+            log.fine("The test deployment does not contain the guice extension configuration.");
+            return null;
+        }
+
+        try {
+
+            Properties properties = new Properties();
+
+            try {
+                properties.load(input);
+            } finally {
+                input.close();
+            }
+
+            Map<String, String> settings = new HashMap<String, String>();
+
+            for (Map.Entry<Object, Object> entry : properties.entrySet()) {
+
+                settings.put((String) entry.getKey(), (String) entry.getValue());
+            }
+
+            return settings;
+        } catch (IOException e) {
+            throw new RuntimeException("Could not read the guice extension configuration.", e);
+        }
+    }
+}
@@ -18,6 +18,7 @@ package org.jboss.arquillian.guice.impl.container;
 
 import org.jboss.arquillian.container.test.spi.RemoteLoadableExtension;
 import org.jboss.arquillian.guice.impl.GuiceExtensionConsts;
+import org.jboss.arquillian.guice.impl.configuration.RemoteGuiceExtensionConfigurationProducer;
 import org.jboss.arquillian.guice.impl.enricher.GuiceInjectionEnricher;
 import org.jboss.arquillian.guice.impl.inject.InjectorProducer;
 import org.jboss.arquillian.test.spi.TestEnricher;
@@ -37,6 +38,7 @@ public class GuiceEnricherRemoteExtension implements RemoteLoadableExtension {
         if (Validate.classExists(GuiceExtensionConsts.INJECTOR)) {
 
             builder.service(TestEnricher.class, GuiceInjectionEnricher.class)
+                    .observer(RemoteGuiceExtensionConfigurationProducer.class)
                     .observer(InjectorProducer.class);
         }
     }
@@ -0,0 +1,72 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.arquillian.guice.impl.enricher;
+
+import com.google.inject.BindingAnnotation;
+import com.google.inject.Key;
+
+import javax.inject.Qualifier;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+/**
+ * Creates the Guice {@link Key} of the injected test class members and test method parameters.
+ */
+public final class BindingKeys {
+
+    /**
+     * Creates new instance of {@link BindingKeys}.
+     *
+     * Private constructor prevents from instantiation outside this class.
+     */
+    private BindingKeys() {
+        // empty constructor
+    }
+
+    /**
+     * Creates the Guice key of the injected member.
+     *
+     * @param type        the member type
+     * @param annotations the member annotations
+     *
+     * @return the member key
+     */
+    public static Key<?> getKey(Type type, Annotation[] annotations) {
+
+        for (Annotation annotation : annotations) {
+
+            if (isBindingAnnotation(annotation.annotationType())) {
+                return Key.get(type, annotation);
+            }
+        }
+
+        return Key.get(type);
+    }
+
+    /**
+     * Returns whether the given annotation is a Guice binding annotation or a JSR-330 qualifier.
+     *
+     * @param annotationType the annotation type
+     *
+     * @return true if the annotation is a binding annotation, false otherwise
+     */
+    private static boolean isBindingAnnotation(Class<? extends Annotation> annotationType) {
+
+        return annotationType.isAnnotationPresent(BindingAnnotation.class)
+                || annotationType.isAnnotationPresent(Qualifier.class);
+    }
+}
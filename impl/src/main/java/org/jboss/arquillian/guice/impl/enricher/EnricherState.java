@@ -0,0 +1,47 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.arquillian.guice.impl.enricher;
+
+/**
+ * Remembers the decisions of the {@link GuiceInjectionEnricher} that do not change during the test suite execution,
+ * so that the tests are not being enriched at any cost when Guice is not present in the class path.
+ */
+class EnricherState {
+
+    /**
+     * Represents whether the Guice is present in the class path.
+     */
+    private final boolean guicePresent;
+
+    /**
+     * Creates new instance of {@link EnricherState} class.
+     *
+     * @param guicePresent whether the Guice is present in the class path
+     */
+    EnricherState(boolean guicePresent) {
+        this.guicePresent = guicePresent;
+    }
+
+    /**
+     * Retrieves whether the Guice is present in the class path.
+     *
+     * @return true if the Guice is present in the class path, false otherwise
+     */
+    boolean isGuicePresent() {
+        return guicePresent;
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.arquillian.guice.impl.enricher;
+
+import com.google.inject.Injector;
+import com.google.inject.MembersInjector;
+import com.google.inject.Provider;
+import org.jboss.arquillian.guice.impl.index.TestClassIndex;
+
+import java.lang.reflect.Field;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The base class of the members injectors generated at compile time for the test classes. The generated injector
+ * assigns the injected fields with plain field writes, using the providers resolved once when the injector is being
+ * loaded.
+ * <p />
+ * This class is not meant to be extended by hand.
+ *
+ * @param <T> the test class type
+ */
+public abstract class GeneratedMembersInjector<T> implements MembersInjector<T> {
+
+    /**
+     * Represents the suffix appended to the test class name to form the name of its generated members injector.
+     */
+    public static final String CLASS_NAME_SUFFIX = "$$GuiceMembersInjector";
+
+    /**
+     * The logger used by this class.
+     */
+    private static final Logger log = Logger.getLogger(GeneratedMembersInjector.class.getName());
+
+    /**
+     * Represents the providers of the injected fields.
+     */
+    private Provider<?>[] providers;
+
+    /**
+     * Retrieves the injected fields in form of the declaring class binary name and the field name separated by
+     * {@link TestClassIndex#MEMBER_SEPARATOR}.
+     *
+     * @return the injected fields, in the same order as the providers are being used
+     */
+    protected abstract String[] getInjectedFields();
+
+    /**
+     * Provides the value of the injected field.
+     *
+     * @param index the field index
+     *
+     * @return the provided value
+     */
+    protected final Object get(int index) {
+
+        return providers[index].get();
+    }
+
+    /**
+     * Loads the generated members injector of the given test class.
+     *
+     * @param injector  the injector
+     * @param testClass the test class
+     * @param <T>       the test class type
+     *
+     * @return the generated members injector or null if none has been generated, or it is outdated
+     */
+    @SuppressWarnings("unchecked")
+    static <T> MembersInjector<T> load(Injector injector, Class<T> testClass) {
+
+        if (testClass.getClassLoader() == null) {
+            return null;
+        }
+
+        try {
+
+            GeneratedMembersInjector<T> result = (GeneratedMembersInjector<T>) Class.forName(
+                    testClass.getName() + CLASS_NAME_SUFFIX, true, testClass.getClassLoader()).newInstance();
+            result.init(injector, testClass);
+            return result;
+        } catch (ClassNotFoundException e) {
+            return null;
+        } catch (NoSuchFieldException e) {
+            log.log(Level.FINE, "The generated members injector is outdated: " + testClass.getName(), e);
+            return null;
+        } catch (InstantiationException e) {
+            throw new RuntimeException("Could not create the generated members injector: " + testClass.getName(), e);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException("Could not create the generated members injector: " + testClass.getName(), e);
+        }
+    }
+
+    /**
+     * Resolves the providers of the injected fields.
+     *
+     * @param injector  the injector
+     * @param testClass the test class
+     *
+     * @throws NoSuchFieldException if any of the injected fields does not exist in the test class hierarchy
+     */
+    private void init(Injector injector, Class<?> testClass) throws NoSuchFieldException {
+
+        String[] injectedFields = getInjectedFields();
+        Provider<?>[] result = new Provider<?>[injectedFields.length];
+
+        for (int i = 0; i < injectedFields.length; i++) {
+
+            int index = injectedFields[i].indexOf(TestClassIndex.MEMBER_SEPARATOR);
+            Field field = SecurityActions.getDeclaredField(getDeclaringClass(testClass,
+                    injectedFields[i].substring(0, index)), injectedFields[i].substring(index + 1));
+
+            result[i] = injector.getProvider(BindingKeys.getKey(field.getGenericType(), field.getAnnotations()));
+        }
+
+        providers = result;
+    }
+
+    /**
+     * Finds the class with the given name within the test class hierarchy.
+     *
+     * @param testClass the test class
+     * @param name      the binary name of the declaring class
+     *
+     * @return the declaring class
+     *
+     * @throws NoSuchFieldException if the class is not part of the test class hierarchy
+     */
+    private static Class<?> getDeclaringClass(Class<?> testClass, String name) throws NoSuchFieldException {
+
+        Class<?> current = testClass;
+
+        while (current != null) {
+
+            if (current.getName().equals(name)) {
+                return current;
+            }
+            current = current.getSuperclass();
+        }
+
+        throw new NoSuchFieldException("The class is not part of the test class hierarchy: " + name);
+    }
+}
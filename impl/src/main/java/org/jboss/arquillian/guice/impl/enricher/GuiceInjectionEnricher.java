@@ -17,12 +17,23 @@
 package org.jboss.arquillian.guice.impl.enricher;
 
 import com.google.inject.Injector;
+import com.google.inject.MembersInjector;
+import com.google.inject.Provider;
 import org.jboss.arquillian.core.api.Instance;
+import org.jboss.arquillian.core.api.InstanceProducer;
+import org.jboss.arquillian.core.api.annotation.ApplicationScoped;
 import org.jboss.arquillian.core.api.annotation.Inject;
 import org.jboss.arquillian.guice.impl.GuiceExtensionConsts;
+import org.jboss.arquillian.guice.impl.configuration.GuiceExtensionConfiguration;
+import org.jboss.arquillian.guice.impl.inject.SlowProvisionDetector;
+import org.jboss.arquillian.guice.impl.inject.StartupBudget;
+import org.jboss.arquillian.guice.impl.inject.TestClassMetadataCache;
+import org.jboss.arquillian.guice.impl.monitor.FlightRecorderEvent;
+import org.jboss.arquillian.test.spi.TestClass;
 import org.jboss.arquillian.test.spi.TestEnricher;
 
 import java.lang.reflect.Method;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
@@ -43,16 +54,115 @@ public class GuiceInjectionEnricher implements TestEnricher {
     @Inject
     private Instance<Injector> injectorInstance;
 
+    /**
+     * Instance of the {@link GuiceExtensionConfiguration}.
+     */
+    @Inject
+    private Instance<GuiceExtensionConfiguration> configurationInstance;
+
+    /**
+     * Instance of the {@link TestClassMetadataCache}.
+     */
+    @Inject
+    private Instance<TestClassMetadataCache> metadataCacheInstance;
+
+    /**
+     * Instance of the currently executed {@link TestClass}.
+     */
+    @Inject
+    private Instance<TestClass> testClassInstance;
+
+    /**
+     * Instance of the {@link SlowProvisionDetector}.
+     */
+    @Inject
+    private Instance<SlowProvisionDetector> slowProvisionDetectorInstance;
+
+    /**
+     * Instance of the {@link StartupBudget} of the test class.
+     */
+    @Inject
+    private Instance<StartupBudget> startupBudgetInstance;
+
+    /**
+     * Producer proxy for {@link MembersInjectorCache}.
+     */
+    @Inject
+    @ApplicationScoped
+    private InstanceProducer<MembersInjectorCache> membersInjectorCacheInstance;
+
+    /**
+     * Producer proxy for {@link ParameterProvidersCache}.
+     */
+    @Inject
+    @ApplicationScoped
+    private InstanceProducer<ParameterProvidersCache> parameterProvidersCacheInstance;
+
+    /**
+     * Producer proxy for {@link EnricherState}.
+     */
+    @Inject
+    @ApplicationScoped
+    private InstanceProducer<EnricherState> enricherStateInstance;
+
     /**
      * {@inheritDoc}
      */
     public void enrich(Object testCase) {
 
-        if (SecurityActions.isClassPresent(GuiceExtensionConsts.INJECTOR) && isInjectorExists(testCase)) {
+        EnricherState enricherState = getEnricherState();
+
+        if (!enricherState.isGuicePresent() || !isGuiceTest(testCase.getClass())) {
+            return;
+        }
+
+        if (isInjectorExists(testCase)) {
+
+            FlightRecorderEvent event = FlightRecorderEvent.begin(FlightRecorderEvent.ENRICHMENT);
+            long start = System.nanoTime();
+
             injectClass(testCase);
+
+            long enrichmentTime = System.nanoTime() - start;
+
+            if (event.isRecording()) {
+                event.commit(testCase.getClass().getName(), getInjectorInstance().getBindings().size());
+            }
+
+            verifySlowProvisions();
+            verifyStartupBudget(enrichmentTime);
         }
     }
 
+    /**
+     * Returns whether the given model class defines any guice configuration. The test classes that do not define it
+     * are never enriched, even if the injector created for any previous test class still exists.
+     *
+     * @param testClass the model class
+     *
+     * @return true if the model class defines guice configuration or its metadata is not available, false otherwise
+     */
+    private boolean isGuiceTest(Class<?> testClass) {
+
+        TestClassMetadataCache metadataCache = metadataCacheInstance.get();
+
+        return metadataCache == null || metadataCache.isGuiceTest(testClass);
+    }
+
+    /**
+     * Retrieves the currently executed test class, or the class declaring the test method if it is not known.
+     *
+     * @param method the test method
+     *
+     * @return the test class
+     */
+    private Class<?> getTestClass(Method method) {
+
+        TestClass testClass = testClassInstance.get();
+
+        return testClass != null ? testClass.getJavaClass() : method.getDeclaringClass();
+    }
+
     /**
      * Returns whether the Guice injector exists for a given class.
      *
@@ -69,7 +179,28 @@ public class GuiceInjectionEnricher implements TestEnricher {
      */
     public Object[] resolve(Method method) {
 
-        return new Object[method.getParameterTypes().length];
+        Object[] values = new Object[method.getParameterTypes().length];
+
+        if (values.length > 0 && getEnricherState().isGuicePresent() && isGuiceTest(getTestClass(method))) {
+
+            Injector injector = getInjectorInstance();
+
+            if (injector != null) {
+
+                Provider<?>[] providers = getParameterProvidersCache().get(injector, method);
+
+                for (int i = 0; i < providers.length; i++) {
+
+                    if (providers[i] != null) {
+                        values[i] = providers[i].get();
+                    }
+                }
+
+                verifySlowProvisions();
+            }
+        }
+
+        return values;
     }
 
     /**
@@ -85,8 +216,101 @@ public class GuiceInjectionEnricher implements TestEnricher {
         if (injector != null) {
 
             // injects the dependencies into model model class
-            injector.injectMembers(testCase);
-            log.fine("Injecting dependencies into guice model " + testCase.getClass().getSimpleName());
+            injectMembers(injector, testCase);
+
+            if (log.isLoggable(Level.FINE)) {
+                log.fine("Injecting dependencies into guice model " + testCase.getClass().getSimpleName());
+            }
+        }
+    }
+
+    /**
+     * Injects the dependencies into model class through its cached {@link MembersInjector}.
+     *
+     * @param injector the injector
+     * @param testCase the model class
+     * @param <T>      the model class type
+     */
+    @SuppressWarnings("unchecked")
+    private <T> void injectMembers(Injector injector, T testCase) {
+
+        MembersInjectorCache membersInjectorCache = membersInjectorCacheInstance.get();
+
+        if (membersInjectorCache == null) {
+
+            GuiceExtensionConfiguration configuration = configurationInstance.get();
+
+            membersInjectorCache = new MembersInjectorCache(configuration != null
+                    && configuration.isGeneratedMembersInjectors());
+            membersInjectorCacheInstance.set(membersInjectorCache);
+        }
+
+        membersInjectorCache.get(injector, (Class<T>) testCase.getClass()).injectMembers(testCase);
+    }
+
+    /**
+     * Retrieves the {@link EnricherState}, creating it on the first use. The Guice class path check is being done only
+     * once.
+     *
+     * @return the enricher state
+     */
+    private EnricherState getEnricherState() {
+
+        EnricherState enricherState = enricherStateInstance.get();
+
+        if (enricherState == null) {
+
+            enricherState = new EnricherState(SecurityActions.isClassPresent(GuiceExtensionConsts.INJECTOR));
+            enricherStateInstance.set(enricherState);
+        }
+
+        return enricherState;
+    }
+
+    /**
+     * Retrieves the {@link ParameterProvidersCache}, creating it on the first use.
+     *
+     * @return the parameter providers cache
+     */
+    private ParameterProvidersCache getParameterProvidersCache() {
+
+        ParameterProvidersCache parameterProvidersCache = parameterProvidersCacheInstance.get();
+
+        if (parameterProvidersCache == null) {
+
+            parameterProvidersCache = new ParameterProvidersCache();
+            parameterProvidersCacheInstance.set(parameterProvidersCache);
+        }
+
+        return parameterProvidersCache;
+    }
+
+    /**
+     * Fails if any slow provision has been detected within the injector of the test class and the failure has been
+     * enabled in the extension configuration.
+     */
+    private void verifySlowProvisions() {
+
+        SlowProvisionDetector slowProvisionDetector = slowProvisionDetectorInstance.get();
+
+        if (slowProvisionDetector != null) {
+
+            slowProvisionDetector.verify(getInjectorInstance());
+        }
+    }
+
+    /**
+     * Verifies the enrichment against the startup budget declared by the test class, if any.
+     *
+     * @param enrichmentTime the time of the enrichment in nanoseconds
+     */
+    private void verifyStartupBudget(long enrichmentTime) {
+
+        StartupBudget startupBudget = startupBudgetInstance.get();
+
+        if (startupBudget != null) {
+
+            startupBudget.verifyEnrichment(enrichmentTime);
         }
     }
 
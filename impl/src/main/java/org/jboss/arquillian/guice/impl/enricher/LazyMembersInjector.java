@@ -0,0 +1,209 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.arquillian.guice.impl.enricher;
+
+import com.google.inject.Injector;
+import com.google.inject.MembersInjector;
+import com.google.inject.Provider;
+import org.jboss.arquillian.guice.api.annotation.LazyInject;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+
+/**
+ * A {@link MembersInjector} that assigns a proxy to each field annotated with {@link LazyInject}, after the regular
+ * injection points have been injected. The proxy provisions the actual dependency on the first invocation of any
+ * method of the field type. The {@code equals}, {@code hashCode} and {@code toString} methods are being handled by the
+ * proxy itself, so that logging or comparing the field does not provision the dependency.
+ *
+ * @param <T> the test class type
+ */
+class LazyMembersInjector<T> implements MembersInjector<T> {
+
+    /**
+     * Represents the members injector of the regular injection points.
+     */
+    private final MembersInjector<T> delegate;
+
+    /**
+     * Represents the lazily injected fields.
+     */
+    private final Field[] fields;
+
+    /**
+     * Represents the providers of the lazily injected fields.
+     */
+    private final Provider<?>[] providers;
+
+    /**
+     * Creates new instance of {@link LazyMembersInjector} class.
+     *
+     * @param delegate  the members injector of the regular injection points
+     * @param fields    the lazily injected fields
+     * @param providers the providers of the lazily injected fields
+     */
+    private LazyMembersInjector(MembersInjector<T> delegate, Field[] fields, Provider<?>[] providers) {
+        this.delegate = delegate;
+        this.fields = fields;
+        this.providers = providers;
+    }
+
+    /**
+     * Creates the members injector of the given test class. The providers of the lazily injected fields are being
+     * resolved once, when the members injector is created.
+     *
+     * @param injector        the injector
+     * @param testClass       the test class
+     * @param membersInjector the members injector of the regular injection points
+     * @param <T>             the test class type
+     *
+     * @return the members injector, which is the given members injector if the test class has no lazily injected
+     *         fields
+     */
+    static <T> MembersInjector<T> create(Injector injector, Class<T> testClass, MembersInjector<T> membersInjector) {
+
+        List<Field> lazyFields = SecurityActions.getFieldsWithAnnotation(testClass, LazyInject.class);
+
+        if (lazyFields.isEmpty()) {
+            return membersInjector;
+        }
+
+        Field[] fields = lazyFields.toArray(new Field[lazyFields.size()]);
+        Provider<?>[] providers = new Provider<?>[fields.length];
+
+        for (int i = 0; i < fields.length; i++) {
+
+            if (!fields[i].getType().isInterface()) {
+                throw new RuntimeException("The lazily injected field must be declared with an interface type: "
+                        + fields[i].getDeclaringClass().getName() + "." + fields[i].getName());
+            }
+
+            providers[i] = injector.getProvider(BindingKeys.getKey(fields[i].getGenericType(),
+                    fields[i].getAnnotations()));
+        }
+
+        return new LazyMembersInjector<T>(membersInjector, fields, providers);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void injectMembers(T instance) {
+
+        delegate.injectMembers(instance);
+
+        for (int i = 0; i < fields.length; i++) {
+
+            Class<?> type = fields[i].getType();
+
+            try {
+
+                fields[i].set(instance, Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                        new LazyInvocationHandler(type, providers[i])));
+            } catch (IllegalAccessException e) {
+                throw new RuntimeException("Could not inject the field: " + fields[i].getName(), e);
+            }
+        }
+    }
+
+    /**
+     * An invocation handler that provisions the proxied dependency on the first method invocation and delegates all
+     * the invocations of the methods of the field type to it.
+     */
+    private static class LazyInvocationHandler implements InvocationHandler {
+
+        /**
+         * Represents the field type.
+         */
+        private final Class<?> type;
+
+        /**
+         * Represents the provider of the dependency.
+         */
+        private final Provider<?> provider;
+
+        /**
+         * Represents the provisioned dependency.
+         */
+        private Object target;
+
+        /**
+         * Creates new instance of {@link LazyInvocationHandler} class.
+         *
+         * @param type     the field type
+         * @param provider the provider of the dependency
+         */
+        private LazyInvocationHandler(Class<?> type, Provider<?> provider) {
+            this.type = type;
+            this.provider = provider;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+            if (method.getDeclaringClass() == Object.class) {
+                return invokeObjectMethod(proxy, method, args);
+            }
+
+            try {
+                return SecurityActions.makeAccessible(method).invoke(getTarget(), args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        /**
+         * Handles the methods declared by the {@link Object} class without provisioning the dependency.
+         *
+         * @param proxy  the proxy
+         * @param method the method
+         * @param args   the method arguments
+         *
+         * @return the method result
+         */
+        private Object invokeObjectMethod(Object proxy, Method method, Object[] args) {
+
+            if ("equals".equals(method.getName())) {
+                return proxy == args[0];
+            } else if ("hashCode".equals(method.getName())) {
+                return System.identityHashCode(proxy);
+            }
+
+            return "LazyInject proxy of " + type.getName();
+        }
+
+        /**
+         * Retrieves the dependency, provisioning it if necessary.
+         *
+         * @return the dependency
+         */
+        private synchronized Object getTarget() {
+
+            if (target == null) {
+                target = provider.get();
+            }
+
+            return target;
+        }
+    }
+}
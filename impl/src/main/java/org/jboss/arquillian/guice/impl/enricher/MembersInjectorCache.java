@@ -0,0 +1,166 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.arquillian.guice.impl.enricher;
+
+import com.google.inject.Injector;
+import com.google.inject.MembersInjector;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Caches the {@link MembersInjector} of each test class, so that the injection points of the class are resolved only
+ * once per injector. The cached members injectors are discarded whenever a different injector is being used.
+ * <p />
+ * When enabled, the members injector generated at compile time is being used whenever it exists for the test class
+ * and the injector has no type listeners, which the generated members injector would bypass. Otherwise the injector's
+ * own members injector is used. The members injector of a test class that declares any lazily injected
+ * fields is wrapped by a {@link LazyMembersInjector}.
+ */
+class MembersInjectorCache {
+
+    /**
+     * Represents whether the members injectors generated at compile time are being used.
+     */
+    private final boolean generatedMembersInjectors;
+
+    /**
+     * Represents the injector that created the cached members injectors.
+     */
+    private Injector injector;
+
+    /**
+     * Represents whether the generated members injectors can be used with the current injector.
+     */
+    private boolean generatedMembersInjectorsAllowed;
+
+    /**
+     * Each key value pair stores the test class and its members injector.
+     */
+    private ConcurrentMap<Class<?>, MembersInjector<?>> membersInjectors =
+            new ConcurrentHashMap<Class<?>, MembersInjector<?>>();
+
+    /**
+     * Creates new instance of {@link MembersInjectorCache} class.
+     *
+     * @param generatedMembersInjectors whether to use the members injectors generated at compile time
+     */
+    MembersInjectorCache(boolean generatedMembersInjectors) {
+
+        this.generatedMembersInjectors = generatedMembersInjectors;
+    }
+
+    /**
+     * Retrieves the members injector of the given test class, creating it if necessary.
+     *
+     * @param injector  the injector
+     * @param testClass the test class
+     * @param <T>       the test class type
+     *
+     * @return the members injector
+     */
+    @SuppressWarnings("unchecked")
+    <T> MembersInjector<T> get(Injector injector, Class<T> testClass) {
+
+        ConcurrentMap<Class<?>, MembersInjector<?>> cache = getMembersInjectors(injector);
+
+        MembersInjector<T> result = (MembersInjector<T>) cache.get(testClass);
+
+        if (result == null) {
+
+            result = createMembersInjector(injector, testClass);
+
+            MembersInjector<T> existing = (MembersInjector<T>) cache.putIfAbsent(testClass, result);
+            if (existing != null) {
+                result = existing;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Creates the members injector of the given test class.
+     *
+     * @param injector  the injector
+     * @param testClass the test class
+     * @param <T>       the test class type
+     *
+     * @return the members injector
+     */
+    private <T> MembersInjector<T> createMembersInjector(Injector injector, Class<T> testClass) {
+
+        MembersInjector<T> membersInjector = null;
+
+        if (isGeneratedMembersInjectorsAllowed()) {
+            membersInjector = GeneratedMembersInjector.load(injector, testClass);
+        }
+
+        if (membersInjector == null) {
+            membersInjector = injector.getMembersInjector(testClass);
+        }
+
+        return LazyMembersInjector.create(injector, testClass, membersInjector);
+    }
+
+    /**
+     * Retrieves the members injectors created by the given injector, discarding the ones created by any previous
+     * injector.
+     *
+     * @param injector the injector
+     *
+     * @return the members injectors
+     */
+    private synchronized ConcurrentMap<Class<?>, MembersInjector<?>> getMembersInjectors(Injector injector) {
+
+        if (this.injector != injector) {
+
+            this.injector = injector;
+            generatedMembersInjectorsAllowed = generatedMembersInjectors && !hasTypeListeners(injector);
+            membersInjectors = new ConcurrentHashMap<Class<?>, MembersInjector<?>>();
+        }
+
+        return membersInjectors;
+    }
+
+    /**
+     * Returns whether the generated members injectors can be used with the current injector.
+     *
+     * @return true if the generated members injectors can be used, false otherwise
+     */
+    private synchronized boolean isGeneratedMembersInjectorsAllowed() {
+
+        return generatedMembersInjectorsAllowed;
+    }
+
+    /**
+     * Returns whether the injector or any of its parents has type listeners. The generated members injector does not
+     * notify them, neither the injection listeners they register, so the injector's own members injector has to be
+     * used instead. When the type listeners can not be retrieved the injector is assumed to have some.
+     *
+     * @param injector the injector
+     *
+     * @return true if the injector may have type listeners, false otherwise
+     */
+    private static boolean hasTypeListeners(Injector injector) {
+
+        List<?> typeListenerBindings = SecurityActions.getTypeListenerBindings(injector);
+
+        return typeListenerBindings == null || !typeListenerBindings.isEmpty();
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.arquillian.guice.impl.enricher;
+
+import com.google.inject.Binding;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.Provider;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Caches the {@link Provider} of each parameter of the test methods, so that the Guice {@link Key} of the parameters
+ * is computed only once per method and injector. Only the parameters explicitly bound by the injector or its parents
+ * are being provided, so that the parameters meant for the other test enrichers are left to them, as are the
+ * parameters annotated for any other enricher. The cached providers are discarded whenever a different injector is
+ * being used.
+ */
+class ParameterProvidersCache {
+
+    /**
+     * Represents the fully qualified names of the annotations that mark the parameters resolved by the other
+     * enrichers.
+     */
+    private static final Set<String> OTHER_ENRICHER_ANNOTATIONS = new HashSet<String>(Arrays.asList(
+            "org.jboss.arquillian.test.api.ArquillianResource", "javax.annotation.Resource", "javax.ejb.EJB"));
+
+    /**
+     * Represents the injector that created the cached providers.
+     */
+    private Injector injector;
+
+    /**
+     * Each key value pair stores the test method and the providers of its parameters.
+     */
+    private ConcurrentMap<Method, Provider<?>[]> providers = new ConcurrentHashMap<Method, Provider<?>[]>();
+
+    /**
+     * Retrieves the providers of the parameters of the given method, creating them if necessary.
+     *
+     * @param injector the injector
+     * @param method   the test method
+     *
+     * @return the parameter providers, with null for each parameter that is not provided by the injector
+     */
+    Provider<?>[] get(Injector injector, Method method) {
+
+        ConcurrentMap<Method, Provider<?>[]> cache = getProviders(injector);
+
+        Provider<?>[] result = cache.get(method);
+
+        if (result == null) {
+
+            result = createProviders(injector, method);
+
+            Provider<?>[] existing = cache.putIfAbsent(method, result);
+            if (existing != null) {
+                result = existing;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Retrieves the providers created by the given injector, discarding the ones created by any previous injector.
+     *
+     * @param injector the injector
+     *
+     * @return the providers
+     */
+    private synchronized ConcurrentMap<Method, Provider<?>[]> getProviders(Injector injector) {
+
+        if (this.injector != injector) {
+
+            this.injector = injector;
+            providers = new ConcurrentHashMap<Method, Provider<?>[]>();
+        }
+
+        return providers;
+    }
+
+    /**
+     * Creates the providers of the parameters of the given method.
+     *
+     * @param injector the injector
+     * @param method   the test method
+     *
+     * @return the parameter providers
+     */
+    private static Provider<?>[] createProviders(Injector injector, Method method) {
+
+        Type[] parameterTypes = method.getGenericParameterTypes();
+        Annotation[][] parameterAnnotations = method.getParameterAnnotations();
+        Provider<?>[] result = new Provider<?>[parameterTypes.length];
+
+        for (int i = 0; i < parameterTypes.length; i++) {
+
+            if (!isOtherEnricherParameter(parameterAnnotations[i])) {
+
+                Binding<?> binding = getExplicitBinding(injector,
+                        BindingKeys.getKey(parameterTypes[i], parameterAnnotations[i]));
+
+                result[i] = binding != null ? binding.getProvider() : null;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Retrieves the explicit binding of the given key within the injector or any of its parents.
+     *
+     * @param injector the injector
+     * @param key      the parameter key
+     *
+     * @return the binding or null if the key has not been explicitly bound
+     */
+    private static Binding<?> getExplicitBinding(Injector injector, Key<?> key) {
+
+        for (Injector current = injector; current != null; current = current.getParent()) {
+
+            Binding<?> binding = current.getBindings().get(key);
+
+            if (binding != null) {
+                return binding;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns whether the parameter is annotated for any other test enricher.
+     *
+     * @param annotations the parameter annotations
+     *
+     * @return true if the parameter is meant for other enricher, false otherwise
+     */
+    private static boolean isOtherEnricherParameter(Annotation[] annotations) {
+
+        for (Annotation annotation : annotations) {
+
+            if (OTHER_ENRICHER_ANNOTATIONS.contains(annotation.annotationType().getName())) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
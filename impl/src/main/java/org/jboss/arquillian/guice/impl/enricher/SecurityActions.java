@@ -16,8 +16,18 @@
  */
 package org.jboss.arquillian.guice.impl.enricher;
 
+import com.google.inject.Injector;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
+import java.security.PrivilegedActionException;
+import java.security.PrivilegedExceptionAction;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Defines a set of operations that are mend to be executed within security context.
@@ -26,6 +36,16 @@ import java.security.PrivilegedAction;
  */
 final class SecurityActions {
 
+    /**
+     * Represents the name of the method that retrieves the type listener bindings.
+     */
+    private static final String GET_TYPE_LISTENER_BINDINGS = "getTypeListenerBindings";
+
+    /**
+     * Represents the name of the field that holds the internal state of the Guice 3 injector.
+     */
+    private static final String INJECTOR_STATE = "state";
+
     /**
      * Creates new instance of {@link SecurityActions}.
      *
@@ -67,4 +87,128 @@ final class SecurityActions {
             }
         });
     }
+
+    /**
+     * Retrieves the list of the non static fields that were annotated with given annotation, including the fields
+     * declared by the super classes.
+     *
+     * @param source          the class to scan for fields
+     * @param annotationClass the annotation
+     *
+     * @return list of the accessible fields of the given class that were annotated with specified annotation
+     */
+    static List<Field> getFieldsWithAnnotation(final Class<?> source,
+                                               final Class<? extends Annotation> annotationClass) {
+
+        return AccessController.doPrivileged(new PrivilegedAction<List<Field>>() {
+            public List<Field> run() {
+
+                List<Field> foundFields = new ArrayList<Field>();
+                Class<?> nextSource = source;
+                while (nextSource != null && nextSource != Object.class) {
+                    for (Field field : nextSource.getDeclaredFields()) {
+                        if (!Modifier.isStatic(field.getModifiers()) && field.isAnnotationPresent(annotationClass)) {
+                            if (!field.isAccessible()) {
+                                field.setAccessible(true);
+                            }
+                            foundFields.add(field);
+                        }
+                    }
+                    nextSource = nextSource.getSuperclass();
+                }
+                return foundFields;
+            }
+        });
+    }
+
+    /**
+     * Retrieves the field with the given name declared by the given class.
+     *
+     * @param source the class that declares the field
+     * @param name   the field name
+     *
+     * @return the field
+     *
+     * @throws NoSuchFieldException if the class does not declare such field
+     */
+    static Field getDeclaredField(final Class<?> source, final String name) throws NoSuchFieldException {
+
+        try {
+            return AccessController.doPrivileged(new PrivilegedExceptionAction<Field>() {
+                public Field run() throws NoSuchFieldException {
+                    return source.getDeclaredField(name);
+                }
+            });
+        } catch (PrivilegedActionException e) {
+            throw (NoSuchFieldException) e.getException();
+        }
+    }
+
+    /**
+     * Makes the given method accessible.
+     *
+     * @param method the method
+     *
+     * @return the accessible method
+     */
+    static Method makeAccessible(final Method method) {
+
+        if (!method.isAccessible()) {
+
+            AccessController.doPrivileged(new PrivilegedAction<Void>() {
+                public Void run() {
+                    method.setAccessible(true);
+                    return null;
+                }
+            });
+        }
+
+        return method;
+    }
+
+    /**
+     * Retrieves the type listeners of the given injector, including the ones inherited from its parents. Guice 4
+     * exposes them through the injector itself, while Guice 3 only keeps them in the internal injector state.
+     *
+     * @param injector the injector
+     *
+     * @return the type listener bindings or null if they could not be retrieved
+     */
+    static List<?> getTypeListenerBindings(final Injector injector) {
+
+        return AccessController.doPrivileged(new PrivilegedAction<List<?>>() {
+            public List<?> run() {
+
+                try {
+                    return (List<?>) Injector.class.getMethod(GET_TYPE_LISTENER_BINDINGS).invoke(injector);
+                } catch (NoSuchMethodException e) {
+                    return getStateTypeListenerBindings(injector);
+                } catch (Exception e) {
+                    return null;
+                }
+            }
+        });
+    }
+
+    /**
+     * Retrieves the type listeners kept in the internal state of the Guice 3 injector.
+     *
+     * @param injector the injector
+     *
+     * @return the type listener bindings or null if they could not be retrieved
+     */
+    private static List<?> getStateTypeListenerBindings(Injector injector) {
+
+        try {
+            Field stateField = injector.getClass().getDeclaredField(INJECTOR_STATE);
+            stateField.setAccessible(true);
+            Object state = stateField.get(injector);
+
+            Method method = state.getClass().getMethod(GET_TYPE_LISTENER_BINDINGS);
+            method.setAccessible(true);
+            return (List<?>) method.invoke(state);
+        } catch (Exception e) {
+            return null;
+        }
+    }
 }
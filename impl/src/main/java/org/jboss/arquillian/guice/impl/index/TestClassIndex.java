@@ -0,0 +1,232 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.arquillian.guice.impl.index;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The index of the Guice test classes generated at compile time by the
+ * {@link org.jboss.arquillian.guice.impl.processor.GuiceTestClassIndexProcessor}. The index lists the test classes
+ * and their custom injector methods, so that these are resolved without scanning the class hierarchy at runtime. Test
+ * classes missing from the index are expected to be described through reflection.
+ */
+public final class TestClassIndex {
+
+    /**
+     * The logger used by this class.
+     */
+    private static final Logger log = Logger.getLogger(TestClassIndex.class.getName());
+
+    /**
+     * Represents the name of the index resource.
+     */
+    public static final String INDEX_RESOURCE = "META-INF/arquillian-guice.index";
+
+    /**
+     * Represents the property suffix that lists the custom injector methods.
+     */
+    public static final String CUSTOM_INJECTORS = "customInjectors";
+
+    /**
+     * Represents the separator of the list values.
+     */
+    public static final String SEPARATOR = ",";
+
+    /**
+     * Represents the separator of the declaring class and the member name.
+     */
+    public static final String MEMBER_SEPARATOR = "#";
+
+    /**
+     * Each key value pair stores the test class name and its index entry.
+     */
+    private final Map<String, Entry> entries;
+
+    /**
+     * Creates new instance of {@link TestClassIndex} class.
+     *
+     * @param entries the index entries
+     */
+    private TestClassIndex(Map<String, Entry> entries) {
+        this.entries = entries;
+    }
+
+    /**
+     * Loads all the index resources visible to the given class loader.
+     *
+     * @param classLoader the class loader
+     *
+     * @return the loaded index, empty if no index resource has been found
+     */
+    public static TestClassIndex load(ClassLoader classLoader) {
+
+        Map<String, Entry> entries = new TreeMap<String, Entry>();
+
+        if (classLoader != null) {
+
+            try {
+
+                Enumeration<URL> resources = classLoader.getResources(INDEX_RESOURCE);
+
+                while (resources.hasMoreElements()) {
+
+                    readIndex(resources.nextElement(), entries);
+                }
+            } catch (IOException e) {
+                log.log(Level.WARNING, "Could not read the guice test class index.", e);
+            }
+        }
+
+        return new TestClassIndex(entries);
+    }
+
+    /**
+     * Retrieves the index entry of the given test class.
+     *
+     * @param className the fully qualified test class name
+     *
+     * @return the index entry or null if the test class has not been indexed
+     */
+    public Entry getEntry(String className) {
+
+        return entries.get(className);
+    }
+
+    /**
+     * Retrieves the names of all the indexed test classes.
+     *
+     * @return the test class names
+     */
+    public Set<String> getTestClassNames() {
+
+        return Collections.unmodifiableSet(entries.keySet());
+    }
+
+    /**
+     * Returns whether the index is empty.
+     *
+     * @return true if no test class has been indexed, false otherwise
+     */
+    public boolean isEmpty() {
+
+        return entries.isEmpty();
+    }
+
+    /**
+     * Reads the single index resource.
+     *
+     * @param resource the index resource
+     * @param entries  the entries to which the read entries are added
+     *
+     * @throws IOException if any error occurs
+     */
+    private static void readIndex(URL resource, Map<String, Entry> entries) throws IOException {
+
+        Properties properties = new Properties();
+        InputStream inputStream = resource.openStream();
+
+        try {
+            properties.load(inputStream);
+        } finally {
+            inputStream.close();
+        }
+
+        for (Object name : properties.keySet()) {
+
+            String key = (String) name;
+            int index = key.lastIndexOf('.');
+            if (index <= 0) {
+                continue;
+            }
+
+            String className = key.substring(0, index);
+            String attribute = key.substring(index + 1);
+            String value = properties.getProperty(key);
+
+            Entry entry = entries.get(className);
+            if (entry == null) {
+                entry = new Entry();
+                entries.put(className, entry);
+            }
+
+            if (CUSTOM_INJECTORS.equals(attribute)) {
+                entry.customInjectors = split(value);
+            }
+        }
+    }
+
+    /**
+     * Splits the list value.
+     *
+     * @param value the list value
+     *
+     * @return the list items
+     */
+    private static List<String> split(String value) {
+
+        List<String> result = new ArrayList<String>();
+
+        for (String item : value.split(SEPARATOR)) {
+
+            if (item.trim().length() > 0) {
+                result.add(item.trim());
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Describes the single indexed test class.
+     */
+    public static final class Entry {
+
+        /**
+         * Represents the custom injector methods in form of declaring class and method name.
+         */
+        private List<String> customInjectors = Collections.emptyList();
+
+        /**
+         * Creates new instance of {@link Entry} class.
+         */
+        private Entry() {
+            // empty constructor
+        }
+
+        /**
+         * Retrieves the custom injector methods.
+         *
+         * @return the custom injector methods in form of declaring class and method name
+         */
+        public List<String> getCustomInjectors() {
+            return customInjectors;
+        }
+    }
+}
@@ -0,0 +1,394 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.arquillian.guice.impl.inject;
+
+import com.google.inject.Binding;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.Module;
+import com.google.inject.Stage;
+import com.google.inject.TypeLiteral;
+import com.google.inject.spi.ConstructorBinding;
+import com.google.inject.spi.DefaultBindingScopingVisitor;
+import com.google.inject.spi.InstanceBinding;
+import com.google.inject.spi.LinkedKeyBinding;
+import com.google.inject.spi.UntargettedBinding;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * Records which bindings of the injectors created during the test suite have been provisioned and writes them into
+ * the JSON report once the suite has been executed.
+ * <p />
+ * When the Guice version in use supports the provision listeners, each provisioned binding is being recorded, and the
+ * linked bindings are covered by the provision of their targets. Otherwise only the types constructed by the injector
+ * are being recorded, so the instance and provider bindings are reported as untracked.
+ */
+final class BindingCoverage implements InjectorInstrumentation, SuiteReport {
+
+    /**
+     * Represents the name of the report file.
+     */
+    static final String REPORT_FILE_NAME = "guice-binding-coverage.json";
+
+    /**
+     * Represents the keys bound by every injector, which are not being reported.
+     */
+    private static final Set<Key<?>> BUILT_IN_KEYS = new HashSet<Key<?>>(Arrays.<Key<?>>asList(
+            Key.get(Injector.class), Key.get(Logger.class), Key.get(Stage.class)));
+
+    /**
+     * Represents the coverage recorded for each injector key.
+     */
+    private final Map<InjectorKey, InjectorCoverage> injectors = new LinkedHashMap<InjectorKey, InjectorCoverage>();
+
+    /**
+     * Creates new instance of {@link BindingCoverage} class.
+     */
+    BindingCoverage() {
+        // empty constructor
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public synchronized ProvisionObserver getObserver(InjectorKey injectorKey) {
+
+        return getInjectorCoverage(injectorKey);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public synchronized void injectorCreated(InjectorKey injectorKey, ProvisionObserver observer, Injector injector) {
+
+        InjectorCoverage coverage = getInjectorCoverage(injectorKey);
+
+        for (Binding<?> binding : injector.getBindings().values()) {
+
+            if (!BUILT_IN_KEYS.contains(binding.getKey()) && !coverage.bindings.containsKey(binding.getKey())) {
+
+                coverage.bindings.put(binding.getKey(), new BindingRecord(binding, injector));
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public synchronized void addTestClass(InjectorKey injectorKey, Class<?> testClass) {
+
+        getInjectorCoverage(injectorKey).testClasses.add(testClass.getName());
+    }
+
+    /**
+     * Returns whether the binding of the given key has been provisioned within the injector created for the given key.
+     *
+     * @param injectorKey the injector key
+     * @param key         the binding key
+     *
+     * @return true if the binding has been provisioned, false if it has not, or null if the provision of the binding
+     *         could not be tracked
+     */
+    synchronized Boolean isProvisioned(InjectorKey injectorKey, Key<?> key) {
+
+        InjectorCoverage coverage = injectors.get(injectorKey);
+        BindingRecord record = coverage != null ? coverage.bindings.get(key) : null;
+
+        return record != null ? coverage.isProvisioned(record) : null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public synchronized File writeReport(File directory) throws IOException {
+
+        File file = JsonWriter.createReportFile(directory, REPORT_FILE_NAME);
+        Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+
+        try {
+
+            JsonWriter json = new JsonWriter(writer);
+            json.beginObject();
+            json.name("trackingMode").value(ProvisionObserverModule.isProvisionListenerSupported()
+                    ? "provision" : "injection");
+            json.name("injectors").beginArray();
+
+            for (Map.Entry<InjectorKey, InjectorCoverage> entry : injectors.entrySet()) {
+
+                writeInjector(json, entry.getKey(), entry.getValue());
+            }
+
+            json.endArray();
+            json.endObject();
+            json.flush();
+        } finally {
+            writer.close();
+        }
+
+        return file;
+    }
+
+    /**
+     * Writes the coverage of the single injector.
+     *
+     * @param json        the JSON writer
+     * @param injectorKey the injector key
+     * @param coverage    the injector coverage
+     *
+     * @throws IOException if any error occurs when writing the report
+     */
+    private void writeInjector(JsonWriter json, InjectorKey injectorKey, InjectorCoverage coverage)
+            throws IOException {
+
+        int provisioned = 0;
+        int unprovisioned = 0;
+
+        json.beginObject();
+        json.name("modules").beginArray();
+        for (Class<? extends Module> module : injectorKey.getModules()) {
+            json.value(module.getName());
+        }
+        json.endArray();
+        json.name("stage").value(injectorKey.getStage() != null ? injectorKey.getStage().name() : null);
+        json.name("testClasses").beginArray();
+        for (String testClass : coverage.testClasses) {
+            json.value(testClass);
+        }
+        json.endArray();
+        json.name("bindings").beginArray();
+
+        for (BindingRecord record : coverage.bindings.values()) {
+
+            Boolean result = coverage.isProvisioned(record);
+
+            if (Boolean.TRUE.equals(result)) {
+                provisioned++;
+            } else if (Boolean.FALSE.equals(result)) {
+                unprovisioned++;
+            }
+
+            json.beginObject();
+            json.name("key").value(record.key.toString());
+            json.name("source").value(record.source);
+            json.name("eagerSingleton").value(record.eagerSingleton);
+            json.name("provisioned").value(result);
+            json.endObject();
+        }
+
+        json.endArray();
+        json.name("provisionedCount").value(provisioned);
+        json.name("unprovisionedCount").value(unprovisioned);
+        json.endObject();
+    }
+
+    /**
+     * Retrieves the coverage of the injector created for the given key, creating it if necessary.
+     *
+     * @param injectorKey the injector key
+     *
+     * @return the injector coverage
+     */
+    private InjectorCoverage getInjectorCoverage(InjectorKey injectorKey) {
+
+        InjectorCoverage coverage = injectors.get(injectorKey);
+
+        if (coverage == null) {
+
+            coverage = new InjectorCoverage();
+            injectors.put(injectorKey, coverage);
+        }
+
+        return coverage;
+    }
+
+    /**
+     * The coverage of the injectors created for the single injector key. Records the provisioned keys and injected
+     * types.
+     */
+    private static class InjectorCoverage implements ProvisionObserver {
+
+        /**
+         * Represents the names of the test classes using the injector.
+         */
+        private final Set<String> testClasses = new LinkedHashSet<String>();
+
+        /**
+         * Represents the bindings of the injector.
+         */
+        private final Map<Key<?>, BindingRecord> bindings = new LinkedHashMap<Key<?>, BindingRecord>();
+
+        /**
+         * Represents the keys of the provisioned bindings.
+         */
+        private final Set<Key<?>> provisionedKeys = Collections.synchronizedSet(new HashSet<Key<?>>());
+
+        /**
+         * Represents the types injected by the injector.
+         */
+        private final Set<TypeLiteral<?>> injectedTypes = Collections.synchronizedSet(new HashSet<TypeLiteral<?>>());
+
+        /**
+         * {@inheritDoc}
+         */
+        public void beforeProvision(Binding<?> binding) {
+            // empty method
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void afterProvision(Binding<?> binding, long duration) {
+
+            provisionedKeys.add(binding.getKey());
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void afterInjection(TypeLiteral<?> type) {
+
+            injectedTypes.add(type);
+        }
+
+        /**
+         * Returns whether the given binding has been provisioned.
+         *
+         * @param record the binding record
+         *
+         * @return true if the binding has been provisioned, false if it has not, or null if the provision of the
+         *         binding could not be tracked
+         */
+        private Boolean isProvisioned(BindingRecord record) {
+
+            if (!ProvisionObserverModule.isProvisionListenerSupported()) {
+
+                return record.constructedType != null ? injectedTypes.contains(record.constructedType) : null;
+            }
+
+            if (record.instance) {
+                return null;
+            }
+
+            for (Key<?> key : record.linkedKeys) {
+
+                if (provisionedKeys.contains(key)) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+    }
+
+    /**
+     * The description of the single binding, retained independently of the injector.
+     */
+    private static class BindingRecord {
+
+        /**
+         * Represents the binding key.
+         */
+        private final Key<?> key;
+
+        /**
+         * Represents the binding source.
+         */
+        private final String source;
+
+        /**
+         * Represents whether the binding is an eager singleton.
+         */
+        private final boolean eagerSingleton;
+
+        /**
+         * Represents whether the binding is bound to an instance.
+         */
+        private final boolean instance;
+
+        /**
+         * Represents the binding key followed by the keys of the bindings it is linked to.
+         */
+        private final List<Key<?>> linkedKeys = new ArrayList<Key<?>>();
+
+        /**
+         * Represents the type constructed by the injector for the binding, null if the binding is not being
+         * constructed by the injector.
+         */
+        private final TypeLiteral<?> constructedType;
+
+        /**
+         * Creates new instance of {@link BindingRecord} class.
+         *
+         * @param binding  the binding
+         * @param injector the injector
+         */
+        private BindingRecord(Binding<?> binding, Injector injector) {
+
+            this.key = binding.getKey();
+            this.source = String.valueOf(binding.getSource());
+            this.eagerSingleton = Boolean.TRUE.equals(binding.acceptScopingVisitor(
+                    new DefaultBindingScopingVisitor<Boolean>() {
+                        @Override
+                        public Boolean visitEagerSingleton() {
+                            return Boolean.TRUE;
+                        }
+                    }));
+            this.instance = binding instanceof InstanceBinding;
+
+            Binding<?> target = binding;
+            linkedKeys.add(key);
+
+            while (target instanceof LinkedKeyBinding) {
+
+                Key<?> linkedKey = ((LinkedKeyBinding<?>) target).getLinkedKey();
+
+                if (linkedKeys.contains(linkedKey)) {
+                    break;
+                }
+
+                linkedKeys.add(linkedKey);
+                target = injector.getExistingBinding(linkedKey);
+            }
+
+            if (target instanceof ConstructorBinding || target instanceof UntargettedBinding) {
+
+                this.constructedType = target.getKey().getTypeLiteral();
+            } else if (target == null) {
+
+                this.constructedType = linkedKeys.get(linkedKeys.size() - 1).getTypeLiteral();
+            } else {
+
+                this.constructedType = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,319 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.arquillian.guice.impl.inject;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Collects the measurements of the injectors constructed during the test suite and writes them, grouped by the
+ * injector key together with the test classes using the injector, into the JSON report. The same measurements are
+ * also being written as a plain text summary next to the JSON report, which is meant to be read by people.
+ */
+final class ConstructionReport implements SuiteReport {
+
+    /**
+     * Represents the name of the report file.
+     */
+    static final String REPORT_FILE_NAME = "guice-injector-construction.json";
+
+    /**
+     * Represents the name of the plain text summary file.
+     */
+    static final String SUMMARY_FILE_NAME = "guice-injector-construction.txt";
+
+    /**
+     * Represents the number of nanoseconds in a millisecond.
+     */
+    private static final double NANOS_PER_MILLI = 1000000d;
+
+    /**
+     * Represents the test classes registered for each injector key.
+     */
+    private final Map<InjectorKey, Set<String>> testClasses = new LinkedHashMap<InjectorKey, Set<String>>();
+
+    /**
+     * Represents the constructions measured for each injector key.
+     */
+    private final Map<InjectorKey, List<InjectorConstruction>> constructions =
+            new LinkedHashMap<InjectorKey, List<InjectorConstruction>>();
+
+    /**
+     * Creates new instance of {@link ConstructionReport} class.
+     */
+    ConstructionReport() {
+        // empty constructor
+    }
+
+    /**
+     * Adds the measured construction of the injector created for the given key.
+     *
+     * @param injectorKey  the injector key
+     * @param construction the construction measurement
+     */
+    synchronized void addConstruction(InjectorKey injectorKey, InjectorConstruction construction) {
+
+        List<InjectorConstruction> list = constructions.get(injectorKey);
+
+        if (list == null) {
+
+            list = new ArrayList<InjectorConstruction>();
+            constructions.put(injectorKey, list);
+            getTestClasses(injectorKey);
+        }
+
+        list.add(construction);
+    }
+
+    /**
+     * Retrieves the constructions measured for the given key.
+     *
+     * @param injectorKey the injector key
+     *
+     * @return the construction measurements
+     */
+    synchronized List<InjectorConstruction> getConstructions(InjectorKey injectorKey) {
+
+        List<InjectorConstruction> list = constructions.get(injectorKey);
+
+        return list != null ? new ArrayList<InjectorConstruction>(list) : new ArrayList<InjectorConstruction>();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public synchronized void addTestClass(InjectorKey injectorKey, Class<?> testClass) {
+
+        getTestClasses(injectorKey).add(testClass.getName());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public synchronized File writeReport(File directory) throws IOException {
+
+        File file = JsonWriter.createReportFile(directory, REPORT_FILE_NAME);
+        Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+
+        try {
+
+            JsonWriter json = new JsonWriter(writer);
+            json.beginObject();
+            json.name("injectors").beginArray();
+
+            for (Map.Entry<InjectorKey, Set<String>> entry : testClasses.entrySet()) {
+
+                writeInjector(json, entry.getKey(), entry.getValue());
+            }
+
+            json.endArray();
+            json.endObject();
+            json.flush();
+        } finally {
+            writer.close();
+        }
+
+        writeSummary(JsonWriter.createReportFile(directory, SUMMARY_FILE_NAME));
+
+        return file;
+    }
+
+    /**
+     * Writes the plain text summary of the measured constructions.
+     *
+     * @param file the summary file
+     *
+     * @throws IOException if any error occurs when writing the summary
+     */
+    private void writeSummary(File file) throws IOException {
+
+        PrintWriter writer = new PrintWriter(new OutputStreamWriter(new FileOutputStream(file), "UTF-8"));
+
+        try {
+
+            writer.println("Guice injector construction");
+
+            for (Map.Entry<InjectorKey, Set<String>> entry : testClasses.entrySet()) {
+
+                writer.println();
+                writer.println("Injector in stage " + entry.getKey().getStage() + " used by:");
+
+                for (String testClass : entry.getValue()) {
+                    writer.println("  " + testClass);
+                }
+
+                List<InjectorConstruction> list = constructions.get(entry.getKey());
+                if (list != null) {
+
+                    for (int i = 0; i < list.size(); i++) {
+
+                        writeSummary(writer, i + 1, list.get(i));
+                    }
+                }
+            }
+
+            if (writer.checkError()) {
+                throw new IOException("Could not write the report summary: " + file);
+            }
+        } finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * Writes the summary of the single construction.
+     *
+     * @param writer       the summary writer
+     * @param number       the number of the construction
+     * @param construction the construction measurement
+     */
+    private void writeSummary(PrintWriter writer, int number, InjectorConstruction construction) {
+
+        Long eagerSingletonsTime = construction.getEagerSingletonsTime();
+
+        writer.println("  Construction " + number + ": " + toMillis(construction.getTotalTime())
+                + " total, " + toMillis(construction.getCreateInjectorTime()) + " creating the injector, "
+                + (eagerSingletonsTime != null ? toMillis(eagerSingletonsTime) + " creating the eager singletons"
+                : "eager singletons not measured"));
+        writer.println("    " + construction.getBindings() + " bindings, " + construction.getJustInTimeBindings()
+                + " just in time bindings, " + construction.getSingletons() + " singletons");
+
+        for (InjectorConstruction.ModuleConstruction module : construction.getModules()) {
+
+            if (module.isCached()) {
+
+                writer.println("    " + module.getModuleClass().getName() + ": replayed from cache, "
+                        + module.getBindings() + " bindings");
+            } else {
+
+                writer.println("    " + module.getModuleClass().getName() + ": "
+                        + toMillis(module.getInstantiationTime()) + " instantiating, "
+                        + toMillis(module.getConfigureTime()) + " configuring, " + module.getBindings() + " bindings");
+            }
+        }
+    }
+
+    /**
+     * Formats the given time in milliseconds.
+     *
+     * @param nanos the time in nanoseconds
+     *
+     * @return the formatted time
+     */
+    private static String toMillis(long nanos) {
+
+        return String.format(Locale.ENGLISH, "%.3f ms", nanos / NANOS_PER_MILLI);
+    }
+
+    /**
+     * Writes the constructions of the injector created for the single key.
+     *
+     * @param json        the JSON writer
+     * @param injectorKey the injector key
+     * @param classes     the names of the test classes using the injector
+     *
+     * @throws IOException if any error occurs when writing the report
+     */
+    private void writeInjector(JsonWriter json, InjectorKey injectorKey, Set<String> classes) throws IOException {
+
+        json.beginObject();
+        json.name("stage").value(injectorKey.getStage() != null ? injectorKey.getStage().name() : null);
+        json.name("testClasses").beginArray();
+        for (String testClass : classes) {
+            json.value(testClass);
+        }
+        json.endArray();
+        json.name("constructions").beginArray();
+
+        List<InjectorConstruction> list = constructions.get(injectorKey);
+        if (list != null) {
+
+            for (InjectorConstruction construction : list) {
+
+                writeConstruction(json, construction);
+            }
+        }
+
+        json.endArray();
+        json.endObject();
+    }
+
+    /**
+     * Writes the single construction.
+     *
+     * @param json         the JSON writer
+     * @param construction the construction measurement
+     *
+     * @throws IOException if any error occurs when writing the report
+     */
+    private void writeConstruction(JsonWriter json, InjectorConstruction construction) throws IOException {
+
+        json.beginObject();
+        json.name("modules").beginArray();
+
+        for (InjectorConstruction.ModuleConstruction module : construction.getModules()) {
+
+            json.beginObject();
+            json.name("module").value(module.getModuleClass().getName());
+            json.name("cached").value(module.isCached());
+            json.name("instantiationNanos").value(module.getInstantiationTime());
+            json.name("configureNanos").value(module.getConfigureTime());
+            json.name("bindings").value(module.getBindings());
+            json.endObject();
+        }
+
+        json.endArray();
+        json.name("createInjectorNanos").value(construction.getCreateInjectorTime());
+        json.name("eagerSingletonsNanos").value(construction.getEagerSingletonsTime());
+        json.name("totalNanos").value(construction.getTotalTime());
+        json.name("bindings").value(construction.getBindings());
+        json.name("justInTimeBindings").value(construction.getJustInTimeBindings());
+        json.name("singletons").value(construction.getSingletons());
+        json.endObject();
+    }
+
+    /**
+     * Retrieves the test classes registered for the given key, creating the set if necessary.
+     *
+     * @param injectorKey the injector key
+     *
+     * @return the names of the test classes
+     */
+    private Set<String> getTestClasses(InjectorKey injectorKey) {
+
+        Set<String> classes = testClasses.get(injectorKey);
+
+        if (classes == null) {
+
+            classes = new LinkedHashSet<String>();
+            testClasses.put(injectorKey, classes);
+        }
+
+        return classes;
+    }
+}
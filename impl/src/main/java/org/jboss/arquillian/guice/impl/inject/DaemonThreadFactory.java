@@ -0,0 +1,61 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.arquillian.guice.impl.inject;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates the daemon threads that share the context class loader with the thread that created the factory.
+ */
+class DaemonThreadFactory implements ThreadFactory {
+
+    /**
+     * Represents the number of created threads.
+     */
+    private final AtomicInteger threadNumber = new AtomicInteger();
+
+    /**
+     * Represents the context class loader of the created threads.
+     */
+    private final ClassLoader contextClassLoader = SecurityActions.getThreadContextClassLoader();
+
+    /**
+     * Represents the prefix of the thread names.
+     */
+    private final String namePrefix;
+
+    /**
+     * Creates new instance of {@link DaemonThreadFactory} class.
+     *
+     * @param namePrefix the prefix of the thread names
+     */
+    DaemonThreadFactory(String namePrefix) {
+        this.namePrefix = namePrefix;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Thread newThread(Runnable runnable) {
+
+        Thread thread = new Thread(runnable, namePrefix + threadNumber.incrementAndGet());
+        thread.setDaemon(true);
+        thread.setContextClassLoader(contextClassLoader);
+        return thread;
+    }
+}
@@ -0,0 +1,420 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.arquillian.guice.impl.inject;
+
+import com.google.inject.Binder;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Module;
+import com.google.inject.Stage;
+import com.google.inject.spi.Element;
+import com.google.inject.spi.Elements;
+import org.jboss.arquillian.guice.api.annotation.UncachedModule;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+/**
+ * Builds the {@link Injector} for the given {@link InjectorKey}. The builder does not depend on any Arquillian context,
+ * so it can be executed outside of the thread that fires the test events.
+ */
+class InjectorBuilder implements Callable<Injector> {
+
+    /**
+     * Represents the key of the injector to build.
+     */
+    private final InjectorKey injectorKey;
+
+    /**
+     * Represents the parent injector, may be null.
+     */
+    private final Injector parent;
+
+    /**
+     * Represents the cache of the recorded module elements, may be null.
+     */
+    private final ModuleElementsCache moduleElementsCache;
+
+    /**
+     * Represents the configurer used for configuring the modules concurrently, may be null.
+     */
+    private final ParallelModuleConfigurer moduleConfigurer;
+
+    /**
+     * Represents the instrumentations of the injector, may be null.
+     */
+    private final List<InjectorInstrumentation> instrumentations;
+
+    /**
+     * Represents the report of the measured injector constructions, may be null.
+     */
+    private final ConstructionReport constructionReport;
+
+    /**
+     * Creates new instance of {@link InjectorBuilder} class.
+     *
+     * @param injectorKey         the key of the injector to build
+     * @param parent              the parent injector or null if the injector has no parent
+     * @param moduleElementsCache the cache of the recorded module elements or null if the modules should be always
+     *                            configured
+     * @param moduleConfigurer    the configurer used for configuring the modules concurrently or null if the modules
+     *                            should be configured sequentially
+     * @param instrumentations    the instrumentations of the injector or null if the injector is not instrumented
+     * @param constructionReport  the report of the measured injector constructions or null if the construction is not
+     *                            being measured
+     */
+    InjectorBuilder(InjectorKey injectorKey, Injector parent, ModuleElementsCache moduleElementsCache,
+                    ParallelModuleConfigurer moduleConfigurer, List<InjectorInstrumentation> instrumentations,
+                    ConstructionReport constructionReport) {
+        this.injectorKey = injectorKey;
+        this.parent = parent;
+        this.moduleElementsCache = moduleElementsCache;
+        this.moduleConfigurer = moduleConfigurer;
+        this.instrumentations = instrumentations;
+        this.constructionReport = constructionReport;
+    }
+
+    /**
+     * Builds the {@link Injector}. When the parent injector has been specified, the created injector is its child and
+     * shares the stage of the parent injector. When the key declares the root keys, the injector contains only the
+     * bindings reachable from them. When the injector is instrumented, it notifies the instrumentations about the
+     * provisioned objects. When the construction is being measured, the time of each phase is added to the report.
+     *
+     * @return instance of {@link Injector}
+     */
+    public Injector call() {
+
+        long start = System.nanoTime();
+        InjectorConstruction construction = constructionReport != null ? new InjectorConstruction() : null;
+        List<Module> modules = getModules(construction);
+        List<ProvisionObserver> observers = new ArrayList<ProvisionObserver>();
+        Injector injector;
+
+        if (injectorKey.getRootKeys() != null) {
+
+            Module pruned = Elements.getModule(ReachableBindings.prune(
+                    Elements.getElements(getStage(), modules), injectorKey.getRootKeys()));
+            modules = new ArrayList<Module>(Collections.singletonList(pruned));
+        }
+
+        if (instrumentations != null) {
+
+            for (InjectorInstrumentation instrumentation : instrumentations) {
+
+                observers.add(instrumentation.getObserver(injectorKey));
+            }
+        }
+
+        if (construction != null) {
+
+            observers.add(construction);
+            construction.beforeCreateInjector();
+        }
+
+        if (!observers.isEmpty()) {
+
+            modules.add(new ProvisionObserverModule(observers.toArray(new ProvisionObserver[observers.size()])));
+        }
+
+        long createStart = System.nanoTime();
+
+        if (parent != null) {
+
+            injector = parent.createChildInjector(modules);
+        } else {
+
+            injector = Guice.createInjector(injectorKey.getStage(), modules);
+        }
+
+        if (construction != null) {
+
+            long end = System.nanoTime();
+            construction.afterCreateInjector(injector, end - createStart, end - start);
+            constructionReport.addConstruction(injectorKey, construction);
+        }
+
+        if (instrumentations != null) {
+
+            for (int i = 0; i < instrumentations.size(); i++) {
+
+                instrumentations.get(i).injectorCreated(injectorKey, observers.get(i), injector);
+            }
+        }
+
+        return injector;
+    }
+
+    /**
+     * Retrieves the stage the modules are being configured in. A child injector is always created in the stage of its
+     * parent.
+     *
+     * @return the Guice stage
+     */
+    private Stage getStage() {
+
+        return parent != null ? parent.getInstance(Stage.class) : injectorKey.getStage();
+    }
+
+    /**
+     * Retrieves the modules of the injector. When the module elements cache is available, the elements of all the
+     * modules are being recorded at once and replayed for every subsequent injector, unless any of the modules has
+     * been marked as {@link UncachedModule}.
+     *
+     * @param construction the measurement of the injector construction or null if the construction is not being
+     *                     measured
+     *
+     * @return list of modules
+     */
+    private List<Module> getModules(InjectorConstruction construction) {
+
+        List<Class<? extends Module>> classes = injectorKey.getModules();
+
+        if (moduleElementsCache == null || !isCacheable(classes)) {
+
+            return instantiateModules(classes, construction);
+        }
+
+        InjectorKey modulesKey = new InjectorKey(classes, getStage());
+        List<Element> elements = moduleElementsCache.get(modulesKey);
+
+        if (elements == null) {
+
+            elements = moduleElementsCache.put(modulesKey,
+                    Elements.getElements(getStage(), instantiateModules(classes, construction)));
+        } else if (construction != null) {
+
+            for (Class<? extends Module> c : classes) {
+
+                construction.addModule(new InjectorConstruction.ModuleConstruction(c, true, 0, 0));
+            }
+        }
+
+        return new ArrayList<Module>(Collections.singletonList(Elements.getModule(elements)));
+    }
+
+    /**
+     * Returns whether the elements of the given modules can be recorded once and replayed.
+     *
+     * @param classes the module classes
+     *
+     * @return true if none of the modules has been marked as {@link UncachedModule}, false otherwise
+     */
+    private static boolean isCacheable(List<Class<? extends Module>> classes) {
+
+        for (Class<? extends Module> c : classes) {
+
+            if (c.isAnnotationPresent(UncachedModule.class)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Instantiates the guice module based of passed classes. When the parallel module configurer is available, the
+     * modules are being instantiated and configured concurrently, sharing the modules they install, so that a module
+     * installed by several of them is configured only once. The recorded elements are being replayed afterwards.
+     *
+     * @param classes      classes that implement the {@link Module} interface
+     * @param construction the measurement of the injector construction or null if the construction is not being
+     *                     measured
+     *
+     * @return list of module instances
+     */
+    private List<Module> instantiateModules(List<Class<? extends Module>> classes,
+                                            InjectorConstruction construction) {
+        List<ModuleTask> tasks = new ArrayList<ModuleTask>();
+        List<Module> modules = new ArrayList<Module>();
+        Set<Module> installedModules = Collections.synchronizedSet(new HashSet<Module>());
+
+        for (Class<? extends Module> c : classes) {
+
+            tasks.add(new ModuleTask(c, installedModules, construction != null));
+        }
+
+        if (moduleConfigurer != null) {
+
+            modules.addAll(moduleConfigurer.configure(new ArrayList<Callable<Module>>(tasks)));
+        } else {
+
+            for (ModuleTask task : tasks) {
+
+                modules.add(task.call());
+            }
+        }
+
+        if (construction != null) {
+
+            for (ModuleTask task : tasks) {
+
+                construction.addModule(task.getModuleConstruction());
+            }
+        }
+
+        return modules;
+    }
+
+    /**
+     * Creates new instance of the give class.
+     *
+     * @param clazz the class to instantiate
+     *
+     * @return new instance of specified class
+     */
+    static Module instantiateModule(Class<? extends Module> clazz) {
+
+        try {
+
+            return clazz.newInstance();
+        } catch (InstantiationException e) {
+            throw new RuntimeException("Could not instantiate Guice module.", e);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException("Could not instantiate Guice module.", e);
+        }
+    }
+
+    /**
+     * Instantiates a single Guice module. When the modules are configured concurrently, the elements of the module are
+     * being recorded within the task. Otherwise the measured module is being configured by Guice along with all the
+     * other modules.
+     */
+    private class ModuleTask implements Callable<Module> {
+
+        /**
+         * Represents the module class.
+         */
+        private final Class<? extends Module> moduleClass;
+
+        /**
+         * Represents the modules installed by all the modules of the injector when configured concurrently.
+         */
+        private final Set<Module> installedModules;
+
+        /**
+         * Represents whether the module instantiation and configuration is being measured.
+         */
+        private final boolean measured;
+
+        /**
+         * Represents the measurement of the module, available once the task has been executed.
+         */
+        private InjectorConstruction.ModuleConstruction moduleConstruction;
+
+        /**
+         * Creates new instance of {@link ModuleTask} class.
+         *
+         * @param moduleClass      the module class
+         * @param installedModules the modules installed by all the modules of the injector when configured
+         *                         concurrently
+         * @param measured         whether the module instantiation and configuration is being measured
+         */
+        ModuleTask(Class<? extends Module> moduleClass, Set<Module> installedModules, boolean measured) {
+            this.moduleClass = moduleClass;
+            this.installedModules = installedModules;
+            this.measured = measured;
+        }
+
+        /**
+         * Instantiates the module.
+         *
+         * @return the module instance
+         */
+        public Module call() {
+
+            long start = System.nanoTime();
+            Module module = instantiateModule(moduleClass);
+
+            long configureStart = System.nanoTime();
+
+            if (moduleConfigurer != null) {
+
+                List<Element> elements = Elements.getElements(getStage(),
+                        ParallelModuleConfigurer.shareInstalledModules(module, installedModules));
+
+                if (measured) {
+
+                    moduleConstruction = new InjectorConstruction.ModuleConstruction(moduleClass, false,
+                            configureStart - start, System.nanoTime() - configureStart);
+                }
+
+                return Elements.getModule(elements);
+            }
+
+            if (measured) {
+
+                moduleConstruction = new InjectorConstruction.ModuleConstruction(moduleClass, false,
+                        configureStart - start, 0);
+
+                return new MeasuredModule(module, moduleConstruction);
+            }
+
+            return module;
+        }
+
+        /**
+         * Retrieves the measurement of the module.
+         *
+         * @return the module measurement
+         */
+        InjectorConstruction.ModuleConstruction getModuleConstruction() {
+            return moduleConstruction;
+        }
+    }
+
+    /**
+     * Measures the configuration of the module. The module is being installed, rather than configured directly, so
+     * that Guice installs it only once along with the equal modules installed by the other modules.
+     */
+    private static class MeasuredModule implements Module {
+
+        /**
+         * Represents the measured module.
+         */
+        private final Module module;
+
+        /**
+         * Represents the measurement of the module.
+         */
+        private final InjectorConstruction.ModuleConstruction moduleConstruction;
+
+        /**
+         * Creates new instance of {@link MeasuredModule} class.
+         *
+         * @param module             the measured module
+         * @param moduleConstruction the measurement of the module
+         */
+        MeasuredModule(Module module, InjectorConstruction.ModuleConstruction moduleConstruction) {
+            this.module = module;
+            this.moduleConstruction = moduleConstruction;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void configure(Binder binder) {
+
+            long start = System.nanoTime();
+            binder.install(module);
+            moduleConstruction.setConfigureTime(System.nanoTime() - start);
+        }
+    }
+}
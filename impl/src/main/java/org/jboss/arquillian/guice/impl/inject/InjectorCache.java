@@ -0,0 +1,105 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.arquillian.guice.impl.inject;
+
+import com.google.inject.Injector;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded cache of {@link Injector} instances shared between the test classes that declare the same ordered set of
+ * Guice modules and the same stage. When the cache is full the least recently used injector is evicted.
+ */
+class InjectorCache {
+
+    /**
+     * The default initial capacity of the underlying map.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * The default load factor of the underlying map.
+     */
+    private static final float LOAD_FACTOR = 0.75f;
+
+    /**
+     * Each key value pair stores the injector key and the injector created for it.
+     */
+    private final Map<InjectorKey, Injector> injectors;
+
+    /**
+     * Creates new instance of {@link InjectorCache} class.
+     *
+     * @param maxSize the maximum number of cached injectors
+     */
+    InjectorCache(final int maxSize) {
+
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("The injector cache size must be a positive number.");
+        }
+
+        injectors = new LinkedHashMap<InjectorKey, Injector>(INITIAL_CAPACITY, LOAD_FACTOR, true) {
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<InjectorKey, Injector> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Retrieves the injector created for the given key.
+     *
+     * @param key the injector key
+     *
+     * @return the cached injector or null if none has been cached
+     */
+    synchronized Injector get(InjectorKey key) {
+
+        return injectors.get(key);
+    }
+
+    /**
+     * Stores the injector created for the given key.
+     *
+     * @param key      the injector key
+     * @param injector the injector
+     */
+    synchronized void put(InjectorKey key, Injector injector) {
+
+        injectors.put(key, injector);
+    }
+
+    /**
+     * Retrieves the number of cached injectors.
+     *
+     * @return the number of cached injectors
+     */
+    synchronized int size() {
+
+        return injectors.size();
+    }
+
+    /**
+     * Removes all the cached injectors.
+     */
+    synchronized void clear() {
+
+        injectors.clear();
+    }
+}
@@ -0,0 +1,411 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.arquillian.guice.impl.inject;
+
+import com.google.inject.Binding;
+import com.google.inject.Injector;
+import com.google.inject.Module;
+import com.google.inject.Scope;
+import com.google.inject.Scopes;
+import com.google.inject.Singleton;
+import com.google.inject.TypeLiteral;
+import com.google.inject.spi.BindingScopingVisitor;
+import com.google.inject.spi.DefaultBindingScopingVisitor;
+import com.google.inject.spi.InstanceBinding;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Member;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The measurement of the single injector construction: the time spent in each of its phases and the number of the
+ * created bindings.
+ * <p />
+ * The time spent creating the eager singletons is being measured as the time of the outermost provisions within the
+ * injector creation, which is available only when the Guice version in use supports the provision listeners.
+ */
+class InjectorConstruction implements ProvisionObserver {
+
+    /**
+     * Represents the visitor that returns whether the binding is scoped as singleton.
+     */
+    private static final BindingScopingVisitor<Boolean> SINGLETON_SCOPE = new DefaultBindingScopingVisitor<Boolean>() {
+
+        @Override
+        public Boolean visitEagerSingleton() {
+            return Boolean.TRUE;
+        }
+
+        @Override
+        public Boolean visitScope(Scope scope) {
+            return scope == Scopes.SINGLETON;
+        }
+
+        @Override
+        public Boolean visitScopeAnnotation(Class<? extends Annotation> scopeAnnotation) {
+            return scopeAnnotation == Singleton.class || scopeAnnotation == javax.inject.Singleton.class;
+        }
+    };
+
+    /**
+     * Represents the measurements of the modules.
+     */
+    private final List<ModuleConstruction> modules = new ArrayList<ModuleConstruction>();
+
+    /**
+     * Represents whether the provisions are being measured.
+     */
+    private volatile boolean measuringProvisions;
+
+    /**
+     * Represents the depth of the currently measured provisions.
+     */
+    private int provisionDepth;
+
+    /**
+     * Represents the time spent in the outermost provisions within the injector creation.
+     */
+    private long eagerSingletonsTime;
+
+    /**
+     * Represents the time spent creating the injector.
+     */
+    private long createInjectorTime;
+
+    /**
+     * Represents the total construction time.
+     */
+    private long totalTime;
+
+    /**
+     * Represents the number of the explicit bindings.
+     */
+    private int bindings;
+
+    /**
+     * Represents the number of the just in time bindings.
+     */
+    private int justInTimeBindings;
+
+    /**
+     * Represents the number of the singleton bindings.
+     */
+    private int singletons;
+
+    /**
+     * Creates new instance of {@link InjectorConstruction} class.
+     */
+    InjectorConstruction() {
+        // empty constructor
+    }
+
+    /**
+     * Adds the measurement of the single module.
+     *
+     * @param module the module measurement
+     */
+    void addModule(ModuleConstruction module) {
+
+        modules.add(module);
+    }
+
+    /**
+     * Notifies that the injector is about to be created.
+     */
+    void beforeCreateInjector() {
+
+        measuringProvisions = true;
+    }
+
+    /**
+     * Notifies that the injector has been created.
+     *
+     * @param injector           the created injector
+     * @param createInjectorTime the time spent creating the injector in nanoseconds
+     * @param totalTime          the total construction time in nanoseconds
+     */
+    void afterCreateInjector(Injector injector, long createInjectorTime, long totalTime) {
+
+        measuringProvisions = false;
+        this.createInjectorTime = createInjectorTime;
+        this.totalTime = totalTime;
+
+        Collection<Binding<?>> allBindings = injector.getAllBindings().values();
+        bindings = injector.getBindings().size();
+        justInTimeBindings = allBindings.size() - bindings;
+
+        for (Binding<?> binding : allBindings) {
+
+            if (isSingleton(binding)) {
+                singletons++;
+            }
+        }
+
+        for (ModuleConstruction module : modules) {
+
+            module.countBindings(injector.getBindings().values());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void beforeProvision(Binding<?> binding) {
+
+        if (measuringProvisions) {
+            provisionDepth++;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void afterProvision(Binding<?> binding, long duration) {
+
+        if (measuringProvisions && --provisionDepth == 0) {
+            eagerSingletonsTime += duration;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void afterInjection(TypeLiteral<?> type) {
+        // empty method
+    }
+
+    /**
+     * Retrieves the measurements of the modules.
+     *
+     * @return the module measurements
+     */
+    List<ModuleConstruction> getModules() {
+        return Collections.unmodifiableList(modules);
+    }
+
+    /**
+     * Retrieves the time spent creating the eager singletons.
+     *
+     * @return the time in nanoseconds or null if it could not be measured
+     */
+    Long getEagerSingletonsTime() {
+        return ProvisionObserverModule.isProvisionListenerSupported() ? eagerSingletonsTime : null;
+    }
+
+    /**
+     * Retrieves the time spent creating the injector, including the eager singletons.
+     *
+     * @return the time in nanoseconds
+     */
+    long getCreateInjectorTime() {
+        return createInjectorTime;
+    }
+
+    /**
+     * Retrieves the total construction time.
+     *
+     * @return the time in nanoseconds
+     */
+    long getTotalTime() {
+        return totalTime;
+    }
+
+    /**
+     * Retrieves the number of the explicit bindings.
+     *
+     * @return the number of the explicit bindings
+     */
+    int getBindings() {
+        return bindings;
+    }
+
+    /**
+     * Retrieves the number of the just in time bindings created along with the injector.
+     *
+     * @return the number of the just in time bindings
+     */
+    int getJustInTimeBindings() {
+        return justInTimeBindings;
+    }
+
+    /**
+     * Retrieves the number of the singleton bindings.
+     *
+     * @return the number of the singleton bindings
+     */
+    int getSingletons() {
+        return singletons;
+    }
+
+    /**
+     * Returns whether the given binding is scoped as singleton. The instance bindings are not being counted, since
+     * their instances are not constructed by the injector.
+     *
+     * @param binding the binding
+     *
+     * @return true if the binding is singleton, false otherwise
+     */
+    private static boolean isSingleton(Binding<?> binding) {
+
+        if (binding instanceof InstanceBinding) {
+            return false;
+        }
+
+        return Boolean.TRUE.equals(binding.acceptScopingVisitor(SINGLETON_SCOPE));
+    }
+
+    /**
+     * The measurement of the single module.
+     */
+    static class ModuleConstruction {
+
+        /**
+         * Represents the module class.
+         */
+        private final Class<? extends Module> moduleClass;
+
+        /**
+         * Represents whether the module elements have been replayed from the module elements cache.
+         */
+        private final boolean cached;
+
+        /**
+         * Represents the time spent instantiating the module.
+         */
+        private final long instantiationTime;
+
+        /**
+         * Represents the time spent configuring the module.
+         */
+        private long configureTime;
+
+        /**
+         * Represents the number of the bindings declared by the module itself.
+         */
+        private int bindings;
+
+        /**
+         * Creates new instance of {@link ModuleConstruction} class.
+         *
+         * @param moduleClass       the module class
+         * @param cached            whether the module elements have been replayed from the cache
+         * @param instantiationTime the time spent instantiating the module in nanoseconds
+         * @param configureTime     the time spent configuring the module in nanoseconds
+         */
+        ModuleConstruction(Class<? extends Module> moduleClass, boolean cached, long instantiationTime,
+                           long configureTime) {
+            this.moduleClass = moduleClass;
+            this.cached = cached;
+            this.instantiationTime = instantiationTime;
+            this.configureTime = configureTime;
+        }
+
+        /**
+         * Sets the time spent configuring the module.
+         *
+         * @param configureTime the time in nanoseconds
+         */
+        void setConfigureTime(long configureTime) {
+            this.configureTime = configureTime;
+        }
+
+        /**
+         * Counts the bindings of the created injector declared by the module.
+         *
+         * @param injectorBindings the explicit bindings of the created injector
+         */
+        void countBindings(Collection<Binding<?>> injectorBindings) {
+
+            int count = 0;
+            for (Binding<?> binding : injectorBindings) {
+
+                if (isDeclaredBy(binding.getSource(), moduleClass)) {
+                    count++;
+                }
+            }
+            this.bindings = count;
+        }
+
+        /**
+         * Returns whether the binding with the given source has been declared by the given module. The bindings are
+         * being attributed to the module by their source, since the modules are being configured together.
+         *
+         * @param source      the binding source
+         * @param moduleClass the module class
+         *
+         * @return true if the binding has been declared by the module, false otherwise
+         */
+        private static boolean isDeclaredBy(Object source, Class<? extends Module> moduleClass) {
+
+            if (source instanceof StackTraceElement) {
+
+                String className = ((StackTraceElement) source).getClassName();
+                return className.equals(moduleClass.getName()) || className.startsWith(moduleClass.getName() + "$");
+            }
+
+            return source instanceof Member && ((Member) source).getDeclaringClass() == moduleClass;
+        }
+
+        /**
+         * Retrieves the module class.
+         *
+         * @return the module class
+         */
+        Class<? extends Module> getModuleClass() {
+            return moduleClass;
+        }
+
+        /**
+         * Retrieves whether the module elements have been replayed from the module elements cache.
+         *
+         * @return whether the module elements have been replayed
+         */
+        boolean isCached() {
+            return cached;
+        }
+
+        /**
+         * Retrieves the time spent instantiating the module.
+         *
+         * @return the time in nanoseconds
+         */
+        long getInstantiationTime() {
+            return instantiationTime;
+        }
+
+        /**
+         * Retrieves the time spent configuring the module.
+         *
+         * @return the time in nanoseconds
+         */
+        long getConfigureTime() {
+            return configureTime;
+        }
+
+        /**
+         * Retrieves the number of the bindings declared by the module itself.
+         *
+         * @return the number of the bindings
+         */
+        int getBindings() {
+            return bindings;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.arquillian.guice.impl.inject;
+
+import com.google.inject.Injector;
+
+/**
+ * Instruments the injectors built by the {@link InjectorBuilder}, observing the objects they provision.
+ */
+interface InjectorInstrumentation {
+
+    /**
+     * Retrieves the observer of the provisions within the injector created for the given key. The observer is being
+     * retrieved once for each created injector.
+     *
+     * @param injectorKey the injector key
+     *
+     * @return the provision observer
+     */
+    ProvisionObserver getObserver(InjectorKey injectorKey);
+
+    /**
+     * Notifies that the injector for the given key has been created.
+     *
+     * @param injectorKey the injector key
+     * @param observer    the provision observer retrieved for the created injector
+     * @param injector    the created injector
+     */
+    void injectorCreated(InjectorKey injectorKey, ProvisionObserver observer, Injector injector);
+}
@@ -0,0 +1,132 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.arquillian.guice.impl.inject;
+
+import com.google.inject.Key;
+import com.google.inject.Module;
+import com.google.inject.Stage;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Identifies the injector created for a test class by the ordered list of its module classes and the Guice stage. The
+ * stage of a child injector is always the one of its parent, so the key of a child injector does not hold any stage.
+ * The injector pruned to the bindings reachable from the test class is also identified by its root keys.
+ */
+final class InjectorKey {
+
+    /**
+     * Represents the module classes.
+     */
+    private final List<Class<? extends Module>> modules;
+
+    /**
+     * Represents the Guice stage, null if the injector inherits the stage of its parent.
+     */
+    private final Stage stage;
+
+    /**
+     * Represents the root keys of the pruned injector, null if the injector is not pruned.
+     */
+    private final Set<Key<?>> rootKeys;
+
+    /**
+     * Creates new instance of {@link InjectorKey} class.
+     *
+     * @param modules the module classes
+     * @param stage   the Guice stage or null if the injector inherits the stage of its parent
+     */
+    InjectorKey(List<Class<? extends Module>> modules, Stage stage) {
+        this(modules, stage, null);
+    }
+
+    /**
+     * Creates new instance of {@link InjectorKey} class.
+     *
+     * @param modules  the module classes
+     * @param stage    the Guice stage or null if the injector inherits the stage of its parent
+     * @param rootKeys the root keys of the pruned injector or null if the injector should not be pruned
+     */
+    InjectorKey(List<Class<? extends Module>> modules, Stage stage, Set<Key<?>> rootKeys) {
+        this.modules = modules;
+        this.stage = stage;
+        this.rootKeys = rootKeys;
+    }
+
+    /**
+     * Retrieves the module classes.
+     *
+     * @return the module classes
+     */
+    List<Class<? extends Module>> getModules() {
+        return modules;
+    }
+
+    /**
+     * Retrieves the Guice stage.
+     *
+     * @return the Guice stage or null if the injector inherits the stage of its parent
+     */
+    Stage getStage() {
+        return stage;
+    }
+
+    /**
+     * Retrieves the root keys of the pruned injector.
+     *
+     * @return the root keys or null if the injector is not pruned
+     */
+    Set<Key<?>> getRootKeys() {
+        return rootKeys;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(Object o) {
+
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof InjectorKey)) {
+            return false;
+        }
+
+        InjectorKey that = (InjectorKey) o;
+        return modules.equals(that.modules) && stage == that.stage
+                && (rootKeys != null ? rootKeys.equals(that.rootKeys) : that.rootKeys == null);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return 31 * (31 * modules.hashCode() + (stage != null ? stage.hashCode() : 0))
+                + (rootKeys != null ? rootKeys.hashCode() : 0);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "InjectorKey{modules=" + modules + ", stage=" + stage + ", rootKeys=" + rootKeys + "}";
+    }
+}
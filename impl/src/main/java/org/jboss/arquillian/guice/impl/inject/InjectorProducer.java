@@ -16,25 +16,34 @@
  */
 package org.jboss.arquillian.guice.impl.inject;
 
-import com.google.inject.Guice;
 import com.google.inject.Injector;
+import com.google.inject.Key;
 import com.google.inject.Module;
+import com.google.inject.Stage;
+import org.jboss.arquillian.core.api.Instance;
 import org.jboss.arquillian.core.api.InstanceProducer;
 import org.jboss.arquillian.core.api.annotation.ApplicationScoped;
 import org.jboss.arquillian.core.api.annotation.Inject;
 import org.jboss.arquillian.core.api.annotation.Observes;
-import org.jboss.arquillian.guice.api.annotation.GuiceConfiguration;
-import org.jboss.arquillian.guice.api.annotation.GuiceInjector;
-import org.jboss.arquillian.guice.api.annotation.GuiceWebConfiguration;
 import org.jboss.arquillian.guice.api.utils.InjectorHolder;
+import org.jboss.arquillian.guice.impl.configuration.GuiceExtensionConfiguration;
+import org.jboss.arquillian.guice.impl.index.TestClassIndex;
+import org.jboss.arquillian.guice.impl.monitor.FlightRecorderEvent;
 import org.jboss.arquillian.test.spi.TestClass;
+import org.jboss.arquillian.test.spi.annotation.ClassScoped;
+import org.jboss.arquillian.test.spi.event.suite.AfterSuite;
 import org.jboss.arquillian.test.spi.event.suite.BeforeClass;
+import org.jboss.arquillian.test.spi.event.suite.BeforeSuite;
 
+import java.io.File;
+import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.logging.Logger;
 
 /**
@@ -56,6 +65,329 @@ public class InjectorProducer {
     @ApplicationScoped
     private InstanceProducer<Injector> injectorInstance;
 
+    /**
+     * Producer proxy for {@link InjectorCache}.
+     */
+    @Inject
+    @ApplicationScoped
+    private InstanceProducer<InjectorCache> injectorCacheInstance;
+
+    /**
+     * Producer proxy for {@link SuiteInjector}.
+     */
+    @Inject
+    @ApplicationScoped
+    private InstanceProducer<SuiteInjector> suiteInjectorInstance;
+
+    /**
+     * Producer proxy for {@link PrebuiltInjectors}.
+     */
+    @Inject
+    @ApplicationScoped
+    private InstanceProducer<PrebuiltInjectors> prebuiltInjectorsInstance;
+
+    /**
+     * Producer proxy for {@link ModuleElementsCache}.
+     */
+    @Inject
+    @ApplicationScoped
+    private InstanceProducer<ModuleElementsCache> moduleElementsCacheInstance;
+
+    /**
+     * Producer proxy for {@link ParallelModuleConfigurer}.
+     */
+    @Inject
+    @ApplicationScoped
+    private InstanceProducer<ParallelModuleConfigurer> moduleConfigurerInstance;
+
+    /**
+     * Producer proxy for {@link TestClassMetadataCache}.
+     */
+    @Inject
+    @ApplicationScoped
+    private InstanceProducer<TestClassMetadataCache> metadataCacheInstance;
+
+    /**
+     * Producer proxy for {@link TestClassIndex}.
+     */
+    @Inject
+    @ApplicationScoped
+    private InstanceProducer<TestClassIndex> testClassIndexInstance;
+
+    /**
+     * Producer proxy for {@link BindingCoverage}.
+     */
+    @Inject
+    @ApplicationScoped
+    private InstanceProducer<BindingCoverage> bindingCoverageInstance;
+
+    /**
+     * Producer proxy for {@link ConstructionReport}.
+     */
+    @Inject
+    @ApplicationScoped
+    private InstanceProducer<ConstructionReport> constructionReportInstance;
+
+    /**
+     * Producer proxy for {@link ProvisionTracer}.
+     */
+    @Inject
+    @ApplicationScoped
+    private InstanceProducer<ProvisionTracer> provisionTracerInstance;
+
+    /**
+     * Producer proxy for {@link SlowProvisionDetector}.
+     */
+    @Inject
+    @ApplicationScoped
+    private InstanceProducer<SlowProvisionDetector> slowProvisionDetectorInstance;
+
+    /**
+     * Producer proxy for {@link StartupBudget}.
+     */
+    @Inject
+    @ClassScoped
+    private InstanceProducer<StartupBudget> startupBudgetInstance;
+
+    /**
+     * Represents the instance of extension configuration.
+     */
+    @Inject
+    private Instance<GuiceExtensionConfiguration> configurationInstance;
+
+    /**
+     * Initializes the {@link InjectorCache} if it has been enabled in the extension configuration.
+     * <p />
+     * The observer is being invoked after the extension configuration has been loaded.
+     *
+     * @param beforeSuite the before suite event
+     */
+    public void initInjectorCache(@Observes(precedence = -1) BeforeSuite beforeSuite) {
+
+        GuiceExtensionConfiguration configuration = configurationInstance.get();
+
+        if (configuration != null && configuration.getInjectorCacheSize() > 0) {
+
+            injectorCacheInstance.set(new InjectorCache(configuration.getInjectorCacheSize()));
+        }
+    }
+
+    /**
+     * Initializes the {@link ModuleElementsCache} if it has been enabled in the extension configuration.
+     * <p />
+     * The observer is being invoked after the extension configuration has been loaded.
+     *
+     * @param beforeSuite the before suite event
+     */
+    public void initModuleElementsCache(@Observes(precedence = -1) BeforeSuite beforeSuite) {
+
+        GuiceExtensionConfiguration configuration = configurationInstance.get();
+
+        if (configuration != null && configuration.isCacheModuleElements()) {
+
+            moduleElementsCacheInstance.set(new ModuleElementsCache());
+        }
+    }
+
+    /**
+     * Initializes the {@link ParallelModuleConfigurer} if it has been enabled in the extension configuration.
+     * <p />
+     * The observer is being invoked after the extension configuration has been loaded.
+     *
+     * @param beforeSuite the before suite event
+     */
+    public void initModuleConfigurer(@Observes(precedence = -1) BeforeSuite beforeSuite) {
+
+        GuiceExtensionConfiguration configuration = configurationInstance.get();
+
+        if (configuration != null && configuration.isParallelModuleConfiguration()) {
+
+            if (ParallelModuleConfigurer.isSupported()) {
+
+                moduleConfigurerInstance.set(new ParallelModuleConfigurer(Runtime.getRuntime().availableProcessors()));
+            } else {
+
+                log.warning("The guice version in use does not allow configuring the modules concurrently, "
+                        + "the modules are being configured sequentially.");
+            }
+        }
+    }
+
+    /**
+     * Creates the suite level parent injector if any parent module has been declared in the extension configuration.
+     * <p />
+     * The observer is being invoked after the extension configuration has been loaded.
+     *
+     * @param beforeSuite the before suite event
+     */
+    public void initSuiteInjector(@Observes(precedence = -1) BeforeSuite beforeSuite) {
+
+        GuiceExtensionConfiguration configuration = configurationInstance.get();
+
+        if (configuration != null && !configuration.getParentModules().isEmpty()) {
+
+            InjectorKey injectorKey = new InjectorKey(
+                    loadModuleClasses(configuration.getParentModules()), configuration.getStage());
+            suiteInjectorInstance.set(new SuiteInjector(createSuiteInjector(injectorKey)));
+
+            log.fine("Successfully created guice parent injector from modules: " + configuration.getParentModules());
+        }
+    }
+
+    /**
+     * Initializes the {@link BindingCoverage} if the binding coverage report has been enabled in the extension
+     * configuration.
+     * <p />
+     * The observer is being invoked after the extension configuration has been loaded.
+     *
+     * @param beforeSuite the before suite event
+     */
+    public void initBindingCoverage(@Observes(precedence = -1) BeforeSuite beforeSuite) {
+
+        getBindingCoverage();
+    }
+
+    /**
+     * Initializes the {@link ConstructionReport} if the injector construction report has been enabled in the
+     * extension configuration.
+     * <p />
+     * The observer is being invoked after the extension configuration has been loaded.
+     *
+     * @param beforeSuite the before suite event
+     */
+    public void initConstructionReport(@Observes(precedence = -1) BeforeSuite beforeSuite) {
+
+        getConstructionReport();
+    }
+
+    /**
+     * Initializes the {@link ProvisionTracer} if the provision trace has been enabled in the extension configuration.
+     * <p />
+     * The observer is being invoked after the extension configuration has been loaded.
+     *
+     * @param beforeSuite the before suite event
+     */
+    public void initProvisionTracer(@Observes(precedence = -1) BeforeSuite beforeSuite) {
+
+        getProvisionTracer();
+    }
+
+    /**
+     * Initializes the {@link SlowProvisionDetector} if the slow provision threshold has been set in the extension
+     * configuration.
+     * <p />
+     * The observer is being invoked after the extension configuration has been loaded.
+     *
+     * @param beforeSuite the before suite event
+     */
+    public void initSlowProvisionDetector(@Observes(precedence = -1) BeforeSuite beforeSuite) {
+
+        getSlowProvisionDetector();
+    }
+
+    /**
+     * Schedules the background build of the injectors for the test classes declared in the extension configuration,
+     * or for all the test classes listed in the test class index if this has been enabled.
+     * <p />
+     * The observer is being invoked after the suite level parent injector has been created.
+     *
+     * @param beforeSuite the before suite event
+     */
+    public void prebuildInjectors(@Observes(precedence = -2) BeforeSuite beforeSuite) {
+
+        GuiceExtensionConfiguration configuration = configurationInstance.get();
+
+        if (configuration == null) {
+            return;
+        }
+
+        List<String> testClassNames = new ArrayList<String>(configuration.getPrebuildTestClasses());
+
+        if (configuration.isPrebuildIndexedTestClasses()) {
+
+            for (String className : getTestClassIndex().getTestClassNames()) {
+
+                if (!testClassNames.contains(className)) {
+                    testClassNames.add(className);
+                }
+            }
+        }
+
+        if (!testClassNames.isEmpty()) {
+
+            Set<InjectorKey> injectorKeys = new LinkedHashSet<InjectorKey>();
+
+            for (Class<?> testClass : loadTestClasses(testClassNames)) {
+
+                TestClassMetadata metadata = getTestClassMetadata(testClass);
+
+                if (metadata.getConfiguration() != null
+                        && !metadata.isWebConfiguration() && !metadata.hasCustomInjector()) {
+
+                    injectorKeys.add(createInjectorKey(testClass, metadata));
+                }
+            }
+
+            if (!injectorKeys.isEmpty()) {
+
+                PrebuiltInjectors prebuiltInjectors = new PrebuiltInjectors(
+                        Math.min(Runtime.getRuntime().availableProcessors(), injectorKeys.size()));
+
+                for (InjectorKey injectorKey : injectorKeys) {
+
+                    prebuiltInjectors.submit(injectorKey, createInjectorBuilder(injectorKey));
+                }
+
+                prebuiltInjectorsInstance.set(prebuiltInjectors);
+            }
+        }
+    }
+
+    /**
+     * Releases the cached and prebuilt injectors, the recorded module elements and the test class metadata once the
+     * test suite has been executed. Writes the binding coverage, the injector construction and the provision trace
+     * reports if they have been enabled.
+     *
+     * @param afterSuite the after suite event
+     */
+    public void clearInjectors(@Observes AfterSuite afterSuite) {
+
+        writeReport(bindingCoverageInstance.get());
+        writeReport(constructionReportInstance.get());
+        writeReport(provisionTracerInstance.get());
+
+        InjectorCache injectorCache = injectorCacheInstance.get();
+        ModuleElementsCache moduleElementsCache = moduleElementsCacheInstance.get();
+        PrebuiltInjectors prebuiltInjectors = prebuiltInjectorsInstance.get();
+        ParallelModuleConfigurer moduleConfigurer = moduleConfigurerInstance.get();
+        TestClassMetadataCache metadataCache = metadataCacheInstance.get();
+
+        if (injectorCache != null) {
+
+            injectorCache.clear();
+        }
+
+        if (moduleElementsCache != null) {
+
+            moduleElementsCache.clear();
+        }
+
+        if (prebuiltInjectors != null) {
+
+            prebuiltInjectors.shutdown();
+        }
+
+        if (moduleConfigurer != null) {
+
+            moduleConfigurer.shutdown();
+        }
+
+        if (metadataCache != null) {
+
+            metadataCache.clear();
+        }
+    }
+
     /**
      * Initializes the {@link Injector}.
      *
@@ -64,22 +396,27 @@ public class InjectorProducer {
     public void initInjector(@Observes BeforeClass beforeClass) {
 
         TestClass testClass;
+        TestClassMetadata metadata;
         Injector injector;
 
         testClass = beforeClass.getTestClass();
+        metadata = getTestClassMetadata(testClass.getJavaClass());
 
-        if (isGuiceTest(testClass)) {
+        if (metadata.isGuiceTest()) {
 
-            if (hasCustomInjector(testClass)) {
+            FlightRecorderEvent event = FlightRecorderEvent.begin(FlightRecorderEvent.INJECTOR_CREATION);
+            long start = System.nanoTime();
 
-                injector = getCustomInjector(testClass);
-            } else if (testClass.isAnnotationPresent(GuiceWebConfiguration.class)) {
+            if (metadata.hasCustomInjector()) {
+
+                injector = getCustomInjector(metadata);
+            } else if (metadata.isWebConfiguration()) {
 
                 injector = getServletContextInjector();
             } else {
 
                 // otherwise creates the injector
-                injector = createInjector(testClass);
+                injector = createInjector(testClass, metadata);
 
                 log.fine("Successfully created guice injector for model class: "
                         + testClass.getName());
@@ -89,21 +426,342 @@ public class InjectorProducer {
 
                 injectorInstance.set(injector);
             }
+
+            long creationTime = System.nanoTime() - start;
+
+            if (event.isRecording()) {
+
+                event.commit(testClass.getName(), getModuleNames(metadata),
+                        injector != null ? injector.getBindings().size() : 0);
+            }
+
+            verifySlowProvisions(injector);
+            verifyStartupBudget(testClass, metadata, creationTime);
         }
 
     }
 
+    /**
+     * Verifies the injector creation against the startup budget declared by the test class. The budget is being
+     * retained for the verification of the enrichment.
+     *
+     * @param testClass    the model class
+     * @param metadata     the model class metadata
+     * @param creationTime the time of the injector creation in nanoseconds
+     */
+    private void verifyStartupBudget(TestClass testClass, TestClassMetadata metadata, long creationTime) {
+
+        if (metadata.getConfiguration() != null && metadata.getConfiguration().startupBudget() > 0) {
+
+            StartupBudget startupBudget = new StartupBudget(testClass.getName(), getModuleNames(metadata),
+                    metadata.getConfiguration().startupBudget(), creationTime);
+            startupBudgetInstance.set(startupBudget);
+
+            startupBudget.verifyCreation();
+        }
+    }
+
     /**
      * Creates the {@link Injector} instance.
      *
      * @param testClass the model class
+     * @param metadata  the model class metadata
      *
      * @return instance of {@link Injector}
      */
-    private Injector createInjector(TestClass testClass) {
+    private Injector createInjector(TestClass testClass, TestClassMetadata metadata) {
 
-        // creates new instance of guice injector
-        return Guice.createInjector(getTestClassModules(testClass));
+        InjectorKey injectorKey = createInjectorKey(testClass.getJavaClass(), metadata);
+        InjectorCache injectorCache = injectorCacheInstance.get();
+        addTestClass(bindingCoverageInstance.get(), injectorKey, testClass.getJavaClass());
+        addTestClass(constructionReportInstance.get(), injectorKey, testClass.getJavaClass());
+        addTestClass(provisionTracerInstance.get(), injectorKey, testClass.getJavaClass());
+
+        if (injectorCache == null) {
+
+            // creates new instance of guice injector
+            return buildInjector(injectorKey);
+        }
+
+        Injector injector = injectorCache.get(injectorKey);
+
+        if (injector == null) {
+
+            injector = buildInjector(injectorKey);
+            injectorCache.put(injectorKey, injector);
+        } else {
+
+            log.fine("Reusing cached guice injector for model class: " + testClass.getName());
+        }
+
+        return injector;
+    }
+
+    /**
+     * Creates the key of the injector for the given model class. When the minimal injectors have been enabled in the
+     * extension configuration, the key includes the keys the model class depends on. The key of the child injector
+     * does not hold any stage, since Guice creates it in the stage of its parent.
+     *
+     * @param testClass the model class
+     * @param metadata  the model class metadata
+     *
+     * @return the injector key
+     */
+    private InjectorKey createInjectorKey(Class<?> testClass, TestClassMetadata metadata) {
+
+        GuiceExtensionConfiguration configuration = configurationInstance.get();
+        Set<Key<?>> rootKeys = null;
+
+        if (configuration != null && configuration.isMinimalInjector()) {
+
+            rootKeys = ReachableBindings.getRootKeys(testClass);
+        }
+
+        Stage stage = getTestClassStage(metadata);
+
+        return new InjectorKey(getTestClassModules(metadata), getParentInjector() == null ? stage : null, rootKeys);
+    }
+
+    /**
+     * Builds the {@link Injector} for the given key, unless it has been already prebuilt in the background. When the
+     * suite level parent injector exists, the created injector is its child.
+     *
+     * @param injectorKey the injector key
+     *
+     * @return instance of {@link Injector}
+     */
+    private Injector buildInjector(InjectorKey injectorKey) {
+
+        PrebuiltInjectors prebuiltInjectors = prebuiltInjectorsInstance.get();
+
+        if (prebuiltInjectors != null) {
+
+            Injector injector = prebuiltInjectors.take(injectorKey);
+
+            if (injector != null) {
+
+                return injector;
+            }
+        }
+
+        return createInjectorBuilder(injectorKey).call();
+    }
+
+    /**
+     * Creates the {@link InjectorBuilder} for the given key.
+     *
+     * @param injectorKey the injector key
+     *
+     * @return the injector builder
+     */
+    private InjectorBuilder createInjectorBuilder(InjectorKey injectorKey) {
+
+        return new InjectorBuilder(injectorKey, getParentInjector(), moduleElementsCacheInstance.get(),
+                moduleConfigurerInstance.get(), getInstrumentations(), constructionReportInstance.get());
+    }
+
+    /**
+     * Creates the suite level parent injector for the given key.
+     *
+     * @param injectorKey the injector key
+     *
+     * @return instance of {@link Injector}
+     */
+    private Injector createSuiteInjector(InjectorKey injectorKey) {
+
+        getBindingCoverage();
+        getProvisionTracer();
+        getSlowProvisionDetector();
+
+        Injector injector = new InjectorBuilder(injectorKey, null, null, null, getInstrumentations(),
+                getConstructionReport()).call();
+
+        verifySlowProvisions(injector);
+
+        return injector;
+    }
+
+    /**
+     * Retrieves the instrumentations of the built injectors that have been enabled in the extension configuration.
+     *
+     * @return the list of the injector instrumentations
+     */
+    private List<InjectorInstrumentation> getInstrumentations() {
+
+        List<InjectorInstrumentation> instrumentations = new ArrayList<InjectorInstrumentation>();
+
+        if (bindingCoverageInstance.get() != null) {
+
+            instrumentations.add(bindingCoverageInstance.get());
+        }
+
+        if (provisionTracerInstance.get() != null) {
+
+            instrumentations.add(provisionTracerInstance.get());
+        }
+
+        if (slowProvisionDetectorInstance.get() != null) {
+
+            instrumentations.add(slowProvisionDetectorInstance.get());
+        }
+
+        return instrumentations;
+    }
+
+    /**
+     * Retrieves the {@link BindingCoverage}. The coverage is being created on the first use if the binding coverage
+     * report has been enabled in the extension configuration.
+     *
+     * @return the binding coverage or null if the report has not been enabled
+     */
+    private BindingCoverage getBindingCoverage() {
+
+        BindingCoverage bindingCoverage = bindingCoverageInstance.get();
+        GuiceExtensionConfiguration configuration = configurationInstance.get();
+
+        if (bindingCoverage == null && configuration != null && configuration.isBindingCoverageReport()) {
+
+            bindingCoverage = new BindingCoverage();
+            bindingCoverageInstance.set(bindingCoverage);
+        }
+
+        return bindingCoverage;
+    }
+
+    /**
+     * Retrieves the {@link ConstructionReport}. The report is being created on the first use if the injector
+     * construction report has been enabled in the extension configuration.
+     *
+     * @return the construction report or null if the report has not been enabled
+     */
+    private ConstructionReport getConstructionReport() {
+
+        ConstructionReport constructionReport = constructionReportInstance.get();
+        GuiceExtensionConfiguration configuration = configurationInstance.get();
+
+        if (constructionReport == null && configuration != null && configuration.isConstructionReport()) {
+
+            constructionReport = new ConstructionReport();
+            constructionReportInstance.set(constructionReport);
+        }
+
+        return constructionReport;
+    }
+
+    /**
+     * Retrieves the {@link ProvisionTracer}. The tracer is being created on the first use if the provision trace has
+     * been enabled in the extension configuration.
+     *
+     * @return the provision tracer or null if the trace has not been enabled
+     */
+    private ProvisionTracer getProvisionTracer() {
+
+        ProvisionTracer provisionTracer = provisionTracerInstance.get();
+        GuiceExtensionConfiguration configuration = configurationInstance.get();
+
+        if (provisionTracer == null && configuration != null && configuration.isProvisionTrace()) {
+
+            provisionTracer = new ProvisionTracer();
+            provisionTracerInstance.set(provisionTracer);
+        }
+
+        return provisionTracer;
+    }
+
+    /**
+     * Retrieves the {@link SlowProvisionDetector}. The detector is being created on the first use if the slow
+     * provision threshold has been set in the extension configuration.
+     *
+     * @return the slow provision detector or null if the detection has not been enabled
+     *
+     * @throws RuntimeException if the detection has been enabled, but the Guice version in use does not support the
+     *                          provision listeners
+     */
+    private SlowProvisionDetector getSlowProvisionDetector() {
+
+        SlowProvisionDetector slowProvisionDetector = slowProvisionDetectorInstance.get();
+        GuiceExtensionConfiguration configuration = configurationInstance.get();
+
+        if (slowProvisionDetector == null && configuration != null
+                && configuration.getSlowProvisionThresholdMs() > 0) {
+
+            if (!ProvisionObserverModule.isProvisionListenerSupported()) {
+
+                throw new RuntimeException("The slow provision detection requires the provision listeners of Guice 4.0 "
+                        + "or newer, which are not supported by the guice version in use. Remove the "
+                        + "slowProvisionThresholdMs property from the extension configuration.");
+            }
+
+            slowProvisionDetector = new SlowProvisionDetector(configuration.getSlowProvisionThresholdMs(),
+                    configuration.isFailOnSlowProvision());
+            slowProvisionDetectorInstance.set(slowProvisionDetector);
+        }
+
+        return slowProvisionDetector;
+    }
+
+    /**
+     * Fails if any slow provision has been detected within the given injector and the failure has been enabled in the
+     * extension configuration.
+     *
+     * @param injector the created injector, may be null
+     */
+    private void verifySlowProvisions(Injector injector) {
+
+        SlowProvisionDetector slowProvisionDetector = slowProvisionDetectorInstance.get();
+
+        if (slowProvisionDetector != null) {
+
+            slowProvisionDetector.verify(injector);
+        }
+    }
+
+    /**
+     * Registers the test class that uses the injector created for the given key within the suite report.
+     *
+     * @param report      the suite report or null if the report has not been enabled
+     * @param injectorKey the injector key
+     * @param testClass   the test class
+     */
+    private void addTestClass(SuiteReport report, InjectorKey injectorKey, Class<?> testClass) {
+
+        if (report != null) {
+
+            report.addTestClass(injectorKey, testClass);
+        }
+    }
+
+    /**
+     * Writes the suite report into the report directory configured for the extension.
+     *
+     * @param report the suite report or null if the report has not been enabled
+     */
+    private void writeReport(SuiteReport report) {
+
+        if (report == null) {
+            return;
+        }
+
+        try {
+
+            File file = report.writeReport(new File(configurationInstance.get().getReportDirectory()));
+
+            log.fine("Successfully written guice report: " + file);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not write the guice report.", e);
+        }
+    }
+
+    /**
+     * Retrieves the suite level parent injector.
+     *
+     * @return the parent injector or null if no parent modules has been configured
+     */
+    private Injector getParentInjector() {
+
+        SuiteInjector suiteInjector = suiteInjectorInstance.get();
+
+        return suiteInjector != null ? suiteInjector.getInjector() : null;
     }
 
     /**
@@ -119,14 +777,14 @@ public class InjectorProducer {
     /**
      * Invokes the model declared method for creating custom injector.
      *
-     * @param testClass the model class
+     * @param metadata the model class metadata
      *
      * @return the Guice injector instance
      */
-    private Injector getCustomInjector(TestClass testClass) {
+    private Injector getCustomInjector(TestClassMetadata metadata) {
 
         try {
-            List<Method> methods = SecurityActions.getStaticMethodsWithAnnotation(testClass.getJavaClass(), GuiceInjector.class);
+            List<Method> methods = metadata.getCustomInjectorMethods();
 
             if (methods.size() > 1) {
                 throw new RuntimeException("Test case may declare only one custom injector method.");
@@ -141,84 +799,150 @@ public class InjectorProducer {
     }
 
     /**
-     * Returns whether the model defines guice configuration.
+     * Retrieves the metadata of the given model class.
      *
      * @param testClass the model class
      *
-     * @return true if model defines guice module, false otherwise
+     * @return the model class metadata
+     */
+    private TestClassMetadata getTestClassMetadata(Class<?> testClass) {
+
+        TestClassMetadataCache metadataCache = metadataCacheInstance.get();
+
+        if (metadataCache == null) {
+
+            metadataCache = new TestClassMetadataCache(getTestClassIndex());
+            metadataCacheInstance.set(metadataCache);
+        }
+
+        return metadataCache.get(testClass);
+    }
+
+    /**
+     * Retrieves the test class index generated at compile time. The index is being loaded on the first use.
+     *
+     * @return the test class index
      */
-    private boolean isGuiceTest(TestClass testClass) {
+    private TestClassIndex getTestClassIndex() {
 
-        return testClass.isAnnotationPresent(GuiceConfiguration.class)
-                || testClass.isAnnotationPresent(GuiceWebConfiguration.class)
-                || hasCustomInjector(testClass);
+        TestClassIndex testClassIndex = testClassIndexInstance.get();
+
+        if (testClassIndex == null) {
+
+            testClassIndex = TestClassIndex.load(SecurityActions.getThreadContextClassLoader());
+            testClassIndexInstance.set(testClassIndex);
+        }
+
+        return testClassIndex;
     }
 
     /**
-     * Returns whether the model defines custom injector.
+     * Retrieves Guice module classes for the give model class.
      *
-     * @param testClass the model class
+     * @param metadata the model class metadata
      *
-     * @return true if the model defines custom injector, false otherwise
+     * @return the ordered list of module classes
      */
-    private boolean hasCustomInjector(TestClass testClass) {
+    private List<Class<? extends Module>> getTestClassModules(TestClassMetadata metadata) {
 
-        return SecurityActions.getStaticMethodsWithAnnotation(
-                testClass.getJavaClass(), GuiceInjector.class).size() > 0;
+        return Arrays.asList(metadata.getConfiguration().value());
     }
 
     /**
-     * Retrieves Guice modules for the give model class.
+     * Retrieves the comma separated names of the Guice module classes for the given model class.
      *
-     * @param testClass the model class
+     * @param metadata the model class metadata
      *
-     * @return modules instances
+     * @return the module class names
      */
-    private Module[] getTestClassModules(TestClass testClass) {
+    private String getModuleNames(TestClassMetadata metadata) {
 
-        GuiceConfiguration guiceConfiguration;
-        List<Module> modules = new ArrayList<Module>();
+        StringBuilder names = new StringBuilder();
 
-        guiceConfiguration = testClass.getAnnotation(GuiceConfiguration.class);
-        Collections.addAll(modules, instantiateModules(guiceConfiguration.value()));
+        if (metadata.getConfiguration() != null) {
 
-        return modules.toArray(new Module[modules.size()]);
+            for (Class<? extends Module> module : metadata.getConfiguration().value()) {
+
+                if (names.length() > 0) {
+                    names.append(',');
+                }
+                names.append(module.getName());
+            }
+        }
+
+        return names.toString();
     }
 
     /**
-     * Instantiates the guice module based of passed classes.
+     * Retrieves the Guice stage for the given model class. The stage declared by the model takes precedence over the
+     * one configured for the extension.
      *
-     * @param classes classes that implement the {@link Module} interface
+     * @param metadata the model class metadata
      *
-     * @return array of module instances
+     * @return the Guice stage
      */
-    private Module[] instantiateModules(Class<? extends Module>[] classes) {
-        List<Module> modules = new ArrayList<Module>();
+    private Stage getTestClassStage(TestClassMetadata metadata) {
 
-        for (Class<? extends Module> c : classes) {
+        Stage[] stages = metadata.getConfiguration().stage();
 
-            modules.add(instantiateClass(c));
+        if (stages.length > 1) {
+            throw new RuntimeException("Test case may declare only one Guice stage.");
+        } else if (stages.length == 1) {
+            return stages[0];
         }
 
-        return modules.toArray(new Module[modules.size()]);
+        GuiceExtensionConfiguration configuration = configurationInstance.get();
+
+        return configuration != null ? configuration.getStage() : Stage.DEVELOPMENT;
     }
 
     /**
-     * Creates new instance of the give class.
+     * Loads the test classes with the given names.
      *
-     * @param clazz the class to instantiate
+     * @param classNames the fully qualified class names
      *
-     * @return new instance of specified class
+     * @return the list of test classes
      */
-    private Module instantiateClass(Class<? extends Module> clazz) {
+    private List<Class<?>> loadTestClasses(List<String> classNames) {
 
-        try {
+        List<Class<?>> classes = new ArrayList<Class<?>>();
 
-            return clazz.newInstance();
-        } catch (InstantiationException e) {
-            throw new RuntimeException("Could not instantiate Guice module.", e);
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException("Could not instantiate Guice module.", e);
+        for (String className : classNames) {
+
+            try {
+
+                classes.add(SecurityActions.loadClass(className));
+            } catch (ClassNotFoundException e) {
+                throw new RuntimeException("Could not load test class: " + className, e);
+            }
+        }
+
+        return classes;
+    }
+
+    /**
+     * Loads the Guice module classes with the given names.
+     *
+     * @param classNames the fully qualified class names
+     *
+     * @return the list of module classes
+     */
+    private List<Class<? extends Module>> loadModuleClasses(List<String> classNames) {
+
+        List<Class<? extends Module>> classes = new ArrayList<Class<? extends Module>>();
+
+        for (String className : classNames) {
+
+            try {
+
+                classes.add(SecurityActions.loadClass(className).asSubclass(Module.class));
+            } catch (ClassNotFoundException e) {
+                throw new RuntimeException("Could not load Guice module class: " + className, e);
+            } catch (ClassCastException e) {
+                throw new RuntimeException("The class does not implement Guice module: " + className, e);
+            }
         }
+
+        return classes;
     }
 }
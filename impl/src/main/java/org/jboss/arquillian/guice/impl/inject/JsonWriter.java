@@ -0,0 +1,305 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.arquillian.guice.impl.inject;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.LinkedList;
+
+/**
+ * A minimal streaming writer of the JSON documents used by the extension reports.
+ */
+final class JsonWriter {
+
+    /**
+     * Represents the underlying writer.
+     */
+    private final Writer writer;
+
+    /**
+     * Represents whether the currently opened objects and arrays already contain any value.
+     */
+    private final LinkedList<Boolean> scopes = new LinkedList<Boolean>();
+
+    /**
+     * Represents whether the name of the object property has just been written.
+     */
+    private boolean afterName;
+
+    /**
+     * Creates new instance of {@link JsonWriter} class.
+     *
+     * @param writer the underlying writer
+     */
+    JsonWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Creates the report file within the given directory, creating the directory if necessary.
+     *
+     * @param directory the report directory
+     * @param fileName  the report file name
+     *
+     * @return the report file
+     *
+     * @throws IOException if the report directory could not be created
+     */
+    static File createReportFile(File directory, String fileName) throws IOException {
+
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Could not create the report directory: " + directory);
+        }
+
+        return new File(directory, fileName);
+    }
+
+    /**
+     * Begins the JSON object.
+     *
+     * @return this writer
+     *
+     * @throws IOException if any error occurs when writing
+     */
+    JsonWriter beginObject() throws IOException {
+
+        return begin('{');
+    }
+
+    /**
+     * Ends the current JSON object.
+     *
+     * @return this writer
+     *
+     * @throws IOException if any error occurs when writing
+     */
+    JsonWriter endObject() throws IOException {
+
+        return end('}');
+    }
+
+    /**
+     * Begins the JSON array.
+     *
+     * @return this writer
+     *
+     * @throws IOException if any error occurs when writing
+     */
+    JsonWriter beginArray() throws IOException {
+
+        return begin('[');
+    }
+
+    /**
+     * Ends the current JSON array.
+     *
+     * @return this writer
+     *
+     * @throws IOException if any error occurs when writing
+     */
+    JsonWriter endArray() throws IOException {
+
+        return end(']');
+    }
+
+    /**
+     * Writes the name of the object property.
+     *
+     * @param name the property name
+     *
+     * @return this writer
+     *
+     * @throws IOException if any error occurs when writing
+     */
+    JsonWriter name(String name) throws IOException {
+
+        separate();
+        writeString(name);
+        writer.write(':');
+        afterName = true;
+        return this;
+    }
+
+    /**
+     * Writes the string value.
+     *
+     * @param value the value, may be null
+     *
+     * @return this writer
+     *
+     * @throws IOException if any error occurs when writing
+     */
+    JsonWriter value(String value) throws IOException {
+
+        separate();
+
+        if (value == null) {
+            writer.write("null");
+        } else {
+            writeString(value);
+        }
+        return this;
+    }
+
+    /**
+     * Writes the boolean value.
+     *
+     * @param value the value, may be null
+     *
+     * @return this writer
+     *
+     * @throws IOException if any error occurs when writing
+     */
+    JsonWriter value(Boolean value) throws IOException {
+
+        separate();
+        writer.write(String.valueOf(value));
+        return this;
+    }
+
+    /**
+     * Writes the numeric value.
+     *
+     * @param value the value
+     *
+     * @return this writer
+     *
+     * @throws IOException if any error occurs when writing
+     */
+    JsonWriter value(long value) throws IOException {
+
+        separate();
+        writer.write(Long.toString(value));
+        return this;
+    }
+
+    /**
+     * Writes the numeric value.
+     *
+     * @param value the value, may be null
+     *
+     * @return this writer
+     *
+     * @throws IOException if any error occurs when writing
+     */
+    JsonWriter value(Number value) throws IOException {
+
+        separate();
+        writer.write(String.valueOf(value));
+        return this;
+    }
+
+    /**
+     * Flushes the underlying writer.
+     *
+     * @throws IOException if any error occurs when writing
+     */
+    void flush() throws IOException {
+
+        writer.flush();
+    }
+
+    /**
+     * Begins the JSON object or array.
+     *
+     * @param bracket the opening bracket
+     *
+     * @return this writer
+     *
+     * @throws IOException if any error occurs when writing
+     */
+    private JsonWriter begin(char bracket) throws IOException {
+
+        separate();
+        writer.write(bracket);
+        scopes.addLast(Boolean.FALSE);
+        return this;
+    }
+
+    /**
+     * Ends the current JSON object or array.
+     *
+     * @param bracket the closing bracket
+     *
+     * @return this writer
+     *
+     * @throws IOException if any error occurs when writing
+     */
+    private JsonWriter end(char bracket) throws IOException {
+
+        scopes.removeLast();
+        writer.write(bracket);
+        return this;
+    }
+
+    /**
+     * Writes the separator preceding the next value, if any.
+     *
+     * @throws IOException if any error occurs when writing
+     */
+    private void separate() throws IOException {
+
+        if (afterName) {
+
+            afterName = false;
+            return;
+        }
+
+        if (!scopes.isEmpty()) {
+
+            if (scopes.getLast()) {
+                writer.write(',');
+            }
+            scopes.set(scopes.size() - 1, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Writes the quoted and escaped string.
+     *
+     * @param value the string
+     *
+     * @throws IOException if any error occurs when writing
+     */
+    private void writeString(String value) throws IOException {
+
+        writer.write('"');
+
+        for (int i = 0; i < value.length(); i++) {
+
+            char c = value.charAt(i);
+
+            if (c == '"' || c == '\\') {
+                writer.write('\\');
+                writer.write(c);
+            } else if (c == '\n') {
+                writer.write("\\n");
+            } else if (c == '\r') {
+                writer.write("\\r");
+            } else if (c == '\t') {
+                writer.write("\\t");
+            } else if (c < 0x20) {
+                writer.write(String.format("\\u%04x", (int) c));
+            } else {
+                writer.write(c);
+            }
+        }
+
+        writer.write('"');
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.arquillian.guice.impl.inject;
+
+import com.google.inject.spi.Element;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Records the elements of the Guice modules of an injector once and replays them for every subsequent injector, so
+ * that the {@link com.google.inject.Module#configure(com.google.inject.Binder)} method is invoked only once per
+ * module list and stage.
+ * <p />
+ * The elements are being recorded for the whole list of the modules at once, since Guice installs the equal modules
+ * only once within a single recording. The modules recorded on their own would replay the elements of the shared
+ * modules, like the {@link com.google.inject.servlet.ServletModule}, once for every module that installs them.
+ */
+class ModuleElementsCache {
+
+    /**
+     * Each key value pair stores the module classes with stage and the recorded elements of these modules.
+     */
+    private final ConcurrentMap<InjectorKey, List<Element>> elements =
+            new ConcurrentHashMap<InjectorKey, List<Element>>();
+
+    /**
+     * Retrieves the elements recorded for the given module classes and stage.
+     *
+     * @param key the key identifying the module classes and stage
+     *
+     * @return the recorded elements or null if none has been recorded
+     */
+    List<Element> get(InjectorKey key) {
+
+        return elements.get(key);
+    }
+
+    /**
+     * Stores the elements recorded for the given module classes and stage, unless they have been already stored
+     * concurrently.
+     *
+     * @param key            the key identifying the module classes and stage
+     * @param moduleElements the recorded elements
+     *
+     * @return the stored elements
+     */
+    List<Element> put(InjectorKey key, List<Element> moduleElements) {
+
+        List<Element> recorded = elements.putIfAbsent(key, moduleElements);
+
+        return recorded != null ? recorded : moduleElements;
+    }
+
+    /**
+     * Removes all the recorded elements.
+     */
+    void clear() {
+
+        elements.clear();
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.arquillian.guice.impl.inject;
+
+import com.google.inject.Binder;
+import com.google.inject.Module;
+import com.google.inject.spi.Elements;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Instantiates and configures the Guice modules of a single injector concurrently, so that the time needed for
+ * configuring all the modules is bound by the slowest module rather than the sum of all of them.
+ * <p />
+ * Guice configures a module installed by several modules only once, because the binder recording the elements keeps
+ * the set of the installed modules. The modules recorded concurrently share that set, so that each module is still
+ * being configured exactly once. The set is not part of the Guice API, hence the concurrent configuration is only
+ * supported when the Guice version in use keeps it.
+ */
+class ParallelModuleConfigurer {
+
+    /**
+     * Represents the name of the Guice binder that records the module elements.
+     */
+    private static final String RECORDING_BINDER = "com.google.inject.spi.Elements$RecordingBinder";
+
+    /**
+     * Represents the name of the field holding the modules installed by the recording binder.
+     */
+    private static final String INSTALLED_MODULES = "modules";
+
+    /**
+     * Represents the field holding the modules installed by the recording binder, null if it is not available.
+     */
+    private static final Field INSTALLED_MODULES_FIELD = getInstalledModulesField();
+
+    /**
+     * Represents the executor used for configuring the modules.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Creates new instance of {@link ParallelModuleConfigurer} class.
+     *
+     * @param threads the number of threads used for configuring the modules
+     */
+    ParallelModuleConfigurer(int threads) {
+
+        executor = Executors.newFixedThreadPool(threads, new DaemonThreadFactory("arquillian-guice-configure-"));
+    }
+
+    /**
+     * Returns whether the Guice version in use allows the modules to be configured concurrently.
+     *
+     * @return true if the recording binders can share the installed modules, false otherwise
+     */
+    static boolean isSupported() {
+
+        return INSTALLED_MODULES_FIELD != null;
+    }
+
+    /**
+     * Wraps the given module, so that the modules it installs are being shared with the other modules recorded with
+     * the same set of the installed modules.
+     *
+     * @param module           the module to record
+     * @param installedModules the thread safe set of the modules installed by all the modules of the injector
+     *
+     * @return the module to record instead of the given module
+     */
+    static Module shareInstalledModules(Module module, Set<Module> installedModules) {
+
+        return new SharedInstallsModule(module, installedModules);
+    }
+
+    /**
+     * Executes the given module tasks concurrently and waits for all of them to complete.
+     *
+     * @param tasks the tasks that instantiate and configure the modules
+     *
+     * @return the configured modules in the order of the tasks
+     */
+    List<Module> configure(List<Callable<Module>> tasks) {
+
+        List<Module> modules = new ArrayList<Module>();
+
+        try {
+
+            for (Future<Module> future : executor.invokeAll(tasks)) {
+
+                modules.add(future.get());
+            }
+        } catch (InterruptedException e) {
+
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while configuring Guice modules.", e);
+        } catch (ExecutionException e) {
+
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException("Could not configure Guice module.", e.getCause());
+        }
+
+        return modules;
+    }
+
+    /**
+     * Stops the executor.
+     */
+    void shutdown() {
+
+        executor.shutdownNow();
+    }
+
+    /**
+     * Retrieves the field holding the modules installed by the recording binder.
+     *
+     * @return the field or null if the Guice version in use does not declare it
+     */
+    private static Field getInstalledModulesField() {
+
+        try {
+
+            Field field = SecurityActions.getDeclaredField(
+                    Class.forName(RECORDING_BINDER, false, Elements.class.getClassLoader()), INSTALLED_MODULES);
+
+            return Set.class.equals(field.getType()) ? field : null;
+        } catch (ClassNotFoundException e) {
+            return null;
+        } catch (NoSuchFieldException e) {
+            return null;
+        } catch (SecurityException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Installs the module through the recording binder, after replacing the set of the modules installed by the binder
+     * with the set shared by all the modules of the injector.
+     */
+    private static class SharedInstallsModule implements Module {
+
+        /**
+         * Represents the recorded module.
+         */
+        private final Module module;
+
+        /**
+         * Represents the modules installed by all the modules of the injector.
+         */
+        private final Set<Module> installedModules;
+
+        /**
+         * Creates new instance of {@link SharedInstallsModule} class.
+         *
+         * @param module           the recorded module
+         * @param installedModules the modules installed by all the modules of the injector
+         */
+        SharedInstallsModule(Module module, Set<Module> installedModules) {
+            this.module = module;
+            this.installedModules = installedModules;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void configure(Binder binder) {
+
+            try {
+
+                INSTALLED_MODULES_FIELD.set(binder, installedModules);
+            } catch (IllegalAccessException e) {
+                throw new RuntimeException("Could not share the installed Guice modules.", e);
+            }
+
+            binder.install(module);
+        }
+    }
+}
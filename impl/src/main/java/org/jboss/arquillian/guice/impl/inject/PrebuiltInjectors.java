@@ -0,0 +1,118 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.arquillian.guice.impl.inject;
+
+import com.google.inject.Injector;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Builds the injectors of the upcoming test classes in the background. Each of the prebuilt injectors can be taken
+ * only once, so that the test classes do not share the injector unless the injector cache has been enabled.
+ */
+class PrebuiltInjectors {
+
+    /**
+     * The logger used by this class.
+     */
+    private static final Logger log = Logger.getLogger(PrebuiltInjectors.class.getName());
+
+    /**
+     * Represents the executor used for building the injectors.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Each key value pair stores the injector key and the result of the injector build.
+     */
+    private final Map<InjectorKey, Future<Injector>> injectors = new ConcurrentHashMap<InjectorKey, Future<Injector>>();
+
+    /**
+     * Creates new instance of {@link PrebuiltInjectors} class.
+     *
+     * @param threads the number of threads used for building the injectors
+     */
+    PrebuiltInjectors(int threads) {
+
+        executor = Executors.newFixedThreadPool(threads, new DaemonThreadFactory("arquillian-guice-prebuild-"));
+    }
+
+    /**
+     * Schedules the build of the injector, unless the injector with the same key has been already scheduled.
+     *
+     * @param injectorKey the injector key
+     * @param builder     the injector builder
+     */
+    void submit(InjectorKey injectorKey, InjectorBuilder builder) {
+
+        if (!injectors.containsKey(injectorKey)) {
+
+            injectors.put(injectorKey, executor.submit(builder));
+        }
+    }
+
+    /**
+     * Takes the prebuilt injector, waiting for its build to complete if necessary.
+     *
+     * @param injectorKey the injector key
+     *
+     * @return the prebuilt injector or null if the injector has not been scheduled or its build has failed
+     */
+    Injector take(InjectorKey injectorKey) {
+
+        Future<Injector> future = injectors.remove(injectorKey);
+
+        if (future == null) {
+
+            return null;
+        }
+
+        try {
+
+            return future.get();
+        } catch (InterruptedException e) {
+
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+
+            // the injector will be built again, so that the error is being reported for the test class
+            log.log(Level.FINE, "Could not prebuild guice injector: " + injectorKey, e.getCause());
+            return null;
+        }
+    }
+
+    /**
+     * Cancels all the scheduled builds and stops the executor.
+     */
+    void shutdown() {
+
+        for (Future<Injector> future : injectors.values()) {
+            future.cancel(true);
+        }
+        injectors.clear();
+
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.arquillian.guice.impl.inject;
+
+import com.google.inject.Binding;
+import com.google.inject.TypeLiteral;
+
+/**
+ * Observes the objects provisioned by the injector. The observer is being notified about each provisioned binding
+ * only when the Guice version in use supports the provision listeners, otherwise it is only being notified after the
+ * injector has injected an instance of a type.
+ */
+interface ProvisionObserver {
+
+    /**
+     * Notifies that the binding is about to be provisioned.
+     *
+     * @param binding the binding
+     */
+    void beforeProvision(Binding<?> binding);
+
+    /**
+     * Notifies that the binding has been provisioned.
+     *
+     * @param binding  the binding
+     * @param duration the provision duration in nanoseconds
+     */
+    void afterProvision(Binding<?> binding, long duration);
+
+    /**
+     * Notifies that the injector has injected an instance of the given type. Used only when the provision listeners
+     * are not supported.
+     *
+     * @param type the injected type
+     */
+    void afterInjection(TypeLiteral<?> type);
+}
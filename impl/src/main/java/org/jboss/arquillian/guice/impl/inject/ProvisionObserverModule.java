@@ -0,0 +1,283 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.arquillian.guice.impl.inject;
+
+import com.google.inject.Binder;
+import com.google.inject.Binding;
+import com.google.inject.Module;
+import com.google.inject.TypeLiteral;
+import com.google.inject.matcher.Matcher;
+import com.google.inject.matcher.Matchers;
+import com.google.inject.spi.InjectionListener;
+import com.google.inject.spi.TypeEncounter;
+import com.google.inject.spi.TypeListener;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * A module that registers the {@link ProvisionObserver}s within the injector.
+ * <p />
+ * The provision listeners are not part of the Guice 3.0 API, so they are being registered reflectively whenever the
+ * Guice version in use provides them. Otherwise the observers are only being notified through the injection listeners.
+ */
+class ProvisionObserverModule implements Module {
+
+    /**
+     * Represents the fully qualified name of the provision listener interface.
+     */
+    private static final String PROVISION_LISTENER = "com.google.inject.spi.ProvisionListener";
+
+    /**
+     * Represents the fully qualified name of the provision invocation class.
+     */
+    private static final String PROVISION_INVOCATION = PROVISION_LISTENER + "$ProvisionInvocation";
+
+    /**
+     * Represents the provision listener interface or null if the Guice version in use does not provide it.
+     */
+    private static final Class<?> PROVISION_LISTENER_CLASS = loadClass(PROVISION_LISTENER);
+
+    /**
+     * Represents the provision invocation class or null if the Guice version in use does not provide it.
+     */
+    private static final Class<?> PROVISION_INVOCATION_CLASS = loadClass(PROVISION_INVOCATION);
+
+    /**
+     * Represents the observers.
+     */
+    private final ProvisionObserver[] observers;
+
+    /**
+     * Creates new instance of {@link ProvisionObserverModule} class.
+     *
+     * @param observers the observers
+     */
+    ProvisionObserverModule(ProvisionObserver... observers) {
+        this.observers = observers;
+    }
+
+    /**
+     * Returns whether the Guice version in use supports the provision listeners.
+     *
+     * @return true if the provision listeners are supported, false otherwise
+     */
+    static boolean isProvisionListenerSupported() {
+
+        return PROVISION_LISTENER_CLASS != null && PROVISION_INVOCATION_CLASS != null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void configure(Binder binder) {
+
+        if (isProvisionListenerSupported()) {
+
+            bindProvisionListener(binder);
+        } else {
+
+            binder.bindListener(Matchers.any(), new ObserverTypeListener(observers));
+        }
+    }
+
+    /**
+     * Registers the provision listener that notifies the observers.
+     *
+     * @param binder the binder
+     */
+    private void bindProvisionListener(Binder binder) {
+
+        try {
+
+            Object listeners = Array.newInstance(PROVISION_LISTENER_CLASS, 1);
+            Array.set(listeners, 0, Proxy.newProxyInstance(PROVISION_LISTENER_CLASS.getClassLoader(),
+                    new Class<?>[]{PROVISION_LISTENER_CLASS}, new ProvisionListenerHandler(observers,
+                    PROVISION_INVOCATION_CLASS.getMethod("getBinding"),
+                    PROVISION_INVOCATION_CLASS.getMethod("provision"))));
+
+            Method bindListener = Binder.class.getMethod("bindListener", Matcher.class, listeners.getClass());
+            bindListener.invoke(binder, Matchers.any(), listeners);
+        } catch (NoSuchMethodException e) {
+            throw new RuntimeException("Could not register the guice provision listener.", e);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException("Could not register the guice provision listener.", e);
+        } catch (InvocationTargetException e) {
+            throw new RuntimeException("Could not register the guice provision listener.", e.getCause());
+        }
+    }
+
+    /**
+     * Loads the Guice class with the given name.
+     *
+     * @param name the fully qualified class name
+     *
+     * @return the class or null if it is not available
+     */
+    private static Class<?> loadClass(String name) {
+
+        try {
+            return Class.forName(name, false, Binder.class.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
+
+    /**
+     * The invocation handler of the provision listener proxy. Notifies the observers before and after the provision.
+     */
+    private static class ProvisionListenerHandler implements InvocationHandler {
+
+        /**
+         * Represents the observers.
+         */
+        private final ProvisionObserver[] observers;
+
+        /**
+         * Represents the method retrieving the provisioned binding.
+         */
+        private final Method getBinding;
+
+        /**
+         * Represents the method performing the provision.
+         */
+        private final Method provision;
+
+        /**
+         * Creates new instance of {@link ProvisionListenerHandler} class.
+         *
+         * @param observers  the observers
+         * @param getBinding the method retrieving the provisioned binding
+         * @param provision  the method performing the provision
+         */
+        private ProvisionListenerHandler(ProvisionObserver[] observers, Method getBinding, Method provision) {
+            this.observers = observers;
+            this.getBinding = getBinding;
+            this.provision = provision;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+            if (method.getDeclaringClass() == Object.class) {
+                return invokeObjectMethod(proxy, method, args);
+            }
+
+            Object invocation = args[0];
+            Binding<?> binding = (Binding<?>) invoke(invocation, getBinding);
+
+            for (ProvisionObserver observer : observers) {
+                observer.beforeProvision(binding);
+            }
+
+            long start = System.nanoTime();
+
+            try {
+
+                invoke(invocation, provision);
+            } finally {
+
+                long duration = System.nanoTime() - start;
+
+                for (ProvisionObserver observer : observers) {
+                    observer.afterProvision(binding, duration);
+                }
+            }
+
+            return null;
+        }
+
+        /**
+         * Invokes the method without parameters on the given provision invocation.
+         *
+         * @param invocation the provision invocation
+         * @param method     the method
+         *
+         * @return the method result
+         *
+         * @throws Throwable if the invoked method throws any exception
+         */
+        private Object invoke(Object invocation, Method method) throws Throwable {
+
+            try {
+                return method.invoke(invocation);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        /**
+         * Handles the methods declared by the {@link Object} class.
+         *
+         * @param proxy  the proxy
+         * @param method the method
+         * @param args   the method arguments
+         *
+         * @return the method result
+         */
+        private Object invokeObjectMethod(Object proxy, Method method, Object[] args) {
+
+            if ("equals".equals(method.getName())) {
+                return proxy == args[0];
+            } else if ("hashCode".equals(method.getName())) {
+                return System.identityHashCode(proxy);
+            }
+
+            return "ProvisionObserverListener";
+        }
+    }
+
+    /**
+     * A type listener that notifies the observers after the injector has injected an instance.
+     */
+    private static class ObserverTypeListener implements TypeListener {
+
+        /**
+         * Represents the observers.
+         */
+        private final ProvisionObserver[] observers;
+
+        /**
+         * Creates new instance of {@link ObserverTypeListener} class.
+         *
+         * @param observers the observers
+         */
+        private ObserverTypeListener(ProvisionObserver[] observers) {
+            this.observers = observers;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public <I> void hear(final TypeLiteral<I> type, TypeEncounter<I> encounter) {
+
+            encounter.register(new InjectionListener<I>() {
+                public void afterInjection(I injectee) {
+
+                    for (ProvisionObserver observer : observers) {
+                        observer.afterInjection(type);
+                    }
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,402 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.arquillian.guice.impl.inject;
+
+import com.google.inject.Binding;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.Module;
+import com.google.inject.TypeLiteral;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Traces the nested provisions within the injectors created during the test suite and writes them in the collapsed
+ * stack format, which is accepted by the flame graph tools.
+ * <p />
+ * Each stack starts with the test classes using the injector, followed by the phase in which the provision occurred,
+ * either the injector creation or the injection that followed it, and by the provisioned bindings with their
+ * dependencies. The stacks are weighted by the self time of the provisions in microseconds.
+ * <p />
+ * When the Guice version in use does not support the provision listeners, only the types constructed by the injector
+ * can be observed, with neither nesting nor timing, so the stacks are flat and weighted by the number of the
+ * constructed instances.
+ */
+final class ProvisionTracer implements InjectorInstrumentation, SuiteReport {
+
+    /**
+     * Represents the name of the report file.
+     */
+    static final String REPORT_FILE_NAME = "guice-provisions.collapsed";
+
+    /**
+     * Represents the phase of the provisions within the injector creation.
+     */
+    static final String CREATE_INJECTOR_PHASE = "createInjector";
+
+    /**
+     * Represents the phase of the provisions after the injector has been created.
+     */
+    static final String INJECTION_PHASE = "injection";
+
+    /**
+     * Represents the separator of the stack frames.
+     */
+    private static final char FRAME_SEPARATOR = ';';
+
+    /**
+     * Represents the traces recorded for each injector key.
+     */
+    private final Map<InjectorKey, InjectorTrace> traces = new LinkedHashMap<InjectorKey, InjectorTrace>();
+
+    /**
+     * Creates new instance of {@link ProvisionTracer} class.
+     */
+    ProvisionTracer() {
+        // empty constructor
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public synchronized ProvisionObserver getObserver(InjectorKey injectorKey) {
+
+        return new InjectorObserver(getTrace(injectorKey));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void injectorCreated(InjectorKey injectorKey, ProvisionObserver observer, Injector injector) {
+
+        ((InjectorObserver) observer).created = true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public synchronized void addTestClass(InjectorKey injectorKey, Class<?> testClass) {
+
+        getTrace(injectorKey).testClasses.add(testClass.getName());
+    }
+
+    /**
+     * Retrieves the stacks recorded for the injector created for the given key, without the leading test class frame.
+     *
+     * @param injectorKey the injector key
+     *
+     * @return the stacks with their weights in nanoseconds, or in the number of the constructed instances if the
+     *         provision listeners are not supported
+     */
+    synchronized Map<String, Long> getStacks(InjectorKey injectorKey) {
+
+        InjectorTrace trace = traces.get(injectorKey);
+
+        return trace != null ? trace.getStacks() : new HashMap<String, Long>();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public synchronized File writeReport(File directory) throws IOException {
+
+        File file = JsonWriter.createReportFile(directory, REPORT_FILE_NAME);
+        Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+        boolean timed = ProvisionObserverModule.isProvisionListenerSupported();
+
+        try {
+
+            for (Map.Entry<InjectorKey, InjectorTrace> entry : traces.entrySet()) {
+
+                String root = getRootFrame(entry.getKey(), entry.getValue().testClasses);
+
+                Map<String, Long> stacks = new TreeMap<String, Long>(entry.getValue().getStacks());
+
+                for (Map.Entry<String, Long> stack : stacks.entrySet()) {
+
+                    long weight = timed ? stack.getValue() / 1000 : stack.getValue();
+
+                    if (weight > 0) {
+
+                        writer.write(root + FRAME_SEPARATOR + stack.getKey() + ' ' + weight + '\n');
+                    }
+                }
+            }
+
+            writer.flush();
+        } finally {
+            writer.close();
+        }
+
+        return file;
+    }
+
+    /**
+     * Retrieves the trace of the given injector key, creating it if necessary.
+     *
+     * @param injectorKey the injector key
+     *
+     * @return the injector trace
+     */
+    private InjectorTrace getTrace(InjectorKey injectorKey) {
+
+        InjectorTrace trace = traces.get(injectorKey);
+
+        if (trace == null) {
+
+            trace = new InjectorTrace();
+            traces.put(injectorKey, trace);
+        }
+
+        return trace;
+    }
+
+    /**
+     * Retrieves the root frame of the stacks of the single injector: the test classes using the injector or, if there
+     * are none, its modules.
+     *
+     * @param injectorKey the injector key
+     * @param testClasses the test classes using the injector
+     *
+     * @return the root frame
+     */
+    private static String getRootFrame(InjectorKey injectorKey, Set<String> testClasses) {
+
+        StringBuilder root = new StringBuilder();
+
+        if (!testClasses.isEmpty()) {
+
+            for (String testClass : testClasses) {
+
+                root.append(root.length() > 0 ? "," : "").append(testClass);
+            }
+        } else {
+
+            for (Class<? extends Module> module : injectorKey.getModules()) {
+
+                root.append(root.length() > 0 ? "+" : "").append(module.getName());
+            }
+        }
+
+        return toFrame(root.toString());
+    }
+
+    /**
+     * Retrieves the frame name of the given key.
+     *
+     * @param key the binding key
+     *
+     * @return the frame name
+     */
+    private static String getFrame(Key<?> key) {
+
+        String name = key.getTypeLiteral().toString();
+
+        if (key.getAnnotation() != null) {
+            name += " " + key.getAnnotation();
+        } else if (key.getAnnotationType() != null) {
+            name += " @" + key.getAnnotationType().getName();
+        }
+
+        return toFrame(name);
+    }
+
+    /**
+     * Escapes the frame separator within the frame name.
+     *
+     * @param name the frame name
+     *
+     * @return the escaped frame name
+     */
+    private static String toFrame(String name) {
+
+        return name.replace(FRAME_SEPARATOR, ':');
+    }
+
+    /**
+     * The provisions traced within the injectors created for the single injector key.
+     */
+    private static class InjectorTrace {
+
+        /**
+         * Represents the names of the test classes using the injector.
+         */
+        private final Set<String> testClasses = new LinkedHashSet<String>();
+
+        /**
+         * Represents the weights of the recorded stacks.
+         */
+        private final Map<String, Long> stacks = new HashMap<String, Long>();
+
+        /**
+         * Retrieves the copy of the recorded stacks.
+         *
+         * @return the recorded stacks
+         */
+        private synchronized Map<String, Long> getStacks() {
+
+            return new HashMap<String, Long>(stacks);
+        }
+
+        /**
+         * Adds the weight to the given stack.
+         *
+         * @param stack  the stack
+         * @param weight the weight
+         */
+        private synchronized void addStack(String stack, long weight) {
+
+            Long current = stacks.get(stack);
+            stacks.put(stack, current != null ? current + weight : weight);
+        }
+    }
+
+    /**
+     * Observes the provisions within the single injector, so that each injector created for the same key starts in the
+     * injector creation phase.
+     */
+    private static class InjectorObserver implements ProvisionObserver {
+
+        /**
+         * Represents the trace the provisions are being recorded to.
+         */
+        private final InjectorTrace trace;
+
+        /**
+         * Represents the currently provisioned frames of each thread.
+         */
+        private final ThreadLocal<LinkedList<Frame>> frames = new ThreadLocal<LinkedList<Frame>>() {
+            @Override
+            protected LinkedList<Frame> initialValue() {
+                return new LinkedList<Frame>();
+            }
+        };
+
+        /**
+         * Represents whether the injector has been created.
+         */
+        private volatile boolean created;
+
+        /**
+         * Creates new instance of {@link InjectorObserver} class.
+         *
+         * @param trace the trace the provisions are being recorded to
+         */
+        private InjectorObserver(InjectorTrace trace) {
+            this.trace = trace;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void beforeProvision(Binding<?> binding) {
+
+            LinkedList<Frame> current = frames.get();
+            String phase = current.isEmpty() ? getPhase() : current.getFirst().phase;
+
+            current.addLast(new Frame(getFrame(binding.getKey()), phase));
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void afterProvision(Binding<?> binding, long duration) {
+
+            LinkedList<Frame> current = frames.get();
+
+            if (current.isEmpty()) {
+                return;
+            }
+
+            StringBuilder stack = new StringBuilder(current.getFirst().phase);
+
+            for (Frame frame : current) {
+
+                stack.append(FRAME_SEPARATOR).append(frame.name);
+            }
+
+            Frame frame = current.removeLast();
+            trace.addStack(stack.toString(), Math.max(0, duration - frame.childrenTime));
+
+            if (!current.isEmpty()) {
+
+                current.getLast().childrenTime += duration;
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void afterInjection(TypeLiteral<?> type) {
+
+            trace.addStack(getPhase() + FRAME_SEPARATOR + toFrame(type.toString()), 1);
+        }
+
+        /**
+         * Retrieves the current phase of the injector.
+         *
+         * @return the phase
+         */
+        private String getPhase() {
+
+            return created ? INJECTION_PHASE : CREATE_INJECTOR_PHASE;
+        }
+    }
+
+    /**
+     * The single provision on the stack.
+     */
+    private static class Frame {
+
+        /**
+         * Represents the frame name.
+         */
+        private final String name;
+
+        /**
+         * Represents the phase of the outermost provision.
+         */
+        private final String phase;
+
+        /**
+         * Represents the time spent in the nested provisions.
+         */
+        private long childrenTime;
+
+        /**
+         * Creates new instance of {@link Frame} class.
+         *
+         * @param name  the frame name
+         * @param phase the phase of the outermost provision
+         */
+        private Frame(String name, String phase) {
+            this.name = name;
+            this.phase = phase;
+        }
+    }
+}
@@ -0,0 +1,460 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.arquillian.guice.impl.inject;
+
+import com.google.inject.Binding;
+import com.google.inject.ConfigurationException;
+import com.google.inject.ImplementedBy;
+import com.google.inject.Key;
+import com.google.inject.MembersInjector;
+import com.google.inject.ProvidedBy;
+import com.google.inject.Provider;
+import com.google.inject.TypeLiteral;
+import com.google.inject.spi.Dependency;
+import com.google.inject.spi.Element;
+import com.google.inject.spi.HasDependencies;
+import com.google.inject.spi.InjectionPoint;
+import com.google.inject.spi.InjectionRequest;
+import com.google.inject.spi.LinkedKeyBinding;
+import com.google.inject.spi.MembersInjectorLookup;
+import com.google.inject.spi.PrivateElements;
+import com.google.inject.spi.ProviderKeyBinding;
+import com.google.inject.spi.ProviderLookup;
+import com.google.inject.spi.StaticInjectionRequest;
+import com.google.inject.spi.UntargettedBinding;
+import org.jboss.arquillian.guice.api.annotation.LazyInject;
+import org.jboss.arquillian.guice.impl.enricher.BindingKeys;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * Prunes the module elements to the bindings reachable from the given root keys, which are the injection points of
+ * the test class. The bindings that no root depends on, transitively, are not included in the injector, including the
+ * eager singletons.
+ * <p />
+ * A dependency on an annotated key that has not been bound explicitly keeps every binding with the same annotation,
+ * since Guice converts such dependencies from the bound constants of other types. The elements that are not bindings,
+ * such as scopes, interceptors or injection requests, are always kept, as are the multibinder contributions. The
+ * modules that declare any private elements are never pruned.
+ */
+final class ReachableBindings {
+
+    /**
+     * The logger used by this class.
+     */
+    private static final Logger log = Logger.getLogger(ReachableBindings.class.getName());
+
+    /**
+     * Represents the package of the multibinder annotations, used for marking the contributed elements.
+     */
+    private static final String MULTIBINDINGS_PACKAGE = "com.google.inject.multibindings.";
+
+    /**
+     * Represents the fully qualified names of the annotations that mark the test methods.
+     */
+    private static final Set<String> TEST_ANNOTATIONS = new HashSet<String>(Arrays.asList(
+            "org.junit.Test", "org.testng.annotations.Test"));
+
+    /**
+     * Creates new instance of {@link ReachableBindings}.
+     *
+     * Private constructor prevents from instantiation outside this class.
+     */
+    private ReachableBindings() {
+        // empty constructor
+    }
+
+    /**
+     * Retrieves the keys the given test class depends on: its injection points, its lazily injected fields and the
+     * parameters of its test methods.
+     *
+     * @param testClass the test class
+     *
+     * @return the root keys or null if the injection points of the test class could not be determined
+     */
+    static Set<Key<?>> getRootKeys(Class<?> testClass) {
+
+        Set<Key<?>> rootKeys = new LinkedHashSet<Key<?>>();
+
+        try {
+
+            addDependencies(rootKeys, InjectionPoint.forInstanceMethodsAndFields(testClass));
+        } catch (ConfigurationException e) {
+            return null;
+        }
+
+        Class<?> current = testClass;
+
+        while (current != null && current != Object.class) {
+
+            for (Field field : current.getDeclaredFields()) {
+
+                if (field.isAnnotationPresent(LazyInject.class)) {
+                    rootKeys.add(BindingKeys.getKey(field.getGenericType(), field.getAnnotations()));
+                }
+            }
+
+            for (Method method : current.getDeclaredMethods()) {
+
+                if (isTestMethod(method)) {
+
+                    Type[] parameterTypes = method.getGenericParameterTypes();
+                    for (int i = 0; i < parameterTypes.length; i++) {
+
+                        rootKeys.add(BindingKeys.getKey(parameterTypes[i], method.getParameterAnnotations()[i]));
+                    }
+                }
+            }
+
+            current = current.getSuperclass();
+        }
+
+        return rootKeys;
+    }
+
+    /**
+     * Returns whether the given method is a public test method, whose parameters are being resolved by the enricher.
+     *
+     * @param method the method
+     *
+     * @return true if the method is a test method, false otherwise
+     */
+    private static boolean isTestMethod(Method method) {
+
+        if (!Modifier.isPublic(method.getModifiers()) || Modifier.isStatic(method.getModifiers())) {
+            return false;
+        }
+
+        for (Annotation annotation : method.getAnnotations()) {
+
+            if (TEST_ANNOTATIONS.contains(annotation.annotationType().getName())) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Prunes the given module elements to the ones reachable from the root keys.
+     *
+     * @param elements the module elements
+     * @param rootKeys the root keys
+     *
+     * @return the pruned module elements
+     */
+    static List<Element> prune(List<Element> elements, Set<Key<?>> rootKeys) {
+
+        Map<Key<?>, Binding<?>> bindings = new HashMap<Key<?>, Binding<?>>();
+        Map<Object, List<Key<?>>> annotatedKeys = new HashMap<Object, List<Key<?>>>();
+        LinkedList<Key<?>> pending = new LinkedList<Key<?>>(rootKeys);
+
+        for (Element element : elements) {
+
+            if (element instanceof PrivateElements) {
+
+                log.fine("The modules declare private elements and are not being pruned.");
+                return elements;
+            } else if (element instanceof Binding) {
+
+                Binding<?> binding = (Binding<?>) element;
+                bindings.put(binding.getKey(), binding);
+                addAnnotatedKey(annotatedKeys, binding.getKey());
+
+                if (isMultibinderElement(binding.getKey())) {
+                    pending.add(binding.getKey());
+                }
+            } else {
+
+                pending.addAll(getDependencies(element));
+            }
+        }
+
+        Set<Key<?>> reachable = new HashSet<Key<?>>();
+
+        while (!pending.isEmpty()) {
+
+            Key<?> key = pending.removeFirst();
+
+            if (reachable.add(key)) {
+
+                Binding<?> binding = bindings.get(key);
+
+                if (binding != null) {
+                    pending.addAll(getDependencies(binding));
+                } else if (key.getAnnotationType() != null && annotatedKeys.containsKey(getAnnotation(key))) {
+                    pending.addAll(annotatedKeys.get(getAnnotation(key)));
+                } else {
+                    pending.addAll(getImplicitDependencies(key));
+                }
+            }
+        }
+
+        List<Element> result = new ArrayList<Element>();
+
+        for (Element element : elements) {
+
+            if (!(element instanceof Binding) || reachable.contains(((Binding<?>) element).getKey())) {
+                result.add(element);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Adds the given bound key to the keys with the same annotation.
+     *
+     * @param annotatedKeys the bound keys by their annotation
+     * @param key           the bound key
+     */
+    private static void addAnnotatedKey(Map<Object, List<Key<?>>> annotatedKeys, Key<?> key) {
+
+        if (key.getAnnotationType() != null) {
+
+            List<Key<?>> keys = annotatedKeys.get(getAnnotation(key));
+
+            if (keys == null) {
+                keys = new ArrayList<Key<?>>();
+                annotatedKeys.put(getAnnotation(key), keys);
+            }
+            keys.add(key);
+        }
+    }
+
+    /**
+     * Retrieves the annotation the key is being matched with: either the annotation instance, or its type when the key
+     * has been bound to the annotation type.
+     *
+     * @param key the annotated key
+     *
+     * @return the annotation or its type
+     */
+    private static Object getAnnotation(Key<?> key) {
+
+        return key.getAnnotation() != null ? key.getAnnotation() : key.getAnnotationType();
+    }
+
+    /**
+     * Retrieves the keys the given element depends on.
+     *
+     * @param element the module element
+     *
+     * @return the dependency keys
+     */
+    private static Set<Key<?>> getDependencies(Element element) {
+
+        Set<Key<?>> keys = new LinkedHashSet<Key<?>>();
+
+        try {
+
+            if (element instanceof LinkedKeyBinding) {
+                keys.add(((LinkedKeyBinding<?>) element).getLinkedKey());
+            } else if (element instanceof ProviderKeyBinding) {
+                keys.add(((ProviderKeyBinding<?>) element).getProviderKey());
+            } else if (element instanceof UntargettedBinding) {
+                keys.addAll(getImplicitDependencies(((UntargettedBinding<?>) element).getKey()));
+            } else if (element instanceof InjectionRequest) {
+                addDependencies(keys, ((InjectionRequest<?>) element).getInjectionPoints());
+            } else if (element instanceof StaticInjectionRequest) {
+                addDependencies(keys, ((StaticInjectionRequest) element).getInjectionPoints());
+            } else if (element instanceof ProviderLookup) {
+                keys.add(((ProviderLookup<?>) element).getKey());
+            } else if (element instanceof MembersInjectorLookup) {
+                addDependencies(keys, InjectionPoint.forInstanceMethodsAndFields(
+                        ((MembersInjectorLookup<?>) element).getType()));
+            }
+
+            if (element instanceof HasDependencies) {
+
+                for (Dependency<?> dependency : ((HasDependencies) element).getDependencies()) {
+                    keys.add(dependency.getKey());
+                }
+            }
+        } catch (ConfigurationException e) {
+            // the injector reports the misconfigured elements once created
+        }
+
+        return keys;
+    }
+
+    /**
+     * Retrieves the keys the just in time binding of the given key depends on.
+     *
+     * @param key the key that has not been explicitly bound
+     *
+     * @return the dependency keys
+     */
+    private static Set<Key<?>> getImplicitDependencies(Key<?> key) {
+
+        Set<Key<?>> keys = new LinkedHashSet<Key<?>>();
+        TypeLiteral<?> type = key.getTypeLiteral();
+        Class<?> rawType = type.getRawType();
+
+        if (rawType == Provider.class || rawType == javax.inject.Provider.class) {
+
+            keys.add(getProvidedKey(key, type));
+            return keys;
+        }
+
+        if (rawType == MembersInjector.class) {
+
+            Type providedType = getTypeArgument(type);
+            if (providedType != null) {
+                addMembersDependencies(keys, TypeLiteral.get(providedType));
+            }
+            return keys;
+        }
+
+        if (key.getAnnotationType() != null) {
+            return keys;
+        }
+
+        ImplementedBy implementedBy = rawType.getAnnotation(ImplementedBy.class);
+        ProvidedBy providedBy = rawType.getAnnotation(ProvidedBy.class);
+
+        if (implementedBy != null) {
+            keys.add(Key.get(implementedBy.value()));
+        } else if (providedBy != null) {
+            keys.add(Key.get(providedBy.value()));
+        } else {
+
+            try {
+
+                keys.addAll(getKeys(InjectionPoint.forConstructorOf(type)));
+            } catch (ConfigurationException e) {
+                // the type can not be constructed
+            }
+            addMembersDependencies(keys, type);
+        }
+
+        return keys;
+    }
+
+    /**
+     * Retrieves the key provided by the provider key.
+     *
+     * @param key  the provider key
+     * @param type the provider type
+     *
+     * @return the provided key
+     */
+    private static Key<?> getProvidedKey(Key<?> key, TypeLiteral<?> type) {
+
+        Type providedType = getTypeArgument(type);
+
+        if (providedType == null) {
+            return key;
+        } else if (key.getAnnotation() != null) {
+            return Key.get(providedType, key.getAnnotation());
+        } else if (key.getAnnotationType() != null) {
+            return Key.get(providedType, key.getAnnotationType());
+        }
+
+        return Key.get(providedType);
+    }
+
+    /**
+     * Retrieves the single type argument of the parameterized type.
+     *
+     * @param type the type
+     *
+     * @return the type argument or null if the type is not parameterized
+     */
+    private static Type getTypeArgument(TypeLiteral<?> type) {
+
+        if (type.getType() instanceof ParameterizedType) {
+            return ((ParameterizedType) type.getType()).getActualTypeArguments()[0];
+        }
+
+        return null;
+    }
+
+    /**
+     * Adds the keys the injected members of the given type depend on.
+     *
+     * @param keys the keys
+     * @param type the type
+     */
+    private static void addMembersDependencies(Set<Key<?>> keys, TypeLiteral<?> type) {
+
+        try {
+
+            addDependencies(keys, InjectionPoint.forInstanceMethodsAndFields(type));
+        } catch (ConfigurationException e) {
+            // the injector reports the misconfigured members once created
+        }
+    }
+
+    /**
+     * Adds the keys the given injection points depend on.
+     *
+     * @param keys            the keys
+     * @param injectionPoints the injection points
+     */
+    private static void addDependencies(Set<Key<?>> keys, Set<InjectionPoint> injectionPoints) {
+
+        for (InjectionPoint injectionPoint : injectionPoints) {
+            keys.addAll(getKeys(injectionPoint));
+        }
+    }
+
+    /**
+     * Retrieves the keys the given injection point depends on.
+     *
+     * @param injectionPoint the injection point
+     *
+     * @return the dependency keys
+     */
+    private static List<Key<?>> getKeys(InjectionPoint injectionPoint) {
+
+        List<Key<?>> keys = new ArrayList<Key<?>>();
+
+        for (Dependency<?> dependency : injectionPoint.getDependencies()) {
+            keys.add(dependency.getKey());
+        }
+
+        return keys;
+    }
+
+    /**
+     * Returns whether the key identifies the element contributed through the multibinder.
+     *
+     * @param key the key
+     *
+     * @return true if the key identifies the multibinder element, false otherwise
+     */
+    private static boolean isMultibinderElement(Key<?> key) {
+
+        return key.getAnnotationType() != null && key.getAnnotationType().getName().startsWith(MULTIBINDINGS_PACKAGE);
+    }
+}
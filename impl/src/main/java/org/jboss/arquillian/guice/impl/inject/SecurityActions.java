@@ -17,10 +17,13 @@
 package org.jboss.arquillian.guice.impl.inject;
 
 import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
+import java.security.PrivilegedActionException;
+import java.security.PrivilegedExceptionAction;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -69,4 +72,94 @@ final class SecurityActions {
             }
         });
     }
+
+    /**
+     * Loads the class with the given name using the class loader bound to the current thread.
+     *
+     * @param name the fully qualified class name
+     *
+     * @return the loaded class
+     *
+     * @throws ClassNotFoundException if the class could not be found
+     */
+    static Class<?> loadClass(String name) throws ClassNotFoundException {
+
+        return Class.forName(name, false, getThreadContextClassLoader());
+    }
+
+    /**
+     * Retrieves the class loader bound to the current thread.
+     *
+     * @return the class loader bound to the current thread
+     */
+    static ClassLoader getThreadContextClassLoader() {
+
+        return AccessController.doPrivileged(new PrivilegedAction<ClassLoader>() {
+
+            public ClassLoader run() {
+                return Thread.currentThread().getContextClassLoader();
+            }
+        });
+    }
+
+    /**
+     * Retrieves the static method with the given name and without parameters declared by the given class.
+     *
+     * @param source the class that declares the method
+     * @param name   the method name
+     *
+     * @return the accessible method
+     *
+     * @throws NoSuchMethodException if the class does not declare such static method
+     */
+    static Method getDeclaredStaticMethod(final Class<?> source, final String name) throws NoSuchMethodException {
+
+        try {
+            return AccessController.doPrivileged(new PrivilegedExceptionAction<Method>() {
+                public Method run() throws NoSuchMethodException {
+
+                    Method method = source.getDeclaredMethod(name);
+
+                    if (!Modifier.isStatic(method.getModifiers())) {
+                        throw new NoSuchMethodException("The method is not static: " + name);
+                    }
+                    if (!method.isAccessible()) {
+                        method.setAccessible(true);
+                    }
+                    return method;
+                }
+            });
+        } catch (PrivilegedActionException e) {
+            throw (NoSuchMethodException) e.getException();
+        }
+    }
+
+    /**
+     * Retrieves the field with the given name declared by the given class.
+     *
+     * @param source the class that declares the field
+     * @param name   the field name
+     *
+     * @return the accessible field
+     *
+     * @throws NoSuchFieldException if the class does not declare such field
+     */
+    static Field getDeclaredField(final Class<?> source, final String name) throws NoSuchFieldException {
+
+        try {
+            return AccessController.doPrivileged(new PrivilegedExceptionAction<Field>() {
+                public Field run() throws NoSuchFieldException {
+
+                    Field field = source.getDeclaredField(name);
+
+                    if (!field.isAccessible()) {
+                        field.setAccessible(true);
+                    }
+                    return field;
+                }
+            });
+        } catch (PrivilegedActionException e) {
+            throw (NoSuchFieldException) e.getException();
+        }
+    }
 }
@@ -0,0 +1,230 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.arquillian.guice.impl.inject;
+
+import com.google.inject.Binding;
+import com.google.inject.Injector;
+import com.google.inject.TypeLiteral;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Detects the bindings whose provision takes longer than the configured threshold. The time of the provision excludes
+ * the time spent provisioning its dependencies, so that only the binding responsible for the delay is being reported.
+ * <p />
+ * Every slow provision is being logged together with the source of its binding. When the failure has been enabled,
+ * the detected provisions are being retained for the injector that provisioned them until {@link #verify(Injector)}
+ * is invoked for it, or for any of its child injectors, which fails with their description.
+ * <p />
+ * The provisions can only be timed when the Guice version in use supports the provision listeners, so the detection
+ * can not be enabled with the older Guice versions.
+ */
+public final class SlowProvisionDetector implements InjectorInstrumentation {
+
+    /**
+     * The logger used by this class.
+     */
+    private static final Logger log = Logger.getLogger(SlowProvisionDetector.class.getName());
+
+    /**
+     * Represents the threshold in milliseconds.
+     */
+    private final long thresholdMs;
+
+    /**
+     * Represents whether to fail on the detected slow provisions.
+     */
+    private final boolean failOnSlowProvision;
+
+    /**
+     * Represents the observers of the provisions within the created injectors.
+     */
+    private final Map<Injector, SlowProvisionObserver> observers = new WeakHashMap<Injector, SlowProvisionObserver>();
+
+    /**
+     * Creates new instance of {@link SlowProvisionDetector} class.
+     *
+     * @param thresholdMs         the threshold in milliseconds
+     * @param failOnSlowProvision whether to fail on the detected slow provisions
+     */
+    SlowProvisionDetector(long thresholdMs, boolean failOnSlowProvision) {
+        this.thresholdMs = thresholdMs;
+        this.failOnSlowProvision = failOnSlowProvision;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public ProvisionObserver getObserver(InjectorKey injectorKey) {
+
+        return new SlowProvisionObserver();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public synchronized void injectorCreated(InjectorKey injectorKey, ProvisionObserver observer, Injector injector) {
+
+        observers.put(injector, (SlowProvisionObserver) observer);
+    }
+
+    /**
+     * Retrieves the slow provisions detected within the given injector since the last verification.
+     *
+     * @param injector the injector
+     *
+     * @return the descriptions of the slow provisions
+     */
+    synchronized List<String> getSlowProvisions(Injector injector) {
+
+        SlowProvisionObserver observer = observers.get(injector);
+
+        return observer != null ? new ArrayList<String>(observer.slowProvisions) : new ArrayList<String>();
+    }
+
+    /**
+     * Verifies that no slow provision has been detected within the given injector and its parents since the last
+     * verification, if the failure has been enabled. The provisions detected within the injectors used by the other
+     * test classes are not being reported.
+     *
+     * @param injector the injector used by the test class, may be null
+     *
+     * @throws RuntimeException if any slow provision has been detected
+     */
+    public void verify(Injector injector) {
+
+        List<String> detected = new ArrayList<String>();
+
+        synchronized (this) {
+
+            for (Injector current = injector; current != null; current = current.getParent()) {
+
+                SlowProvisionObserver observer = observers.get(current);
+
+                if (observer != null) {
+
+                    detected.addAll(observer.slowProvisions);
+                    observer.slowProvisions.clear();
+                }
+            }
+        }
+
+        if (detected.isEmpty()) {
+            return;
+        }
+
+        StringBuilder message = new StringBuilder("Detected slow guice provisions:");
+
+        for (String slowProvision : detected) {
+
+            message.append("\n  ").append(slowProvision);
+        }
+
+        throw new RuntimeException(message.toString());
+    }
+
+    /**
+     * Reports the slow provision of the given binding.
+     *
+     * @param observer the observer of the injector that provisioned the binding
+     * @param binding  the provisioned binding
+     * @param duration the provision time in nanoseconds, excluding its dependencies
+     */
+    private void slowProvision(SlowProvisionObserver observer, Binding<?> binding, long duration) {
+
+        String slowProvision = binding.getKey() + " took " + TimeUnit.NANOSECONDS.toMillis(duration)
+                + " ms, exceeding the threshold of " + thresholdMs + " ms, bound at " + binding.getSource();
+
+        log.warning("Slow guice provision: " + slowProvision);
+
+        if (failOnSlowProvision) {
+
+            synchronized (this) {
+
+                observer.slowProvisions.add(slowProvision);
+            }
+        }
+    }
+
+    /**
+     * The observer measuring the provisions within the single injector, excluding the time of their nested
+     * provisions.
+     */
+    private class SlowProvisionObserver implements ProvisionObserver {
+
+        /**
+         * Represents the slow provisions detected since the last verification, guarded by the detector.
+         */
+        private final List<String> slowProvisions = new ArrayList<String>();
+
+        /**
+         * Represents the time spent in the nested provisions of each currently provisioned binding of each thread.
+         */
+        private final ThreadLocal<LinkedList<long[]>> nestedTimes = new ThreadLocal<LinkedList<long[]>>() {
+            @Override
+            protected LinkedList<long[]> initialValue() {
+                return new LinkedList<long[]>();
+            }
+        };
+
+        /**
+         * {@inheritDoc}
+         */
+        public void beforeProvision(Binding<?> binding) {
+
+            nestedTimes.get().addLast(new long[1]);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void afterProvision(Binding<?> binding, long duration) {
+
+            LinkedList<long[]> current = nestedTimes.get();
+
+            if (current.isEmpty()) {
+                return;
+            }
+
+            long selfTime = duration - current.removeLast()[0];
+
+            if (!current.isEmpty()) {
+
+                current.getLast()[0] += duration;
+            }
+
+            if (TimeUnit.NANOSECONDS.toMillis(selfTime) > thresholdMs) {
+
+                slowProvision(this, binding, selfTime);
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void afterInjection(TypeLiteral<?> type) {
+
+            // the injection is not being timed
+        }
+    }
+}
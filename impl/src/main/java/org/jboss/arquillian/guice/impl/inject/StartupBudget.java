@@ -0,0 +1,131 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.arquillian.guice.impl.inject;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The startup budget of the single test class, declared through
+ * {@link org.jboss.arquillian.guice.api.annotation.GuiceConfiguration#startupBudget()}. The startup consists of the
+ * creation of the injector and of the enrichment of each test instance, the creation being verified by the
+ * {@link InjectorProducer} and the enrichment by the enricher.
+ */
+public final class StartupBudget {
+
+    /**
+     * Represents the test class name.
+     */
+    private final String testClassName;
+
+    /**
+     * Represents the names of the modules of the test class.
+     */
+    private final String moduleNames;
+
+    /**
+     * Represents the budget in milliseconds.
+     */
+    private final long budget;
+
+    /**
+     * Represents the time of the injector creation in nanoseconds.
+     */
+    private final long creationTime;
+
+    /**
+     * Creates new instance of {@link StartupBudget} class.
+     *
+     * @param testClassName the test class name
+     * @param moduleNames   the names of the modules of the test class
+     * @param budget        the budget in milliseconds
+     * @param creationTime  the time of the injector creation in nanoseconds
+     */
+    StartupBudget(String testClassName, String moduleNames, long budget, long creationTime) {
+        this.testClassName = testClassName;
+        this.moduleNames = moduleNames;
+        this.budget = budget;
+        this.creationTime = creationTime;
+    }
+
+    /**
+     * Verifies that the injector creation has not exceeded the budget.
+     *
+     * @throws RuntimeException if the budget has been exceeded
+     */
+    void verifyCreation() {
+
+        if (TimeUnit.NANOSECONDS.toMillis(creationTime) > budget) {
+
+            throw new RuntimeException(getBreakdown(null));
+        }
+    }
+
+    /**
+     * Verifies that the injector creation together with the enrichment of the test instance has not exceeded the
+     * budget.
+     *
+     * @param enrichmentTime the time of the enrichment in nanoseconds
+     *
+     * @throws RuntimeException if the budget has been exceeded
+     */
+    public void verifyEnrichment(long enrichmentTime) {
+
+        if (TimeUnit.NANOSECONDS.toMillis(creationTime + enrichmentTime) > budget) {
+
+            throw new RuntimeException(getBreakdown(enrichmentTime));
+        }
+    }
+
+    /**
+     * Creates the description of the exceeded budget.
+     *
+     * @param enrichmentTime the time of the enrichment in nanoseconds or null if the enrichment has not been measured
+     *
+     * @return the breakdown of the startup time
+     */
+    private String getBreakdown(Long enrichmentTime) {
+
+        long total = creationTime + (enrichmentTime != null ? enrichmentTime : 0);
+
+        StringBuilder breakdown = new StringBuilder();
+        breakdown.append("The guice startup of test class ").append(testClassName)
+                .append(" exceeded its budget of ").append(budget).append(" ms:");
+        breakdown.append("\n  injector creation: ").append(toMillis(creationTime)).append(" ms")
+                .append(" (modules: ").append(moduleNames).append(')');
+
+        if (enrichmentTime != null) {
+
+            breakdown.append("\n  enrichment: ").append(toMillis(enrichmentTime)).append(" ms");
+        }
+
+        breakdown.append("\n  total: ").append(toMillis(total)).append(" ms");
+
+        return breakdown.toString();
+    }
+
+    /**
+     * Converts the given time to milliseconds.
+     *
+     * @param time the time in nanoseconds
+     *
+     * @return the time in milliseconds
+     */
+    private static long toMillis(long time) {
+
+        return TimeUnit.NANOSECONDS.toMillis(time);
+    }
+}
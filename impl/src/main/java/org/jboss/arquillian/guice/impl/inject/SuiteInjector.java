@@ -0,0 +1,49 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.arquillian.guice.impl.inject;
+
+import com.google.inject.Injector;
+
+/**
+ * Holds the {@link Injector} created from the suite level parent modules. The injector is being used as the parent of
+ * every injector created for the test classes.
+ */
+class SuiteInjector {
+
+    /**
+     * Represents the parent injector.
+     */
+    private final Injector injector;
+
+    /**
+     * Creates new instance of {@link SuiteInjector} class.
+     *
+     * @param injector the parent injector
+     */
+    SuiteInjector(Injector injector) {
+        this.injector = injector;
+    }
+
+    /**
+     * Retrieves the parent injector.
+     *
+     * @return the parent injector
+     */
+    Injector getInjector() {
+        return injector;
+    }
+}
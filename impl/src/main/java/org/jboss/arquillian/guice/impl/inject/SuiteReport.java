@@ -0,0 +1,45 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.arquillian.guice.impl.inject;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * A report about the injectors created during the test suite, written once the suite has been executed.
+ */
+interface SuiteReport {
+
+    /**
+     * Registers the test class that uses the injector created for the given key.
+     *
+     * @param injectorKey the injector key
+     * @param testClass   the test class
+     */
+    void addTestClass(InjectorKey injectorKey, Class<?> testClass);
+
+    /**
+     * Writes the report into the given directory.
+     *
+     * @param directory the report directory
+     *
+     * @return the report file
+     *
+     * @throws IOException if any error occurs when writing the report
+     */
+    File writeReport(File directory) throws IOException;
+}
@@ -0,0 +1,187 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.arquillian.guice.impl.inject;
+
+import org.jboss.arquillian.guice.api.annotation.GuiceConfiguration;
+import org.jboss.arquillian.guice.api.annotation.GuiceInjector;
+import org.jboss.arquillian.guice.api.annotation.GuiceWebConfiguration;
+import org.jboss.arquillian.guice.impl.index.TestClassIndex;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Describes the Guice configuration of a single test class. The descriptor is being computed once per class, so that
+ * the class hierarchy is not scanned again for each lookup. When the test class has been indexed at compile time, the
+ * custom injector methods are being resolved directly from the {@link TestClassIndex}.
+ */
+class TestClassMetadata {
+
+    /**
+     * Represents the guice configuration of the test class, may be null.
+     */
+    private final GuiceConfiguration configuration;
+
+    /**
+     * Represents whether the test class uses the injector created within the servlet context.
+     */
+    private final boolean webConfiguration;
+
+    /**
+     * Represents the static methods that create the custom injector.
+     */
+    private final List<Method> customInjectorMethods;
+
+    /**
+     * Creates new instance of {@link TestClassMetadata} class.
+     *
+     * @param configuration         the guice configuration
+     * @param webConfiguration      whether the test class uses the servlet context injector
+     * @param customInjectorMethods the custom injector methods
+     */
+    private TestClassMetadata(GuiceConfiguration configuration, boolean webConfiguration,
+                              List<Method> customInjectorMethods) {
+        this.configuration = configuration;
+        this.webConfiguration = webConfiguration;
+        this.customInjectorMethods = Collections.unmodifiableList(customInjectorMethods);
+    }
+
+    /**
+     * Creates the metadata of the given test class.
+     *
+     * @param testClass the test class
+     * @param entry     the test class index entry or null if the test class has not been indexed
+     *
+     * @return the test class metadata
+     */
+    static TestClassMetadata create(Class<?> testClass, TestClassIndex.Entry entry) {
+
+        List<Method> customInjectorMethods = entry != null ? getIndexedMethods(testClass, entry) : null;
+
+        if (customInjectorMethods == null) {
+
+            // scans the class hierarchy when the test class is missing from the index or the index is outdated
+            customInjectorMethods = SecurityActions.getStaticMethodsWithAnnotation(testClass, GuiceInjector.class);
+        }
+
+        return new TestClassMetadata(testClass.getAnnotation(GuiceConfiguration.class),
+                testClass.isAnnotationPresent(GuiceWebConfiguration.class), customInjectorMethods);
+    }
+
+    /**
+     * Resolves the custom injector methods listed in the index entry.
+     *
+     * @param testClass the test class
+     * @param entry     the test class index entry
+     *
+     * @return the custom injector methods or null if any of the indexed methods could not be resolved
+     */
+    private static List<Method> getIndexedMethods(Class<?> testClass, TestClassIndex.Entry entry) {
+
+        List<Method> methods = new ArrayList<Method>();
+
+        try {
+
+            for (String customInjector : entry.getCustomInjectors()) {
+
+                int index = customInjector.indexOf(TestClassIndex.MEMBER_SEPARATOR);
+                Class<?> declaringClass = getDeclaringClass(testClass, customInjector.substring(0, index));
+
+                if (declaringClass == null) {
+                    return null;
+                }
+
+                methods.add(SecurityActions.getDeclaredStaticMethod(declaringClass,
+                        customInjector.substring(index + 1)));
+            }
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+
+        return methods;
+    }
+
+    /**
+     * Finds the class with the given name within the test class hierarchy.
+     *
+     * @param testClass the test class
+     * @param name      the name of the declaring class
+     *
+     * @return the declaring class or null if it is not part of the test class hierarchy
+     */
+    private static Class<?> getDeclaringClass(Class<?> testClass, String name) {
+
+        Class<?> current = testClass;
+
+        while (current != null) {
+
+            if (current.getName().equals(name)) {
+                return current;
+            }
+            current = current.getSuperclass();
+        }
+
+        return null;
+    }
+
+    /**
+     * Retrieves the guice configuration.
+     *
+     * @return the guice configuration or null if the test class is not annotated with {@link GuiceConfiguration}
+     */
+    GuiceConfiguration getConfiguration() {
+        return configuration;
+    }
+
+    /**
+     * Returns whether the test class uses the injector created within the servlet context.
+     *
+     * @return true if the test class is annotated with {@link GuiceWebConfiguration}, false otherwise
+     */
+    boolean isWebConfiguration() {
+        return webConfiguration;
+    }
+
+    /**
+     * Retrieves the static methods that create the custom injector.
+     *
+     * @return the custom injector methods
+     */
+    List<Method> getCustomInjectorMethods() {
+        return customInjectorMethods;
+    }
+
+    /**
+     * Returns whether the test class defines custom injector.
+     *
+     * @return true if the test class defines custom injector, false otherwise
+     */
+    boolean hasCustomInjector() {
+        return !customInjectorMethods.isEmpty();
+    }
+
+    /**
+     * Returns whether the test class defines guice configuration.
+     *
+     * @return true if test class defines guice configuration, false otherwise
+     */
+    boolean isGuiceTest() {
+        return configuration != null || webConfiguration || hasCustomInjector();
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.arquillian.guice.impl.inject;
+
+import org.jboss.arquillian.guice.impl.index.TestClassIndex;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Caches the {@link TestClassMetadata} of each test class.
+ */
+public class TestClassMetadataCache {
+
+    /**
+     * Each key value pair stores the test class and its metadata.
+     */
+    private final ConcurrentMap<Class<?>, TestClassMetadata> metadata =
+            new ConcurrentHashMap<Class<?>, TestClassMetadata>();
+
+    /**
+     * Represents the test class index.
+     */
+    private final TestClassIndex testClassIndex;
+
+    /**
+     * Creates new instance of {@link TestClassMetadataCache} class.
+     *
+     * @param testClassIndex the test class index
+     */
+    TestClassMetadataCache(TestClassIndex testClassIndex) {
+        this.testClassIndex = testClassIndex;
+    }
+
+    /**
+     * Retrieves the metadata of the given test class, computing it if necessary.
+     *
+     * @param testClass the test class
+     *
+     * @return the test class metadata
+     */
+    TestClassMetadata get(Class<?> testClass) {
+
+        TestClassMetadata result = metadata.get(testClass);
+
+        if (result == null) {
+
+            result = TestClassMetadata.create(testClass, testClassIndex.getEntry(testClass.getName()));
+
+            TestClassMetadata existing = metadata.putIfAbsent(testClass, result);
+            if (existing != null) {
+                result = existing;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns whether the given test class defines any guice configuration.
+     *
+     * @param testClass the test class
+     *
+     * @return true if the test class defines guice configuration, false otherwise
+     */
+    public boolean isGuiceTest(Class<?> testClass) {
+
+        return get(testClass).isGuiceTest();
+    }
+
+    /**
+     * Removes all the cached metadata.
+     */
+    void clear() {
+
+        metadata.clear();
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.arquillian.guice.impl.monitor;
+
+/**
+ * A Java Flight Recorder event emitted by the extension. The event records its duration between the
+ * {@link #begin(Type)} and {@link #commit(Object...)} invocations.
+ * <p />
+ * The Flight Recorder API is not available in the Java versions supported by the extension, so the events are being
+ * defined through the Flight Recorder event factory at runtime, whenever the JVM provides it. When no recording is
+ * active, or the JVM does not support the Flight Recorder, the disabled event is returned, which records nothing.
+ */
+public final class FlightRecorderEvent {
+
+    /**
+     * Represents the creation of the injector for a test class.
+     */
+    public static final Type INJECTOR_CREATION = new Type("org.jboss.arquillian.guice.InjectorCreation",
+            "Guice Injector Creation", new String[]{"testClass", "modules", "bindings"},
+            new Class<?>[]{String.class, String.class, int.class});
+
+    /**
+     * Represents the injection of the test class instance.
+     */
+    public static final Type ENRICHMENT = new Type("org.jboss.arquillian.guice.Enrichment",
+            "Guice Test Enrichment", new String[]{"testClass", "bindings"},
+            new Class<?>[]{String.class, int.class});
+
+    /**
+     * Represents the processing of the protocol archive.
+     */
+    public static final Type ARCHIVE_PROCESSING = new Type("org.jboss.arquillian.guice.ArchiveProcessing",
+            "Guice Archive Processing", new String[]{"deployment", "archive", "libraries"},
+            new Class<?>[]{String.class, String.class, int.class});
+
+    /**
+     * Represents the event that records nothing.
+     */
+    private static final FlightRecorderEvent DISABLED = new FlightRecorderEvent(null);
+
+    /**
+     * Represents the underlying Flight Recorder event, null if the event is disabled.
+     */
+    private final Object event;
+
+    /**
+     * Creates new instance of {@link FlightRecorderEvent} class.
+     *
+     * @param event the underlying Flight Recorder event
+     */
+    private FlightRecorderEvent(Object event) {
+        this.event = event;
+    }
+
+    /**
+     * Begins the event of the given type.
+     *
+     * @param type the event type
+     *
+     * @return the event, which records nothing if no recording is active
+     */
+    public static FlightRecorderEvent begin(Type type) {
+
+        Object event = FlightRecorderSupport.begin(type);
+
+        return event != null ? new FlightRecorderEvent(event) : DISABLED;
+    }
+
+    /**
+     * Returns whether the event is being recorded. The event values should be computed only if this method returns
+     * true.
+     *
+     * @return true if the event is being recorded, false otherwise
+     */
+    public boolean isRecording() {
+
+        return event != null;
+    }
+
+    /**
+     * Ends the event and commits it with the given values, in the order of the fields declared by the event type.
+     *
+     * @param values the field values
+     */
+    public void commit(Object... values) {
+
+        if (event != null) {
+
+            FlightRecorderSupport.commit(event, values);
+        }
+    }
+
+    /**
+     * The type of the Flight Recorder event.
+     */
+    public static final class Type {
+
+        /**
+         * Represents the event name.
+         */
+        private final String name;
+
+        /**
+         * Represents the event label.
+         */
+        private final String label;
+
+        /**
+         * Represents the names of the event fields.
+         */
+        private final String[] fieldNames;
+
+        /**
+         * Represents the types of the event fields.
+         */
+        private final Class<?>[] fieldTypes;
+
+        /**
+         * Represents the Flight Recorder event factory, created on the first use.
+         */
+        private volatile Object eventFactory;
+
+        /**
+         * Creates new instance of {@link Type} class.
+         *
+         * @param name       the event name
+         * @param label      the event label
+         * @param fieldNames the names of the event fields
+         * @param fieldTypes the types of the event fields
+         */
+        private Type(String name, String label, String[] fieldNames, Class<?>[] fieldTypes) {
+            this.name = name;
+            this.label = label;
+            this.fieldNames = fieldNames;
+            this.fieldTypes = fieldTypes;
+        }
+
+        /**
+         * Retrieves the event name.
+         *
+         * @return the event name
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Retrieves the event label.
+         *
+         * @return the event label
+         */
+        String getLabel() {
+            return label;
+        }
+
+        /**
+         * Retrieves the names of the event fields.
+         *
+         * @return the field names
+         */
+        String[] getFieldNames() {
+            return fieldNames;
+        }
+
+        /**
+         * Retrieves the types of the event fields.
+         *
+         * @return the field types
+         */
+        Class<?>[] getFieldTypes() {
+            return fieldTypes;
+        }
+
+        /**
+         * Retrieves the Flight Recorder event factory.
+         *
+         * @return the event factory or null if it has not been created yet
+         */
+        Object getEventFactory() {
+            return eventFactory;
+        }
+
+        /**
+         * Sets the Flight Recorder event factory.
+         *
+         * @param eventFactory the event factory
+         */
+        void setEventFactory(Object eventFactory) {
+            this.eventFactory = eventFactory;
+        }
+    }
+}
@@ -0,0 +1,291 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.arquillian.guice.impl.monitor;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Accesses the Java Flight Recorder API reflectively. The support is being disabled whenever the API is not
+ * available or any of its invocations fails, so that the events never affect the test execution.
+ */
+final class FlightRecorderSupport {
+
+    /**
+     * The logger used by this class.
+     */
+    private static final Logger log = Logger.getLogger(FlightRecorderSupport.class.getName());
+
+    /**
+     * Represents the category of the events.
+     */
+    private static final String[] CATEGORY = {"Arquillian", "Guice"};
+
+    /**
+     * Represents the method returning whether the Flight Recorder has been initialized.
+     */
+    private static Method isInitialized;
+
+    /**
+     * Represents the method creating the event factory.
+     */
+    private static Method createEventFactory;
+
+    /**
+     * Represents the method creating the new event.
+     */
+    private static Method newEvent;
+
+    /**
+     * Represents the constructor of the annotation element.
+     */
+    private static Constructor<?> annotationElement;
+
+    /**
+     * Represents the constructor of the value descriptor.
+     */
+    private static Constructor<?> valueDescriptor;
+
+    /**
+     * Represents the event name annotation.
+     */
+    private static Class<?> nameAnnotation;
+
+    /**
+     * Represents the event label annotation.
+     */
+    private static Class<?> labelAnnotation;
+
+    /**
+     * Represents the event category annotation.
+     */
+    private static Class<?> categoryAnnotation;
+
+    /**
+     * Represents the method returning whether the event is enabled.
+     */
+    private static Method isEnabled;
+
+    /**
+     * Represents the method beginning the event.
+     */
+    private static Method begin;
+
+    /**
+     * Represents the method ending the event.
+     */
+    private static Method end;
+
+    /**
+     * Represents the method returning whether the event should be committed.
+     */
+    private static Method shouldCommit;
+
+    /**
+     * Represents the method committing the event.
+     */
+    private static Method commit;
+
+    /**
+     * Represents the method setting the event field value.
+     */
+    private static Method set;
+
+    /**
+     * Represents whether the Flight Recorder is supported.
+     */
+    private static volatile boolean supported;
+
+    static {
+
+        try {
+
+            Class<?> flightRecorder = Class.forName("jdk.jfr.FlightRecorder");
+            Class<?> eventFactory = Class.forName("jdk.jfr.EventFactory");
+            Class<?> event = Class.forName("jdk.jfr.Event");
+
+            isInitialized = flightRecorder.getMethod("isInitialized");
+            createEventFactory = eventFactory.getMethod("create", List.class, List.class);
+            newEvent = eventFactory.getMethod("newEvent");
+            annotationElement = Class.forName("jdk.jfr.AnnotationElement").getConstructor(Class.class, Object.class);
+            valueDescriptor = Class.forName("jdk.jfr.ValueDescriptor").getConstructor(Class.class, String.class);
+            nameAnnotation = Class.forName("jdk.jfr.Name");
+            labelAnnotation = Class.forName("jdk.jfr.Label");
+            categoryAnnotation = Class.forName("jdk.jfr.Category");
+            isEnabled = event.getMethod("isEnabled");
+            begin = event.getMethod("begin");
+            end = event.getMethod("end");
+            shouldCommit = event.getMethod("shouldCommit");
+            commit = event.getMethod("commit");
+            set = event.getMethod("set", int.class, Object.class);
+            supported = true;
+        } catch (ClassNotFoundException e) {
+            // the Flight Recorder is not available
+        } catch (NoSuchMethodException e) {
+            // the Flight Recorder does not provide the event factory
+        }
+    }
+
+    /**
+     * Creates new instance of {@link FlightRecorderSupport}.
+     *
+     * Private constructor prevents from instantiation outside this class.
+     */
+    private FlightRecorderSupport() {
+        // empty constructor
+    }
+
+    /**
+     * Returns whether the Flight Recorder is supported by the JVM.
+     *
+     * @return true if the Flight Recorder is supported, false otherwise
+     */
+    static boolean isSupported() {
+
+        return supported;
+    }
+
+    /**
+     * Begins the event of the given type.
+     *
+     * @param type the event type
+     *
+     * @return the begun Flight Recorder event or null if the event is not being recorded
+     */
+    static Object begin(FlightRecorderEvent.Type type) {
+
+        if (!supported) {
+            return null;
+        }
+
+        try {
+
+            if (!(Boolean) isInitialized.invoke(null)) {
+                return null;
+            }
+
+            Object event = newEvent.invoke(getEventFactory(type));
+
+            if (!(Boolean) isEnabled.invoke(event)) {
+                return null;
+            }
+
+            begin.invoke(event);
+            return event;
+        } catch (Exception e) {
+
+            disable(e);
+            return null;
+        }
+    }
+
+    /**
+     * Ends the given event and commits it with the given values.
+     *
+     * @param event  the Flight Recorder event
+     * @param values the field values
+     */
+    static void commit(Object event, Object[] values) {
+
+        try {
+
+            end.invoke(event);
+
+            if ((Boolean) shouldCommit.invoke(event)) {
+
+                for (int i = 0; i < values.length; i++) {
+                    set.invoke(event, i, values[i]);
+                }
+                commit.invoke(event);
+            }
+        } catch (Exception e) {
+
+            disable(e);
+        }
+    }
+
+    /**
+     * Retrieves the event factory of the given type, creating it on the first use.
+     *
+     * @param type the event type
+     *
+     * @return the event factory
+     *
+     * @throws Exception if the event factory could not be created
+     */
+    private static Object getEventFactory(FlightRecorderEvent.Type type) throws Exception {
+
+        Object eventFactory = type.getEventFactory();
+
+        if (eventFactory == null) {
+
+            synchronized (type) {
+
+                eventFactory = type.getEventFactory();
+
+                if (eventFactory == null) {
+
+                    eventFactory = createEventFactory(type);
+                    type.setEventFactory(eventFactory);
+                }
+            }
+        }
+
+        return eventFactory;
+    }
+
+    /**
+     * Creates the event factory of the given type.
+     *
+     * @param type the event type
+     *
+     * @return the event factory
+     *
+     * @throws Exception if the event factory could not be created
+     */
+    private static Object createEventFactory(FlightRecorderEvent.Type type) throws Exception {
+
+        List<Object> annotations = new ArrayList<Object>();
+        annotations.add(annotationElement.newInstance(nameAnnotation, type.getName()));
+        annotations.add(annotationElement.newInstance(labelAnnotation, type.getLabel()));
+        annotations.add(annotationElement.newInstance(categoryAnnotation, CATEGORY));
+
+        List<Object> fields = new ArrayList<Object>();
+        for (int i = 0; i < type.getFieldNames().length; i++) {
+            fields.add(valueDescriptor.newInstance(type.getFieldTypes()[i], type.getFieldNames()[i]));
+        }
+
+        return createEventFactory.invoke(null, Collections.unmodifiableList(annotations),
+                Collections.unmodifiableList(fields));
+    }
+
+    /**
+     * Disables the Flight Recorder support after the failed invocation.
+     *
+     * @param e the failure
+     */
+    private static void disable(Exception e) {
+
+        supported = false;
+        log.log(Level.FINE, "Disabling the Flight Recorder events.", e);
+    }
+}
@@ -0,0 +1,510 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.arquillian.guice.impl.processor;
+
+import org.jboss.arquillian.guice.impl.index.TestClassIndex;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * An annotation processor that writes the {@link TestClassIndex} describing every test class that uses the Guice
+ * extension along with its custom injector methods.
+ * <p />
+ * When the {@value #GENERATED_MEMBERS_INJECTORS_OPTION} processor option is set to true, the processor also generates
+ * the members injector of every test class whose injection points are fields that can be assigned from the test class
+ * package. The generated members injectors are only used once the matching extension property has been enabled.
+ */
+@SupportedAnnotationTypes({
+        GuiceTestClassIndexProcessor.GUICE_CONFIGURATION,
+        GuiceTestClassIndexProcessor.GUICE_WEB_CONFIGURATION,
+        GuiceTestClassIndexProcessor.GUICE_INJECTOR})
+@SupportedOptions(GuiceTestClassIndexProcessor.GENERATED_MEMBERS_INJECTORS_OPTION)
+public class GuiceTestClassIndexProcessor extends AbstractProcessor {
+
+    /**
+     * Represents the name of the processor option for generating the members injectors of the test classes.
+     */
+    public static final String GENERATED_MEMBERS_INJECTORS_OPTION = "arquillian.guice.generatedMembersInjectors";
+
+    /**
+     * Represents the fully qualified name of the guice configuration annotation.
+     */
+    static final String GUICE_CONFIGURATION = "org.jboss.arquillian.guice.api.annotation.GuiceConfiguration";
+
+    /**
+     * Represents the fully qualified name of the guice web configuration annotation.
+     */
+    static final String GUICE_WEB_CONFIGURATION = "org.jboss.arquillian.guice.api.annotation.GuiceWebConfiguration";
+
+    /**
+     * Represents the fully qualified name of the custom injector annotation.
+     */
+    static final String GUICE_INJECTOR = "org.jboss.arquillian.guice.api.annotation.GuiceInjector";
+
+    /**
+     * Represents the fully qualified name of the lazy injection annotation.
+     */
+    private static final String LAZY_INJECT = "org.jboss.arquillian.guice.api.annotation.LazyInject";
+
+    /**
+     * Represents the fully qualified name of the Guice inject annotation.
+     */
+    private static final String GUICE_INJECT = "com.google.inject.Inject";
+
+    /**
+     * Represents the fully qualified names of the annotations that mark the injection points.
+     */
+    private static final String[] INJECT_ANNOTATIONS = {GUICE_INJECT, "javax.inject.Inject", LAZY_INJECT};
+
+    /**
+     * Represents the names of the test classes whose members injectors have been already generated.
+     */
+    private final Set<String> generatedMembersInjectors = new HashSet<String>();
+
+    /**
+     * Represents the collected index properties.
+     */
+    private final Map<String, String> index = new TreeMap<String, String>();
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+
+        if (roundEnv.processingOver()) {
+
+            if (!index.isEmpty()) {
+                writeIndex();
+            }
+            return false;
+        }
+
+        for (TypeElement annotation : annotations) {
+
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+
+                if (element.getKind() == ElementKind.CLASS) {
+
+                    indexTestClass((TypeElement) element);
+                } else if (element.getKind() == ElementKind.METHOD
+                        && element.getEnclosingElement().getKind() == ElementKind.CLASS) {
+
+                    indexTestClass((TypeElement) element.getEnclosingElement());
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Adds the given test class into the index.
+     *
+     * @param testClass the test class
+     */
+    private void indexTestClass(TypeElement testClass) {
+
+        index.put(getBinaryName(testClass) + "." + TestClassIndex.CUSTOM_INJECTORS,
+                join(getCustomInjectors(testClass)));
+
+        generateMembersInjector(testClass);
+    }
+
+    /**
+     * Generates the members injector of the given test class, unless the generation has not been enabled through the
+     * processor option or any of the injection points can not be assigned with plain field write from the test class
+     * package.
+     *
+     * @param testClass the test class
+     */
+    private void generateMembersInjector(TypeElement testClass) {
+
+        if (!Boolean.parseBoolean(processingEnv.getOptions().get(GENERATED_MEMBERS_INJECTORS_OPTION))) {
+            return;
+        }
+
+        List<VariableElement> fields = getInjectedFields(testClass);
+
+        if (fields != null && !fields.isEmpty() && generatedMembersInjectors.add(getBinaryName(testClass))) {
+
+            try {
+
+                new MembersInjectorWriter(processingEnv).write(testClass, fields);
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                        "Could not generate the guice members injector: " + e.getMessage(), testClass);
+            }
+        }
+    }
+
+    /**
+     * Retrieves the injected fields of the test class, starting with the fields declared by the super classes, in which
+     * order the Guice injects them. The lazily injected fields are omitted.
+     *
+     * @param testClass the test class
+     *
+     * @return the injected fields or null if the test class can not have generated members injector
+     */
+    private List<VariableElement> getInjectedFields(TypeElement testClass) {
+
+        if (!isAccessible(testClass) || !testClass.getTypeParameters().isEmpty()) {
+            return null;
+        }
+
+        PackageElement testPackage = processingEnv.getElementUtils().getPackageOf(testClass);
+        List<VariableElement> fields = new ArrayList<VariableElement>();
+        TypeElement current = testClass;
+
+        while (current != null && !Object.class.getName().equals(current.getQualifiedName().toString())) {
+
+            List<VariableElement> declaredFields = new ArrayList<VariableElement>();
+
+            for (Element member : current.getEnclosedElements()) {
+
+                if (member.getModifiers().contains(Modifier.STATIC) || !isInjectionPoint(member)
+                        || member.getKind() == ElementKind.CONSTRUCTOR) {
+                    continue;
+                }
+
+                if (hasAnnotation(member, LAZY_INJECT)) {
+                    continue;
+                }
+
+                if (member.getKind() != ElementKind.FIELD || !isAssignable(member, testPackage)) {
+                    return null;
+                }
+
+                declaredFields.add((VariableElement) member);
+            }
+
+            fields.addAll(0, declaredFields);
+            current = getSuperclass(current);
+        }
+
+        return fields;
+    }
+
+    /**
+     * Returns whether the class and all its enclosing classes are accessible from its package.
+     *
+     * @param type the class
+     *
+     * @return true if the class is accessible, false otherwise
+     */
+    private boolean isAccessible(TypeElement type) {
+
+        Element current = type;
+
+        while (current != null && current.getKind() != ElementKind.PACKAGE) {
+
+            if (current.getModifiers().contains(Modifier.PRIVATE)) {
+                return false;
+            }
+            current = current.getEnclosingElement();
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns whether the injected field can be assigned with plain field write from the given package.
+     *
+     * @param field       the injected field
+     * @param testPackage the test class package
+     *
+     * @return true if the field can be assigned, false otherwise
+     */
+    private boolean isAssignable(Element field, PackageElement testPackage) {
+
+        TypeElement declaringClass = (TypeElement) field.getEnclosingElement();
+
+        return !field.getModifiers().contains(Modifier.PRIVATE)
+                && !field.getModifiers().contains(Modifier.FINAL)
+                && !isOptional(field)
+                && !containsTypeVariable(field.asType())
+                && isAccessible(declaringClass)
+                && processingEnv.getElementUtils().getPackageOf(declaringClass).equals(testPackage);
+    }
+
+    /**
+     * Returns whether the field is an optional Guice injection point, which is skipped when the dependency is not
+     * bound.
+     *
+     * @param field the injected field
+     *
+     * @return true if the field is optional injection point, false otherwise
+     */
+    private boolean isOptional(Element field) {
+
+        for (AnnotationMirror annotation : field.getAnnotationMirrors()) {
+
+            if (isAnnotation(annotation, GUICE_INJECT)) {
+
+                AnnotationValue optional = getValue(annotation, "optional");
+                return optional != null && Boolean.TRUE.equals(optional.getValue());
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns whether the type refers to any type variable, which can only be resolved against the actual test class.
+     *
+     * @param type the type
+     *
+     * @return true if the type refers to any type variable, false otherwise
+     */
+    private boolean containsTypeVariable(TypeMirror type) {
+
+        if (type.getKind() == TypeKind.TYPEVAR || type.getKind() == TypeKind.WILDCARD) {
+            return true;
+        } else if (type.getKind() == TypeKind.ARRAY) {
+            return containsTypeVariable(((ArrayType) type).getComponentType());
+        } else if (type.getKind() == TypeKind.DECLARED) {
+
+            for (TypeMirror argument : ((DeclaredType) type).getTypeArguments()) {
+
+                if (containsTypeVariable(argument)) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Retrieves the custom injector methods declared in the whole class hierarchy.
+     *
+     * @param type the class
+     *
+     * @return the custom injector methods in form of declaring class and method name
+     */
+    private List<String> getCustomInjectors(TypeElement type) {
+
+        List<String> customInjectors = new ArrayList<String>();
+        TypeElement current = type;
+
+        while (current != null && !Object.class.getName().equals(current.getQualifiedName().toString())) {
+
+            String declaringClass = getBinaryName(current);
+
+            for (Element member : current.getEnclosedElements()) {
+
+                if (member.getKind() == ElementKind.METHOD && member.getModifiers().contains(Modifier.STATIC)
+                        && hasAnnotation(member, GUICE_INJECTOR)) {
+
+                    customInjectors.add(declaringClass + TestClassIndex.MEMBER_SEPARATOR + member.getSimpleName());
+                }
+            }
+
+            current = getSuperclass(current);
+        }
+
+        return customInjectors;
+    }
+
+    /**
+     * Retrieves the explicitly specified annotation value.
+     *
+     * @param annotation the annotation
+     * @param name       the attribute name
+     *
+     * @return the annotation value or null if the attribute has not been specified
+     */
+    private AnnotationValue getValue(AnnotationMirror annotation, String name) {
+
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+                : annotation.getElementValues().entrySet()) {
+
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                return entry.getValue();
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns whether the element is annotated with the given annotation.
+     *
+     * @param element        the element
+     * @param annotationName the fully qualified annotation name
+     *
+     * @return true if the element is annotated, false otherwise
+     */
+    private boolean hasAnnotation(Element element, String annotationName) {
+
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+
+            if (isAnnotation(annotation, annotationName)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns whether the element is a Guice injection point.
+     *
+     * @param element the element
+     *
+     * @return true if the element is annotated with any of the inject annotations, false otherwise
+     */
+    private boolean isInjectionPoint(Element element) {
+
+        for (String annotationName : INJECT_ANNOTATIONS) {
+
+            if (hasAnnotation(element, annotationName)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns whether the annotation has the given type.
+     *
+     * @param annotation     the annotation
+     * @param annotationName the fully qualified annotation name
+     *
+     * @return true if the annotation has the given type, false otherwise
+     */
+    private boolean isAnnotation(AnnotationMirror annotation, String annotationName) {
+
+        return ((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName()
+                .contentEquals(annotationName);
+    }
+
+    /**
+     * Retrieves the super class of the given class.
+     *
+     * @param type the class
+     *
+     * @return the super class or null if the class has none
+     */
+    private TypeElement getSuperclass(TypeElement type) {
+
+        TypeMirror superclass = type.getSuperclass();
+
+        if (superclass.getKind() == TypeKind.DECLARED) {
+            return (TypeElement) ((DeclaredType) superclass).asElement();
+        }
+
+        return null;
+    }
+
+    /**
+     * Retrieves the binary name of the class, that can be used for loading the class at runtime.
+     *
+     * @param type the class
+     *
+     * @return the binary name
+     */
+    private String getBinaryName(TypeElement type) {
+
+        return processingEnv.getElementUtils().getBinaryName(type).toString();
+    }
+
+    /**
+     * Joins the list items.
+     *
+     * @param items the list items
+     *
+     * @return the joined items
+     */
+    private String join(List<String> items) {
+
+        StringBuilder sb = new StringBuilder();
+
+        for (String item : items) {
+
+            if (sb.length() > 0) {
+                sb.append(TestClassIndex.SEPARATOR);
+            }
+            sb.append(item);
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Writes the collected index into the class output.
+     */
+    private void writeIndex() {
+
+        Properties properties = new Properties();
+        properties.putAll(index);
+
+        try {
+
+            FileObject resource = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+                    TestClassIndex.INDEX_RESOURCE);
+            OutputStream outputStream = resource.openOutputStream();
+
+            try {
+                properties.store(outputStream, "Arquillian Guice test class index");
+            } finally {
+                outputStream.close();
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                    "Could not write the guice test class index: " + e.getMessage());
+        }
+    }
+}
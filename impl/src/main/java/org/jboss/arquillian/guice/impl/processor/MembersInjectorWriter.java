@@ -0,0 +1,147 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.arquillian.guice.impl.processor;
+
+import org.jboss.arquillian.guice.impl.enricher.GeneratedMembersInjector;
+import org.jboss.arquillian.guice.impl.index.TestClassIndex;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Writes the source of the {@link GeneratedMembersInjector} of a single test class. The generated class assigns the
+ * injected fields with plain field writes and is placed in the package of the test class, so that it can access its
+ * non private fields.
+ */
+class MembersInjectorWriter {
+
+    /**
+     * Represents the fully qualified name of the generated members injector base class. The name is not being taken
+     * from the class literal, so that the processor does not require Guice in the processor path.
+     */
+    private static final String BASE_CLASS_NAME =
+            "org.jboss.arquillian.guice.impl.enricher.GeneratedMembersInjector";
+
+    /**
+     * Represents the processing environment.
+     */
+    private final ProcessingEnvironment processingEnv;
+
+    /**
+     * Creates new instance of {@link MembersInjectorWriter} class.
+     *
+     * @param processingEnv the processing environment
+     */
+    MembersInjectorWriter(ProcessingEnvironment processingEnv) {
+        this.processingEnv = processingEnv;
+    }
+
+    /**
+     * Writes the members injector of the given test class.
+     *
+     * @param testClass the test class
+     * @param fields    the injected fields, in the injection order
+     *
+     * @throws IOException if any error occurs when writing the source file
+     */
+    void write(TypeElement testClass, List<VariableElement> fields) throws IOException {
+
+        PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(testClass);
+        String binaryName = processingEnv.getElementUtils().getBinaryName(testClass).toString();
+        String className = binaryName.substring(binaryName.lastIndexOf('.') + 1)
+                + GeneratedMembersInjector.CLASS_NAME_SUFFIX;
+        String testClassName = testClass.getQualifiedName().toString();
+
+        JavaFileObject sourceFile = processingEnv.getFiler().createSourceFile(
+                packageElement.isUnnamed() ? className : packageElement.getQualifiedName() + "." + className,
+                testClass);
+        Writer writer = sourceFile.openWriter();
+
+        try {
+
+            if (!packageElement.isUnnamed()) {
+                writer.write("package " + packageElement.getQualifiedName() + ";\n\n");
+            }
+
+            writer.write("/**\n * Generated members injector of the {@link " + testClassName + "} class.\n */\n");
+            writer.write("public final class " + className + " extends "
+                    + BASE_CLASS_NAME + "<" + testClassName + "> {\n\n");
+
+            writer.write("    @Override\n");
+            writer.write("    protected String[] getInjectedFields() {\n");
+            writer.write("        return new String[]{\n");
+            for (int i = 0; i < fields.size(); i++) {
+
+                writer.write("                \"" + getBinaryName(fields.get(i)) + TestClassIndex.MEMBER_SEPARATOR
+                        + fields.get(i).getSimpleName() + "\"" + (i < fields.size() - 1 ? "," : "") + "\n");
+            }
+            writer.write("        };\n");
+            writer.write("    }\n\n");
+
+            writer.write("    @SuppressWarnings(\"unchecked\")\n");
+            writer.write("    public void injectMembers(" + testClassName + " instance) {\n");
+            for (int i = 0; i < fields.size(); i++) {
+
+                VariableElement field = fields.get(i);
+                writer.write("        ((" + ((TypeElement) field.getEnclosingElement()).getQualifiedName()
+                        + ") instance)." + field.getSimpleName() + " = (" + getCastType(field.asType())
+                        + ") get(" + i + ");\n");
+            }
+            writer.write("    }\n");
+            writer.write("}\n");
+        } finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * Retrieves the binary name of the class declaring the given field.
+     *
+     * @param field the field
+     *
+     * @return the binary name of the declaring class
+     */
+    private String getBinaryName(VariableElement field) {
+
+        return processingEnv.getElementUtils().getBinaryName((TypeElement) field.getEnclosingElement()).toString();
+    }
+
+    /**
+     * Retrieves the type to which the provided value is being cast, which is the erasure of the field type or the
+     * wrapper class of the primitive field type.
+     *
+     * @param type the field type
+     *
+     * @return the cast type
+     */
+    private String getCastType(TypeMirror type) {
+
+        if (type.getKind().isPrimitive()) {
+            return processingEnv.getTypeUtils().boxedClass((PrimitiveType) type).getQualifiedName().toString();
+        }
+
+        return processingEnv.getTypeUtils().erasure(type).toString();
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.arquillian.guice.impl.client;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests the {@link ArtifactResolutionCache} class.
+ */
+public class ArtifactResolutionCacheTestCase {
+
+    /**
+     * Tests the {@link ArtifactResolutionCache#resolve(String, Callable)} method.
+     */
+    @Test
+    public void shouldResolveArtifactOnce() {
+
+        // given
+        String coordinates = "org.example:resolved-once:" + System.nanoTime();
+        CountingResolver resolver = new CountingResolver(false);
+
+        // when
+        List<File> first = ArtifactResolutionCache.get(ArtifactResolutionCache.resolve(coordinates, resolver));
+        List<File> second = ArtifactResolutionCache.get(ArtifactResolutionCache.resolve(coordinates, resolver));
+
+        // then
+        assertEquals("The artifact has not been resolved once.", 1, resolver.getCount());
+        assertEquals("The resolved files are invalid.", first, second);
+    }
+
+    /**
+     * Tests the {@link ArtifactResolutionCache#resolve(String, Callable)} method when the resolution fails.
+     */
+    @Test
+    public void shouldRetryFailedResolution() {
+
+        // given
+        String coordinates = "org.example:resolution-failed:" + System.nanoTime();
+        CountingResolver resolver = new CountingResolver(true);
+
+        try {
+            ArtifactResolutionCache.get(ArtifactResolutionCache.resolve(coordinates, resolver));
+            fail("The resolution failure has not been reported.");
+        } catch (RuntimeException e) {
+            // expected
+        }
+
+        // when
+        try {
+            ArtifactResolutionCache.get(ArtifactResolutionCache.resolve(coordinates, resolver));
+            fail("The resolution failure has not been reported.");
+        } catch (RuntimeException e) {
+            // expected
+        }
+
+        // then
+        assertEquals("The failed resolution has been retained.", 2, resolver.getCount());
+    }
+
+    /**
+     * A resolver that counts its invocations.
+     */
+    private static class CountingResolver implements Callable<List<File>> {
+
+        /**
+         * Represents the number of invocations.
+         */
+        private final AtomicInteger count = new AtomicInteger();
+
+        /**
+         * Represents whether the resolution fails.
+         */
+        private final boolean failing;
+
+        /**
+         * Creates new instance of {@link CountingResolver} class.
+         *
+         * @param failing whether the resolution fails
+         */
+        private CountingResolver(boolean failing) {
+            this.failing = failing;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public List<File> call() {
+
+            count.incrementAndGet();
+
+            if (failing) {
+                throw new IllegalStateException("The artifact could not be resolved.");
+            }
+
+            return Collections.singletonList(new File("resolved.jar"));
+        }
+
+        /**
+         * Retrieves the number of invocations.
+         *
+         * @return the number of invocations
+         */
+        private int getCount() {
+            return count.get();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.arquillian.guice.impl.client;
+
+import com.google.inject.Injector;
+import com.google.inject.servlet.GuiceFilter;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.List;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the {@link ClasspathLibraries} class.
+ */
+public class ClasspathLibrariesTestCase {
+
+    /**
+     * Tests the {@link ClasspathLibraries#findGuiceLibraries()} method.
+     */
+    @Test
+    public void shouldFindGuiceLibraries() {
+
+        // when
+        List<File> result = ClasspathLibraries.findGuiceLibraries();
+
+        // then
+        assertNotNull("The guice libraries have not been found.", result);
+        assertTrue("The guice library has not been found.",
+                result.contains(ClasspathLibraries.findLibrary(Injector.class.getName())));
+        assertTrue("The guice servlet library has not been found.",
+                result.contains(ClasspathLibraries.findLibrary(GuiceFilter.class.getName())));
+    }
+
+    /**
+     * Tests the {@link ClasspathLibraries#findLibrary(String)} method when the class has not been loaded from jar.
+     */
+    @Test
+    public void shouldNotFindDirectory() {
+
+        // when
+        File result = ClasspathLibraries.findLibrary(ClasspathLibrariesTestCase.class.getName());
+
+        // then
+        assertNull("The class directory has been found.", result);
+    }
+
+    /**
+     * Tests the {@link ClasspathLibraries#findLibrary(String)} method when the class is not available.
+     */
+    @Test
+    public void shouldNotFindMissingClass() {
+
+        // when
+        File result = ClasspathLibraries.findLibrary("org.example.MissingClass");
+
+        // then
+        assertNull("The missing class has been found.", result);
+    }
+}
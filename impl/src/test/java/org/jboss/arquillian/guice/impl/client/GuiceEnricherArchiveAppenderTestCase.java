@@ -16,14 +16,20 @@
  */
 package org.jboss.arquillian.guice.impl.client;
 
+import org.jboss.arquillian.core.api.annotation.ApplicationScoped;
 import org.jboss.arquillian.guice.api.annotation.GuiceConfiguration;
 import org.jboss.arquillian.guice.api.annotation.GuiceInjector;
 import org.jboss.arquillian.guice.api.servlet.ArquillianGuiceFilter;
 import org.jboss.arquillian.guice.api.utils.InjectorHolder;
 import org.jboss.arquillian.guice.impl.GuiceExtensionConsts;
+import org.jboss.arquillian.guice.impl.configuration.GuiceExtensionConfiguration;
+import org.jboss.arquillian.guice.impl.configuration.GuiceExtensionConfigurationProducer;
 import org.jboss.arquillian.guice.impl.container.GuiceEnricherRemoteExtension;
 import org.jboss.arquillian.guice.impl.enricher.GuiceInjectionEnricher;
+import org.jboss.arquillian.guice.impl.index.TestClassIndex;
 import org.jboss.arquillian.guice.impl.inject.InjectorProducer;
+import org.jboss.arquillian.guice.impl.monitor.FlightRecorderEvent;
+import org.jboss.arquillian.test.test.AbstractTestTestBase;
 import org.jboss.shrinkwrap.api.Archive;
 import org.jboss.shrinkwrap.api.ArchivePath;
 import org.jboss.shrinkwrap.api.ArchivePaths;
@@ -42,14 +48,15 @@ import static org.junit.Assert.assertTrue;
  *
  * @author <a href="mailto:jmnarloch@gmail.com">Jakub Narloch</a>
  */
-public class GuiceEnricherArchiveAppenderTestCase {
+public class GuiceEnricherArchiveAppenderTestCase extends AbstractTestTestBase {
 
     /**
      * <p>Represents the list of required classes.</p>
      */
     private final static List<Class<?>> REQUIRED_CLASSES = Arrays.asList(GuiceEnricherRemoteExtension.class,
-            GuiceInjectionEnricher.class, InjectorProducer.class, GuiceExtensionConsts.class, GuiceConfiguration.class,
-            GuiceInjector.class, ArquillianGuiceFilter.class, InjectorHolder.class);
+            GuiceInjectionEnricher.class, InjectorProducer.class, GuiceExtensionConsts.class,
+            GuiceExtensionConfiguration.class, GuiceConfiguration.class, GuiceInjector.class,
+            ArquillianGuiceFilter.class, InjectorHolder.class, TestClassIndex.class, FlightRecorderEvent.class);
 
     /**
      * Represents the instance of the tested class.
@@ -64,6 +71,7 @@ public class GuiceEnricherArchiveAppenderTestCase {
 
         // given
         instance = new GuiceEnricherArchiveAppender();
+        getManager().inject(instance);
     }
 
     /**
@@ -88,6 +96,25 @@ public class GuiceEnricherArchiveAppenderTestCase {
         }
     }
 
+    /**
+     * Tests the {@link GuiceEnricherArchiveAppender#buildArchive()} method when the extension has been configured.
+     *
+     * @throws Exception if any error occurs
+     */
+    @Test
+    public void shouldAddConfiguration() throws Exception {
+
+        // given
+        bind(ApplicationScoped.class, GuiceExtensionConfiguration.class, new GuiceExtensionConfiguration());
+
+        // when
+        Archive archive = instance.createAuxiliaryArchive();
+
+        // then
+        assertTrue("The configuration is missing.", archive.contains(
+                GuiceExtensionConfigurationProducer.CONFIGURATION_RESOURCE));
+    }
+
     /**
      * Retrieves the resource name of the give class.
      *
@@ -16,6 +16,8 @@
  */
 package org.jboss.arquillian.guice.impl.client;
 
+import com.google.inject.Injector;
+import com.google.inject.servlet.GuiceFilter;
 import org.jboss.arquillian.container.test.spi.TestDeployment;
 import org.jboss.arquillian.core.api.annotation.ApplicationScoped;
 import org.jboss.arquillian.guice.impl.configuration.GuiceExtensionConfiguration;
@@ -30,10 +32,13 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -198,6 +203,132 @@ public class GuiceProtocolArchiveProcessorTestCase extends AbstractTestTestBase
         assertDependencies((WebArchive) deploymentArchive, false);
     }
 
+    /**
+     * Tests the {@link GuiceProtocolArchiveProcessor#process(TestDeployment, Archive)} method, when the guice version
+     * has been configured and the libraries are being resolved using maven.
+     *
+     * @throws Exception if any error occurs
+     */
+    @Test
+    public void shouldAddConfiguredVersionToWar() throws Exception {
+
+        // given
+        deploymentArchive = ShrinkWrap.create(WebArchive.class, "deployment.war");
+        TestDeployment testDeployment = new TestDeployment(null, deploymentArchive,
+                Arrays.<Archive<?>>asList(auxiliaryArchive));
+        configuration.setGuiceVersion("3.0");
+
+        // when
+        instance.process(testDeployment, protocolArchive);
+
+        // then
+        assertDependencies((WebArchive) deploymentArchive, true);
+    }
+
+    /**
+     * Tests the {@link GuiceProtocolArchiveProcessor#process(TestDeployment, Archive)} method, when the same archive
+     * is being processed twice.
+     *
+     * @throws Exception if any error occurs
+     */
+    @Test
+    public void shouldNotAddDependenciesTwice() throws Exception {
+
+        // given
+        deploymentArchive = ShrinkWrap.create(WebArchive.class, "deployment.war");
+        TestDeployment testDeployment = new TestDeployment(null, deploymentArchive,
+                Arrays.<Archive<?>>asList(auxiliaryArchive));
+        instance.process(testDeployment, protocolArchive);
+        List<String> libraries = getLibraries((WebArchive) deploymentArchive);
+
+        // when
+        instance.process(testDeployment, protocolArchive);
+
+        // then
+        assertEquals("The dependencies have been added twice.", libraries,
+                getLibraries((WebArchive) deploymentArchive));
+    }
+
+    /**
+     * Tests the {@link GuiceProtocolArchiveProcessor#process(TestDeployment, Archive)} method, when the deployment
+     * archive already bundles guice.
+     *
+     * @throws Exception if any error occurs
+     */
+    @Test
+    public void shouldNotAddBundledDependencies() throws Exception {
+
+        // given
+        JavaArchive bundledGuice = ShrinkWrap.create(JavaArchive.class, "bundled.jar")
+                .addClasses(Injector.class, GuiceFilter.class);
+        deploymentArchive = ShrinkWrap.create(WebArchive.class, "deployment.war").addAsLibrary(bundledGuice);
+        TestDeployment testDeployment = new TestDeployment(null, deploymentArchive,
+                Arrays.<Archive<?>>asList(auxiliaryArchive));
+
+        // when
+        instance.process(testDeployment, protocolArchive);
+
+        // then
+        assertEquals("The bundled dependencies have been added.", Arrays.asList("bundled.jar"),
+                getLibraries((WebArchive) deploymentArchive));
+    }
+
+    /**
+     * Tests the {@link GuiceProtocolArchiveProcessor#process(TestDeployment, Archive)} method, when the deployment
+     * archive bundles guice without the servlet extension.
+     *
+     * @throws Exception if any error occurs
+     */
+    @Test
+    public void shouldAddMissingDependencies() throws Exception {
+
+        // given
+        deploymentArchive = ShrinkWrap.create(WebArchive.class, "deployment.war")
+                .addAsLibrary(ShrinkWrap.create(JavaArchive.class, "guice-2.0.jar"));
+        TestDeployment testDeployment = new TestDeployment(null, deploymentArchive,
+                Arrays.<Archive<?>>asList(auxiliaryArchive));
+
+        // when
+        instance.process(testDeployment, protocolArchive);
+
+        // then
+        int guiceLibraries = 0;
+        boolean guiceServletLibrary = false;
+
+        for (String library : getLibraries((WebArchive) deploymentArchive)) {
+
+            guiceLibraries += library.matches("guice-[0-9].*") ? 1 : 0;
+            guiceServletLibrary |= library.startsWith("guice-servlet-");
+        }
+
+        assertEquals("The bundled guice library has been added.", 1, guiceLibraries);
+        assertTrue("The guice servlet library has not been added.", guiceServletLibrary);
+    }
+
+    /**
+     * Retrieves the names of the libraries bundled within the given archive.
+     *
+     * @param archive the archive
+     *
+     * @return the sorted library names
+     */
+    private List<String> getLibraries(WebArchive archive) {
+
+        List<String> libraries = new ArrayList<String>();
+        Node node = archive.get("/WEB-INF/lib");
+
+        if (node != null) {
+
+            for (Node child : node.getChildren()) {
+
+                libraries.add(child.getPath().get().substring("/WEB-INF/lib/".length()));
+            }
+        }
+
+        Collections.sort(libraries);
+        return libraries;
+    }
+
     /**
      * <p>Checks if all requirement dependencies are present.</p>
      *
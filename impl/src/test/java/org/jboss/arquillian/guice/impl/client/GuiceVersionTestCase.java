@@ -0,0 +1,151 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.arquillian.guice.impl.client;
+
+import org.jboss.arquillian.guice.impl.GuiceExtensionConsts;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.jar.Attributes;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.zip.ZipEntry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests the {@link GuiceVersion} class.
+ */
+public class GuiceVersionTestCase {
+
+    /**
+     * Tests the {@link GuiceVersion#determine(String)} method when the version has been configured.
+     */
+    @Test
+    public void shouldUseConfiguredVersion() {
+
+        // when
+        String result = GuiceVersion.determine("4.0");
+
+        // then
+        assertEquals("The configured version has not been used.", "4.0", result);
+    }
+
+    /**
+     * Tests the {@link GuiceVersion#determine(String)} method when the guice library does not declare its version.
+     */
+    @Test
+    public void shouldUseDefaultVersion() {
+
+        // when
+        String result = GuiceVersion.determine(null);
+
+        // then
+        assertEquals("The default version has not been used.", GuiceExtensionConsts.GUICE_ARTIFACT_VERSION, result);
+    }
+
+    /**
+     * Tests the {@link GuiceVersion#detect(File)} method.
+     *
+     * @throws IOException if any error occurs
+     */
+    @Test
+    public void shouldDetectManifestVersion() throws IOException {
+
+        // given
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        manifest.getMainAttributes().put(Attributes.Name.IMPLEMENTATION_VERSION, "4.1.0");
+        File library = createLibrary(manifest, "version=4.0");
+
+        // when
+        String result = GuiceVersion.detect(library);
+
+        // then
+        assertEquals("The manifest version has not been detected.", "4.1.0", result);
+    }
+
+    /**
+     * Tests the {@link GuiceVersion#detect(File)} method when the manifest does not declare the version.
+     *
+     * @throws IOException if any error occurs
+     */
+    @Test
+    public void shouldDetectPomVersion() throws IOException {
+
+        // given
+        File library = createLibrary(new Manifest(), "version=4.0");
+
+        // when
+        String result = GuiceVersion.detect(library);
+
+        // then
+        assertEquals("The pom version has not been detected.", "4.0", result);
+    }
+
+    /**
+     * Tests the {@link GuiceVersion#detect(File)} method when the library does not declare its version.
+     *
+     * @throws IOException if any error occurs
+     */
+    @Test
+    public void shouldNotDetectUndeclaredVersion() throws IOException {
+
+        // given
+        File library = createLibrary(new Manifest(), null);
+
+        // when
+        String result = GuiceVersion.detect(library);
+
+        // then
+        assertNull("The version has been detected.", result);
+    }
+
+    /**
+     * Creates the library with the given manifest and Maven metadata.
+     *
+     * @param manifest      the manifest
+     * @param pomProperties the content of the Maven metadata or null if the library has none
+     *
+     * @return the library file
+     *
+     * @throws IOException if any error occurs
+     */
+    private File createLibrary(Manifest manifest, String pomProperties) throws IOException {
+
+        File directory = new File("target", "guice-version-" + System.nanoTime());
+        directory.mkdirs();
+        File library = new File(directory, "guice.jar");
+        JarOutputStream output = new JarOutputStream(new FileOutputStream(library), manifest);
+
+        try {
+
+            if (pomProperties != null) {
+                output.putNextEntry(new ZipEntry("META-INF/maven/com.google.inject/guice/pom.properties"));
+                output.write(pomProperties.getBytes("UTF-8"));
+                output.closeEntry();
+            }
+        } finally {
+            output.close();
+        }
+
+        return library;
+    }
+}
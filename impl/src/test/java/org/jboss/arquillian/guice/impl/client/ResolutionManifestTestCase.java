@@ -0,0 +1,152 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.arquillian.guice.impl.client;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests the {@link ResolutionManifest} class.
+ */
+public class ResolutionManifestTestCase {
+
+    /**
+     * Represents the instance of tested class.
+     */
+    private ResolutionManifest instance;
+
+    /**
+     * Represents the resolved library.
+     */
+    private File library;
+
+    /**
+     * Sets up the model environment.
+     *
+     * @throws IOException if any error occurs
+     */
+    @Before
+    public void setUp() throws IOException {
+
+        // given
+        File directory = new File("target", "resolution-manifest-" + System.nanoTime());
+        directory.mkdirs();
+        library = new File(directory, "guice.jar");
+        write(library, "guice");
+
+        instance = new ResolutionManifest(directory, "com.google.inject:guice:3.0");
+    }
+
+    /**
+     * Tests the {@link ResolutionManifest#load()} method when the manifest has not been stored.
+     */
+    @Test
+    public void shouldNotLoadMissingManifest() {
+
+        // when
+        List<File> result = instance.load();
+
+        // then
+        assertNull("The missing manifest has been loaded.", result);
+    }
+
+    /**
+     * Tests the {@link ResolutionManifest#load()} method.
+     *
+     * @throws IOException if any error occurs
+     */
+    @Test
+    public void shouldLoadStoredFiles() throws IOException {
+
+        // given
+        instance.store(Collections.singletonList(library));
+
+        // when
+        List<File> result = instance.load();
+
+        // then
+        assertEquals("The stored files have not been loaded.", Collections.singletonList(library.getAbsoluteFile()),
+                result);
+    }
+
+    /**
+     * Tests the {@link ResolutionManifest#load()} method when the modification time of the file has changed.
+     *
+     * @throws IOException if any error occurs
+     */
+    @Test
+    public void shouldLoadTouchedFiles() throws IOException {
+
+        // given
+        instance.store(Collections.singletonList(library));
+        library.setLastModified(library.lastModified() - 10000);
+
+        // when
+        List<File> result = instance.load();
+
+        // then
+        assertEquals("The unchanged files have not been loaded.", 1, result.size());
+    }
+
+    /**
+     * Tests the {@link ResolutionManifest#load()} method when the file has changed.
+     *
+     * @throws IOException if any error occurs
+     */
+    @Test
+    public void shouldNotLoadChangedFiles() throws IOException {
+
+        // given
+        instance.store(Collections.singletonList(library));
+        write(library, "GUICE");
+        library.setLastModified(library.lastModified() - 10000);
+
+        // when
+        List<File> result = instance.load();
+
+        // then
+        assertNull("The changed files have been loaded.", result);
+    }
+
+    /**
+     * Writes the content of the given file.
+     *
+     * @param file    the file
+     * @param content the file content
+     *
+     * @throws IOException if any error occurs
+     */
+    private void write(File file, String content) throws IOException {
+
+        FileWriter writer = new FileWriter(file);
+
+        try {
+            writer.write(content);
+        } finally {
+            writer.close();
+        }
+    }
+}
@@ -16,6 +16,7 @@
  */
 package org.jboss.arquillian.guice.impl.configuration;
 
+import com.google.inject.Stage;
 import org.jboss.arquillian.config.descriptor.api.ArquillianDescriptor;
 import org.jboss.arquillian.core.api.annotation.ApplicationScoped;
 import org.jboss.arquillian.test.spi.context.ClassContext;
@@ -28,11 +29,14 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.File;
+import java.util.Arrays;
 import java.util.List;
 
 import static junit.framework.Assert.assertNull;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 /**
  * Tests the {@link GuiceExtensionConfigurationProducer} class.
@@ -105,6 +109,76 @@ public class GuiceExtensionConfigurationProducerTestCase extends AbstractTestTes
         assertEquals("The configuration properties is invalid.", "3.0", config.getGuiceVersion());
     }
 
+    /**
+     * Tests the {@link GuiceExtensionConfigurationProducer#loadConfiguration(BeforeSuite)} method when every property
+     * has been set.
+     */
+    @Test
+    public void shouldCreateExtendedConfiguration() {
+
+        // given
+        arquillianDescriptor = Descriptors.importAs(ArquillianDescriptor.class)
+                .fromFile(new File("src/test/resources", "extended-arquillian.xml"));
+
+        bind(ApplicationScoped.class, ArquillianDescriptor.class, arquillianDescriptor);
+        getManager().inject(instance);
+
+        // when
+        getManager().fire(new BeforeSuite());
+
+        // then
+        GuiceExtensionConfiguration config = getManager().resolve(GuiceExtensionConfiguration.class);
+        assertNotNull("The extension configuration hasn't been created.", config);
+        assertEquals("The configuration properties is invalid.", false, config.isAutoPackage());
+        assertEquals("The configuration properties is invalid.", "3.0", config.getGuiceVersion());
+        assertEquals("The configuration properties is invalid.", 10, config.getInjectorCacheSize());
+        assertEquals("The configuration properties is invalid.",
+                Arrays.asList("org.jboss.arquillian.guice.impl.model.EmployeeModule"), config.getParentModules());
+        assertEquals("The configuration properties is invalid.", Stage.PRODUCTION, config.getStage());
+        assertEquals("The configuration properties is invalid.",
+                Arrays.asList("org.jboss.arquillian.guice.impl.inject.InjectorProducerTestCase$TestClass"),
+                config.getPrebuildTestClasses());
+        assertEquals("The configuration properties is invalid.", true, config.isPrebuildIndexedTestClasses());
+        assertEquals("The configuration properties is invalid.", true, config.isCacheModuleElements());
+        assertEquals("The configuration properties is invalid.", true, config.isParallelModuleConfiguration());
+        assertEquals("The configuration properties is invalid.", true, config.isMinimalInjector());
+        assertEquals("The configuration properties is invalid.", true, config.isBindingCoverageReport());
+        assertEquals("The configuration properties is invalid.", true, config.isConstructionReport());
+        assertEquals("The configuration properties is invalid.", true, config.isProvisionTrace());
+        assertEquals("The configuration properties is invalid.", 5000L, config.getSlowProvisionThresholdMs());
+        assertEquals("The configuration properties is invalid.", true, config.isFailOnSlowProvision());
+        assertEquals("The configuration properties is invalid.", true, config.isGeneratedMembersInjectors());
+        assertEquals("The configuration properties is invalid.", "target/guice-reports", config.getReportDirectory());
+        assertEquals("The configuration properties is invalid.", true, config.isOffline());
+        assertEquals("The configuration properties is invalid.", "target/guice-resolution",
+                config.getResolutionCacheDirectory());
+    }
+
+    /**
+     * Tests the {@link GuiceExtensionConfigurationProducer#loadConfiguration(BeforeSuite)} method when the numeric
+     * property is not a valid number.
+     */
+    @Test
+    public void shouldReportInvalidNumber() {
+
+        // given
+        arquillianDescriptor = Descriptors.importAs(ArquillianDescriptor.class)
+                .fromFile(new File("src/test/resources", "invalid-arquillian.xml"));
+
+        bind(ApplicationScoped.class, ArquillianDescriptor.class, arquillianDescriptor);
+        getManager().inject(instance);
+
+        // when
+        try {
+            getManager().fire(new BeforeSuite());
+            fail("The invalid number has not been reported.");
+        } catch (IllegalArgumentException e) {
+
+            // then
+            assertTrue("The failure does not name the property.", e.getMessage().contains("injectorCacheSize"));
+        }
+    }
+
     /**
      * Tests the {@link GuiceExtensionConfigurationProducer#loadConfiguration(BeforeSuite)} method.
      */
@@ -126,5 +200,23 @@ public class GuiceExtensionConfigurationProducerTestCase extends AbstractTestTes
         assertNotNull("The extension configuration hasn't been created.", config);
         assertEquals("The configuration properties is invalid.", true, config.isAutoPackage());
         assertNull("The configuration properties is invalid.", config.getGuiceVersion());
+        assertEquals("The configuration properties is invalid.", 0, config.getInjectorCacheSize());
+        assertTrue("The configuration properties is invalid.", config.getParentModules().isEmpty());
+        assertEquals("The configuration properties is invalid.", Stage.DEVELOPMENT, config.getStage());
+        assertTrue("The configuration properties is invalid.", config.getPrebuildTestClasses().isEmpty());
+        assertEquals("The configuration properties is invalid.", false, config.isPrebuildIndexedTestClasses());
+        assertEquals("The configuration properties is invalid.", false, config.isCacheModuleElements());
+        assertEquals("The configuration properties is invalid.", false, config.isParallelModuleConfiguration());
+        assertEquals("The configuration properties is invalid.", false, config.isMinimalInjector());
+        assertEquals("The configuration properties is invalid.", false, config.isBindingCoverageReport());
+        assertEquals("The configuration properties is invalid.", false, config.isConstructionReport());
+        assertEquals("The configuration properties is invalid.", false, config.isProvisionTrace());
+        assertEquals("The configuration properties is invalid.", 0L, config.getSlowProvisionThresholdMs());
+        assertEquals("The configuration properties is invalid.", false, config.isFailOnSlowProvision());
+        assertEquals("The configuration properties is invalid.", false, config.isGeneratedMembersInjectors());
+        assertEquals("The configuration properties is invalid.", "target", config.getReportDirectory());
+        assertEquals("The configuration properties is invalid.", false, config.isOffline());
+        assertEquals("The configuration properties is invalid.", "target/arquillian-guice",
+                config.getResolutionCacheDirectory());
     }
 }
@@ -0,0 +1,153 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.arquillian.guice.impl.configuration;
+
+import com.google.inject.Stage;
+import org.jboss.arquillian.core.api.annotation.ApplicationScoped;
+import org.jboss.arquillian.guice.impl.client.GuiceEnricherArchiveAppender;
+import org.jboss.arquillian.test.spi.event.suite.AfterSuite;
+import org.jboss.arquillian.test.spi.event.suite.BeforeSuite;
+import org.jboss.arquillian.test.test.AbstractTestTestBase;
+import org.jboss.shrinkwrap.api.Archive;
+import org.jboss.shrinkwrap.api.exporter.ExplodedExporter;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests the {@link RemoteGuiceExtensionConfigurationProducer} class.
+ */
+public class RemoteGuiceExtensionConfigurationProducerTestCase extends AbstractTestTestBase {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void addExtensions(List<Class<?>> extensions) {
+        extensions.add(RemoteGuiceExtensionConfigurationProducer.class);
+    }
+
+    /**
+     * Tears down the model environment.
+     */
+    @After
+    public void tearDown() {
+
+        // cleans the context
+        getManager().fire(new AfterSuite());
+    }
+
+    /**
+     * Tests the {@link RemoteGuiceExtensionConfigurationProducer#loadConfiguration(BeforeSuite)} method with the
+     * configuration shipped within the auxiliary archive.
+     *
+     * @throws Exception if any error occurs
+     */
+    @Test
+    public void shouldLoadShippedConfiguration() throws Exception {
+
+        // given
+        GuiceExtensionConfiguration configuration = new GuiceExtensionConfiguration();
+        configuration.setInjectorCacheSize(10);
+        configuration.setStage(Stage.PRODUCTION);
+        configuration.setParentModules(Arrays.asList("org.jboss.arquillian.guice.impl.model.EmployeeModule"));
+        configuration.setMinimalInjector(true);
+        configuration.setSlowProvisionThresholdMs(5000);
+        configuration.setGeneratedMembersInjectors(true);
+        ClassLoader deployment = deploy(configuration);
+
+        // when
+        fireBeforeSuite(deployment);
+
+        // then
+        GuiceExtensionConfiguration result = getManager().resolve(GuiceExtensionConfiguration.class);
+        assertNotSame("The extension configuration hasn't been created.", configuration, result);
+        assertEquals("The configuration properties is invalid.", 10, result.getInjectorCacheSize());
+        assertEquals("The configuration properties is invalid.", Stage.PRODUCTION, result.getStage());
+        assertEquals("The configuration properties is invalid.", configuration.getParentModules(),
+                result.getParentModules());
+        assertEquals("The configuration properties is invalid.", true, result.isMinimalInjector());
+        assertEquals("The configuration properties is invalid.", 5000L, result.getSlowProvisionThresholdMs());
+        assertEquals("The configuration properties is invalid.", true, result.isGeneratedMembersInjectors());
+        assertEquals("The configuration properties is invalid.", false, result.isCacheModuleElements());
+    }
+
+    /**
+     * Tests the {@link RemoteGuiceExtensionConfigurationProducer#loadConfiguration(BeforeSuite)} method when the
+     * deployment does not contain the configuration.
+     */
+    @Test
+    public void shouldNotCreateMissingConfiguration() {
+
+        // when
+        fireBeforeSuite(new URLClassLoader(new URL[0], null));
+
+        // then
+        assertNull("The extension configuration has been created.",
+                getManager().resolve(GuiceExtensionConfiguration.class));
+    }
+
+    /**
+     * Exports the auxiliary archive built with the given configuration into the class loader, as the container does
+     * with the test deployment.
+     *
+     * @param configuration the client side configuration
+     *
+     * @return the class loader of the deployment
+     *
+     * @throws Exception if any error occurs
+     */
+    private ClassLoader deploy(GuiceExtensionConfiguration configuration) throws Exception {
+
+        GuiceEnricherArchiveAppender appender = new GuiceEnricherArchiveAppender();
+        bind(ApplicationScoped.class, GuiceExtensionConfiguration.class, configuration);
+        getManager().inject(appender);
+        Archive<?> archive = appender.createAuxiliaryArchive();
+
+        File directory = new File("target", "remote-configuration-" + System.nanoTime());
+        directory.mkdirs();
+        File exploded = archive.as(ExplodedExporter.class).exportExploded(directory);
+
+        return new URLClassLoader(new URL[]{exploded.toURI().toURL()}, null);
+    }
+
+    /**
+     * Fires the {@link BeforeSuite} event with the given class loader bound to the current thread.
+     *
+     * @param classLoader the class loader
+     */
+    private void fireBeforeSuite(ClassLoader classLoader) {
+
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        Thread.currentThread().setContextClassLoader(classLoader);
+
+        try {
+            getManager().fire(new BeforeSuite());
+        } finally {
+            Thread.currentThread().setContextClassLoader(contextClassLoader);
+        }
+    }
+}
@@ -17,6 +17,7 @@
 package org.jboss.arquillian.guice.impl.container;
 
 import org.jboss.arquillian.core.spi.LoadableExtension;
+import org.jboss.arquillian.guice.impl.configuration.RemoteGuiceExtensionConfigurationProducer;
 import org.jboss.arquillian.guice.impl.enricher.GuiceInjectionEnricher;
 import org.jboss.arquillian.guice.impl.inject.InjectorProducer;
 import org.jboss.arquillian.test.spi.TestEnricher;
@@ -72,6 +73,7 @@ public class GuiceEnricherRemoteExtensionTestCase {
 
         // then
         verify(extensionBuilder).service(TestEnricher.class, GuiceInjectionEnricher.class);
+        verify(extensionBuilder).observer(RemoteGuiceExtensionConfigurationProducer.class);
         verify(extensionBuilder).observer(InjectorProducer.class);
 
         verifyNoMoreInteractions(extensionBuilder);
@@ -0,0 +1,56 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.arquillian.guice.impl.enricher;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the {@link EnricherState} class.
+ */
+public class EnricherStateTestCase {
+
+    /**
+     * Represents the instance of the tested class.
+     */
+    private EnricherState instance;
+
+    /**
+     * Sets up the model environment.
+     */
+    @Before
+    public void setUp() {
+
+        // given
+        instance = new EnricherState(true);
+    }
+
+    /**
+     * Tests the {@link EnricherState#isGuicePresent()} method.
+     */
+    @Test
+    public void shouldRememberGuicePresence() {
+
+        // when
+        boolean result = instance.isGuicePresent();
+
+        // then
+        assertTrue("The Guice presence has not been remembered.", result);
+    }
+}
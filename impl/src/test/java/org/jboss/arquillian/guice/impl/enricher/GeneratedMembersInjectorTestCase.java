@@ -0,0 +1,134 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.arquillian.guice.impl.enricher;
+
+import com.google.inject.Guice;
+import com.google.inject.Inject;
+import com.google.inject.Injector;
+import com.google.inject.MembersInjector;
+import org.jboss.arquillian.guice.api.annotation.GuiceConfiguration;
+import org.jboss.arquillian.guice.impl.model.EmployeeModule;
+import org.jboss.arquillian.guice.impl.model.EmployeeService;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the {@link GeneratedMembersInjector} class against the members injectors generated for the test sources.
+ */
+public class GeneratedMembersInjectorTestCase {
+
+    /**
+     * Represents the injector.
+     */
+    private Injector injector;
+
+    /**
+     * Sets up the model environment.
+     */
+    @Before
+    public void setUp() {
+
+        // given
+        injector = Guice.createInjector(new EmployeeModule());
+    }
+
+    /**
+     * Tests the {@link GeneratedMembersInjector#load(Injector, Class)} method.
+     */
+    @Test
+    public void shouldLoadGeneratedMembersInjector() {
+
+        // when
+        MembersInjector<TestClass> result = GeneratedMembersInjector.load(injector, TestClass.class);
+
+        // then
+        assertTrue("The generated members injector has not been loaded.", result instanceof GeneratedMembersInjector);
+    }
+
+    /**
+     * Tests the {@link GeneratedMembersInjector#injectMembers(Object)} method.
+     */
+    @Test
+    public void shouldInjectFields() {
+
+        // given
+        TestClass testClass = new TestClass();
+
+        // when
+        GeneratedMembersInjector.load(injector, TestClass.class).injectMembers(testClass);
+
+        // then
+        assertNotNull("The employee service has not been injected.", testClass.employeeService);
+        assertNotNull("The super class employee service has not been injected.", testClass.baseEmployeeService);
+    }
+
+    /**
+     * Tests the {@link GeneratedMembersInjector#load(Injector, Class)} method.
+     */
+    @Test
+    public void shouldNotGenerateForPrivateField() {
+
+        // when
+        MembersInjector<TestClassWithPrivateField> result =
+                GeneratedMembersInjector.load(injector, TestClassWithPrivateField.class);
+
+        // then
+        assertNull("The members injector has been generated.", result);
+    }
+
+    /**
+     * A sample base test class.
+     */
+    static class BaseTestClass {
+
+        /**
+         * The injected {@link EmployeeService}.
+         */
+        @Inject
+        EmployeeService baseEmployeeService;
+    }
+
+    /**
+     * A sample unit test with a custom guice configuration.
+     */
+    @GuiceConfiguration(EmployeeModule.class)
+    static class TestClass extends BaseTestClass {
+
+        /**
+         * The injected {@link EmployeeService}.
+         */
+        @Inject
+        EmployeeService employeeService;
+    }
+
+    /**
+     * A sample unit test with a custom guice configuration and private injected field.
+     */
+    @GuiceConfiguration(EmployeeModule.class)
+    static class TestClassWithPrivateField {
+
+        /**
+         * The injected {@link EmployeeService}.
+         */
+        @Inject
+        private EmployeeService employeeService;
+    }
+}
@@ -21,20 +21,27 @@ import com.google.inject.Inject;
 import com.google.inject.Injector;
 import org.jboss.arquillian.core.api.annotation.ApplicationScoped;
 import org.jboss.arquillian.guice.api.annotation.GuiceConfiguration;
+import org.jboss.arquillian.guice.impl.inject.InjectorProducer;
+import org.jboss.arquillian.guice.impl.model.Employee;
 import org.jboss.arquillian.guice.impl.model.EmployeeModule;
 import org.jboss.arquillian.guice.impl.model.EmployeeService;
+import org.jboss.arquillian.test.api.ArquillianResource;
 import org.jboss.arquillian.test.spi.context.ClassContext;
 import org.jboss.arquillian.test.spi.event.suite.AfterSuite;
+import org.jboss.arquillian.test.spi.event.suite.BeforeClass;
 import org.jboss.arquillian.test.spi.event.suite.BeforeSuite;
 import org.jboss.arquillian.test.test.AbstractTestTestBase;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.lang.reflect.Method;
 import java.util.List;
 
 import static junit.framework.Assert.assertNull;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 
 /**
  * Tests the {@link GuiceInjectionEnricher} class.
@@ -59,6 +66,7 @@ public class GuiceInjectionEnricherTestCase extends AbstractTestTestBase {
     @Override
     protected void addExtensions(List<Class<?>> extensions) {
         extensions.add(GuiceInjectionEnricher.class);
+        extensions.add(InjectorProducer.class);
     }
 
     /**
@@ -116,6 +124,151 @@ public class GuiceInjectionEnricherTestCase extends AbstractTestTestBase {
         assertNull("The employee service has been injected.", testClass.getNullEmployeeService());
     }
 
+    /**
+     * Tests the {@link GuiceInjectionEnricher#enrich(Object)} method when the test class does not define any guice
+     * configuration, while the injector created for the previous test class still exists.
+     */
+    @Test
+    public void shouldNotEnrichNonGuiceTest() {
+
+        // given
+        NonGuiceTestClass nonGuiceTestClass = new NonGuiceTestClass();
+        getManager().fire(new BeforeClass(NonGuiceTestClass.class));
+
+        // when
+        instance.enrich(nonGuiceTestClass);
+
+        // then
+        assertNull("The non guice test has been enriched.", nonGuiceTestClass.employeeService);
+    }
+
+    /**
+     * Tests the {@link GuiceInjectionEnricher#resolve(Method)} method.
+     *
+     * @throws Exception if any error occurs
+     */
+    @Test
+    public void shouldResolveBoundParameter() throws Exception {
+
+        // given
+        Method method = TestClass.class.getMethod("testWithParameters", EmployeeService.class, Runnable.class);
+
+        // when
+        Object[] result = instance.resolve(method);
+
+        // then
+        assertEquals("The number of resolved parameters is invalid.", 2, result.length);
+        assertNotNull("The employee service has not been resolved.", result[0]);
+        assertNull("The unbound parameter has been resolved.", result[1]);
+    }
+
+    /**
+     * Tests the {@link GuiceInjectionEnricher#resolve(Method)} method.
+     *
+     * @throws Exception if any error occurs
+     */
+    @Test
+    public void shouldResolveParameterOnEachInvocation() throws Exception {
+
+        // given
+        Method method = TestClass.class.getMethod("testWithParameters", EmployeeService.class, Runnable.class);
+
+        // when
+        Object[] first = instance.resolve(method);
+        Object[] second = instance.resolve(method);
+
+        // then
+        assertNotSame("The parameter has not been provided again.", first[0], second[0]);
+    }
+
+    /**
+     * Tests the {@link GuiceInjectionEnricher#resolve(Method)} method when the parameter has no explicit binding.
+     *
+     * @throws Exception if any error occurs
+     */
+    @Test
+    public void shouldNotResolveUnboundParameter() throws Exception {
+
+        // given
+        Method method = TestClass.class.getMethod("testWithJustInTimeParameter", Employee.class);
+
+        // when
+        Object[] result = instance.resolve(method);
+
+        // then
+        assertNull("The parameter without explicit binding has been resolved.", result[0]);
+    }
+
+    /**
+     * Tests the {@link GuiceInjectionEnricher#resolve(Method)} method when the parameter is annotated for other
+     * enricher.
+     *
+     * @throws Exception if any error occurs
+     */
+    @Test
+    public void shouldNotResolveOtherEnricherParameter() throws Exception {
+
+        // given
+        Method method = TestClass.class.getMethod("testWithResourceParameter", EmployeeService.class);
+
+        // when
+        Object[] result = instance.resolve(method);
+
+        // then
+        assertNull("The parameter of other enricher has been resolved.", result[0]);
+    }
+
+    /**
+     * Tests the {@link GuiceInjectionEnricher#resolve(Method)} method when the test class does not define any guice
+     * configuration, while the injector created for the previous test class still exists.
+     *
+     * @throws Exception if any error occurs
+     */
+    @Test
+    public void shouldNotResolveNonGuiceTestParameter() throws Exception {
+
+        // given
+        Method method = NonGuiceTestClass.class.getMethod("testWithParameter", EmployeeService.class);
+        getManager().fire(new BeforeClass(NonGuiceTestClass.class));
+
+        // when
+        Object[] result = instance.resolve(method);
+
+        // then
+        assertNull("The parameter of non guice test has been resolved.", result[0]);
+    }
+
+    /**
+     * A sample unit test that does not define any guice configuration.
+     */
+    private static class NonGuiceTestClass {
+
+        /**
+         * The {@link EmployeeService} that must not be injected.
+         */
+        @Inject
+        EmployeeService employeeService;
+
+        /**
+         * Dummy test method.
+         */
+        @Test
+        public void test() {
+
+            // empty test
+        }
+
+        /**
+         * Dummy test method with parameter.
+         *
+         * @param employeeService the employee service
+         */
+        public void testWithParameter(EmployeeService employeeService) {
+
+            // empty test
+        }
+    }
+
     /**
      * A sample unit test with a custom guice configuration.
      */
@@ -142,6 +295,37 @@ public class GuiceInjectionEnricherTestCase extends AbstractTestTestBase {
             // empty test
         }
 
+        /**
+         * Dummy test method with parameters.
+         *
+         * @param employeeService the employee service
+         * @param runnable        the unbound parameter
+         */
+        public void testWithParameters(EmployeeService employeeService, Runnable runnable) {
+
+            // empty test
+        }
+
+        /**
+         * Dummy test method with parameter that has no explicit binding.
+         *
+         * @param employee the employee
+         */
+        public void testWithJustInTimeParameter(Employee employee) {
+
+            // empty test
+        }
+
+        /**
+         * Dummy test method with parameter resolved by other enricher.
+         *
+         * @param employeeService the employee service
+         */
+        public void testWithResourceParameter(@ArquillianResource EmployeeService employeeService) {
+
+            // empty test
+        }
+
         /**
          * Retrieves the employee service.
          *
@@ -0,0 +1,183 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.arquillian.guice.impl.enricher;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.MembersInjector;
+import com.google.inject.Provider;
+import org.jboss.arquillian.guice.api.annotation.LazyInject;
+import org.jboss.arquillian.guice.impl.model.AuditedTestClass;
+import org.jboss.arquillian.guice.impl.model.EmployeeService;
+import org.jboss.arquillian.guice.impl.model.EmployeeServiceImpl;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the {@link LazyMembersInjector} class.
+ */
+public class LazyMembersInjectorTestCase {
+
+    /**
+     * Represents the injector.
+     */
+    private Injector injector;
+
+    /**
+     * Represents the number of provisioned employee services.
+     */
+    private int provisionCount;
+
+    /**
+     * Sets up the model environment.
+     */
+    @Before
+    public void setUp() {
+
+        // given
+        injector = Guice.createInjector(new AbstractModule() {
+            @Override
+            protected void configure() {
+                bind(EmployeeService.class).toProvider(new Provider<EmployeeService>() {
+                    public EmployeeService get() {
+                        provisionCount++;
+                        return new EmployeeServiceImpl();
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Tests the {@link LazyMembersInjector#injectMembers(Object)} method.
+     */
+    @Test
+    public void shouldNotProvisionBeforeFirstAccess() {
+
+        // given
+        TestClass testClass = new TestClass();
+
+        // when
+        LazyMembersInjector.create(injector, TestClass.class,
+                injector.getMembersInjector(TestClass.class)).injectMembers(testClass);
+
+        // then
+        assertNotNull("The employee service has not been injected.", testClass.employeeService);
+        assertEquals("The employee service has been provisioned.", 0, provisionCount);
+    }
+
+    /**
+     * Tests the {@link LazyMembersInjector#injectMembers(Object)} method.
+     */
+    @Test
+    public void shouldProvisionOnceOnFirstAccess() {
+
+        // given
+        TestClass testClass = new TestClass();
+        LazyMembersInjector.create(injector, TestClass.class,
+                injector.getMembersInjector(TestClass.class)).injectMembers(testClass);
+
+        // when
+        testClass.employeeService.getAll();
+        testClass.employeeService.getAll();
+
+        // then
+        assertEquals("The employee service has not been provisioned once.", 1, provisionCount);
+    }
+
+    /**
+     * Tests the {@link LazyMembersInjector#injectMembers(Object)} method.
+     */
+    @Test
+    public void shouldNotProvisionOnObjectMethods() {
+
+        // given
+        TestClass testClass = new TestClass();
+        LazyMembersInjector.create(injector, TestClass.class,
+                injector.getMembersInjector(TestClass.class)).injectMembers(testClass);
+
+        // when
+        String description = testClass.employeeService.toString();
+        boolean equal = testClass.employeeService.equals(testClass.employeeService);
+        testClass.employeeService.hashCode();
+
+        // then
+        assertTrue("The proxy does not describe the field type.",
+                description.contains(EmployeeService.class.getName()));
+        assertTrue("The proxy is not equal to itself.", equal);
+        assertEquals("The employee service has been provisioned.", 0, provisionCount);
+    }
+
+    /**
+     * Tests the {@link LazyMembersInjector#injectMembers(Object)} method when the field type is a non-public interface.
+     */
+    @Test
+    public void shouldInvokeNonPublicInterface() {
+
+        // given
+        Injector auditInjector = Guice.createInjector(new AuditedTestClass.AuditModule());
+        AuditedTestClass testClass = new AuditedTestClass();
+        LazyMembersInjector.create(auditInjector, AuditedTestClass.class,
+                auditInjector.getMembersInjector(AuditedTestClass.class)).injectMembers(testClass);
+
+        // when
+        String result = testClass.audit();
+
+        // then
+        assertEquals("The non-public interface has not been invoked.", "audited", result);
+    }
+
+    /**
+     * Tests the {@link LazyMembersInjector#create(Injector, Class, MembersInjector)} method.
+     */
+    @Test(expected = RuntimeException.class)
+    public void shouldRejectClassField() {
+
+        // when
+        LazyMembersInjector.create(injector, TestClassWithClassField.class,
+                injector.getMembersInjector(TestClassWithClassField.class));
+    }
+
+    /**
+     * A sample test class with lazily injected field.
+     */
+    private static class TestClass {
+
+        /**
+         * The lazily injected {@link EmployeeService}.
+         */
+        @LazyInject
+        EmployeeService employeeService;
+    }
+
+    /**
+     * A sample test class with lazily injected field declared with a class type.
+     */
+    private static class TestClassWithClassField {
+
+        /**
+         * The lazily injected {@link EmployeeServiceImpl}.
+         */
+        @LazyInject
+        EmployeeServiceImpl employeeService;
+    }
+}
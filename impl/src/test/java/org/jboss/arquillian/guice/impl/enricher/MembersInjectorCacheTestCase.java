@@ -0,0 +1,188 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.arquillian.guice.impl.enricher;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Inject;
+import com.google.inject.Injector;
+import com.google.inject.MembersInjector;
+import com.google.inject.TypeLiteral;
+import com.google.inject.matcher.Matchers;
+import com.google.inject.spi.TypeEncounter;
+import com.google.inject.spi.TypeListener;
+import org.jboss.arquillian.guice.impl.model.EmployeeModule;
+import org.jboss.arquillian.guice.impl.model.EmployeeService;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the {@link MembersInjectorCache} class.
+ */
+public class MembersInjectorCacheTestCase {
+
+    /**
+     * Represents the instance of the tested class.
+     */
+    private MembersInjectorCache instance;
+
+    /**
+     * Represents the injector.
+     */
+    private Injector injector;
+
+    /**
+     * Sets up the model environment.
+     */
+    @Before
+    public void setUp() {
+
+        // given
+        instance = new MembersInjectorCache(false);
+        injector = Guice.createInjector(new EmployeeModule());
+    }
+
+    /**
+     * Tests the {@link MembersInjectorCache#get(Injector, Class)} method.
+     */
+    @Test
+    public void shouldReuseMembersInjector() {
+
+        // when
+        MembersInjector<TestClass> membersInjector = instance.get(injector, TestClass.class);
+
+        // then
+        assertSame("The members injector has not been reused.", membersInjector,
+                instance.get(injector, TestClass.class));
+    }
+
+    /**
+     * Tests the {@link MembersInjectorCache#get(Injector, Class)} method.
+     */
+    @Test
+    public void shouldInvalidateMembersInjectorWhenInjectorChanges() {
+
+        // given
+        MembersInjector<TestClass> membersInjector = instance.get(injector, TestClass.class);
+
+        // when
+        MembersInjector<TestClass> result = instance.get(Guice.createInjector(new EmployeeModule()), TestClass.class);
+
+        // then
+        assertNotSame("The members injector has been reused.", membersInjector, result);
+    }
+
+    /**
+     * Tests the {@link MembersInjectorCache#get(Injector, Class)} method.
+     */
+    @Test
+    public void shouldInjectMembers() {
+
+        // given
+        TestClass testClass = new TestClass();
+
+        // when
+        instance.get(injector, TestClass.class).injectMembers(testClass);
+
+        // then
+        assertNotNull("The employee service has not been injected.", testClass.employeeService);
+    }
+
+    /**
+     * Tests the {@link MembersInjectorCache#get(Injector, Class)} method when the generated members injectors have not
+     * been enabled.
+     */
+    @Test
+    public void shouldNotUseGeneratedMembersInjectorByDefault() {
+
+        // when
+        MembersInjector<GeneratedMembersInjectorTestCase.TestClass> result =
+                instance.get(injector, GeneratedMembersInjectorTestCase.TestClass.class);
+
+        // then
+        assertFalse("The generated members injector has been used.", result instanceof GeneratedMembersInjector);
+    }
+
+    /**
+     * Tests the {@link MembersInjectorCache#get(Injector, Class)} method when the generated members injectors have
+     * been enabled.
+     */
+    @Test
+    public void shouldUseGeneratedMembersInjector() {
+
+        // given
+        instance = new MembersInjectorCache(true);
+
+        // when
+        MembersInjector<GeneratedMembersInjectorTestCase.TestClass> result =
+                instance.get(injector, GeneratedMembersInjectorTestCase.TestClass.class);
+
+        // then
+        assertTrue("The generated members injector has not been used.", result instanceof GeneratedMembersInjector);
+    }
+
+    /**
+     * Tests the {@link MembersInjectorCache#get(Injector, Class)} method when the injector has type listeners.
+     */
+    @Test
+    public void shouldNotifyTypeListeners() {
+
+        // given
+        final List<TypeLiteral<?>> encounteredTypes = new ArrayList<TypeLiteral<?>>();
+        instance = new MembersInjectorCache(true);
+        injector = Guice.createInjector(new EmployeeModule(), new AbstractModule() {
+            @Override
+            protected void configure() {
+                bindListener(Matchers.any(), new TypeListener() {
+                    public <I> void hear(TypeLiteral<I> type, TypeEncounter<I> encounter) {
+                        encounteredTypes.add(type);
+                    }
+                });
+            }
+        });
+
+        // when
+        MembersInjector<GeneratedMembersInjectorTestCase.TestClass> result =
+                instance.get(injector, GeneratedMembersInjectorTestCase.TestClass.class);
+
+        // then
+        assertFalse("The generated members injector has been used.", result instanceof GeneratedMembersInjector);
+        assertTrue("The type listener has not been notified.",
+                encounteredTypes.contains(TypeLiteral.get(GeneratedMembersInjectorTestCase.TestClass.class)));
+    }
+
+    /**
+     * A sample test class with single injection point.
+     */
+    private static class TestClass {
+
+        /**
+         * The injected {@link EmployeeService}.
+         */
+        @Inject
+        EmployeeService employeeService;
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.arquillian.guice.impl.index;
+
+import com.google.inject.Inject;
+import com.google.inject.Stage;
+import org.jboss.arquillian.guice.api.annotation.GuiceConfiguration;
+import org.jboss.arquillian.guice.impl.model.EmployeeModule;
+import org.jboss.arquillian.guice.impl.model.EmployeeService;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the {@link TestClassIndex} class against the index generated for the test sources.
+ */
+public class TestClassIndexTestCase {
+
+    /**
+     * Represents the instance of the tested class.
+     */
+    private TestClassIndex instance;
+
+    /**
+     * Sets up the model environment.
+     */
+    @Before
+    public void setUp() {
+
+        // given
+        instance = TestClassIndex.load(getClass().getClassLoader());
+    }
+
+    /**
+     * Tests the {@link TestClassIndex#getEntry(String)} method.
+     */
+    @Test
+    public void shouldIndexTestClass() {
+
+        // when
+        TestClassIndex.Entry entry = instance.getEntry(TestClass.class.getName());
+
+        // then
+        assertNotNull("The test class has not been indexed.", entry);
+        assertTrue("The test class does not declare custom injector.", entry.getCustomInjectors().isEmpty());
+    }
+
+    /**
+     * Tests the {@link TestClassIndex#getEntry(String)} method.
+     */
+    @Test
+    public void shouldNotIndexOtherClass() {
+
+        // when
+        TestClassIndex.Entry entry = instance.getEntry(TestClassIndexTestCase.class.getName());
+
+        // then
+        assertNull("The class has been indexed.", entry);
+    }
+
+    /**
+     * Tests the {@link TestClassIndex#load(ClassLoader)} method.
+     */
+    @Test
+    public void shouldLoadEmptyIndex() {
+
+        // when
+        instance = TestClassIndex.load(null);
+
+        // then
+        assertTrue("The index is not empty.", instance.isEmpty());
+    }
+
+    /**
+     * A sample unit test with a custom guice configuration.
+     */
+    @GuiceConfiguration(value = EmployeeModule.class, stage = Stage.PRODUCTION)
+    private static class TestClass {
+
+        /**
+         * The injected employee service.
+         */
+        @Inject
+        private EmployeeService employeeService;
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.arquillian.guice.impl.inject;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.Module;
+import com.google.inject.Stage;
+import org.jboss.arquillian.guice.impl.model.EmployeeService;
+import org.jboss.arquillian.guice.impl.model.EmployeeServiceImpl;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the {@link BindingCoverage} class.
+ */
+public class BindingCoverageTestCase {
+
+    /**
+     * Represents the instance of tested class.
+     */
+    private BindingCoverage instance;
+
+    /**
+     * Represents the injector key.
+     */
+    private InjectorKey injectorKey;
+
+    /**
+     * Represents the injector.
+     */
+    private Injector injector;
+
+    /**
+     * Sets up the model environment.
+     */
+    @Before
+    public void setUp() {
+
+        // given
+        instance = new BindingCoverage();
+        injectorKey = new InjectorKey(Collections.<Class<? extends Module>>singletonList(CoverageModule.class),
+                Stage.DEVELOPMENT);
+        injector = new InjectorBuilder(injectorKey, null, null, null,
+                Collections.<InjectorInstrumentation>singletonList(instance), null).call();
+    }
+
+    /**
+     * Tests the {@link BindingCoverage#isProvisioned(InjectorKey, Key)} method.
+     */
+    @Test
+    public void shouldRecordProvisionedBinding() {
+
+        // when
+        injector.getInstance(EmployeeService.class);
+
+        // then
+        assertEquals("The binding has not been recorded as provisioned.", Boolean.TRUE,
+                instance.isProvisioned(injectorKey, Key.get(EmployeeService.class)));
+    }
+
+    /**
+     * Tests the {@link BindingCoverage#isProvisioned(InjectorKey, Key)} method.
+     */
+    @Test
+    public void shouldRecordUnprovisionedBinding() {
+
+        // when
+        Boolean result = instance.isProvisioned(injectorKey, Key.get(EmployeeService.class));
+
+        // then
+        assertEquals("The binding has been recorded as provisioned.", Boolean.FALSE, result);
+    }
+
+    /**
+     * Tests the {@link BindingCoverage#isProvisioned(InjectorKey, Key)} method.
+     */
+    @Test
+    public void shouldNotReportBuiltInBindings() {
+
+        // when
+        Boolean result = instance.isProvisioned(injectorKey, Key.get(Injector.class));
+
+        // then
+        assertNull("The built in binding has been reported.", result);
+    }
+
+    /**
+     * Tests the {@link BindingCoverage#writeReport(File)} method.
+     *
+     * @throws IOException if any error occurs
+     */
+    @Test
+    public void shouldWriteReport() throws IOException {
+
+        // given
+        instance.addTestClass(injectorKey, BindingCoverageTestCase.class);
+        injector.getInstance(EmployeeService.class);
+        File directory = new File("target", "binding-coverage-" + System.nanoTime());
+
+        // when
+        File report = instance.writeReport(directory);
+
+        // then
+        String content = read(report);
+        assertEquals("The report has been written to invalid file.", BindingCoverage.REPORT_FILE_NAME,
+                report.getName());
+        assertTrue("The report does not list the test class.",
+                content.contains("\"testClasses\":[\"" + BindingCoverageTestCase.class.getName() + "\"]"));
+        assertTrue("The report does not list the module.", content.contains(CoverageModule.class.getName()));
+        assertTrue("The report does not count the provisioned binding.", content.contains("\"provisionedCount\":1"));
+        assertTrue("The report does not count the unprovisioned binding.",
+                content.contains("\"unprovisionedCount\":1"));
+    }
+
+    /**
+     * Reads the content of the given file.
+     *
+     * @param file the file
+     *
+     * @return the file content
+     *
+     * @throws IOException if any error occurs
+     */
+    private String read(File file) throws IOException {
+
+        StringBuilder content = new StringBuilder();
+        BufferedReader reader = new BufferedReader(new FileReader(file));
+
+        try {
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                content.append(line);
+            }
+        } finally {
+            reader.close();
+        }
+
+        return content.toString();
+    }
+
+    /**
+     * A sample module with one binding used by the tests and one that is never provisioned.
+     */
+    public static class CoverageModule extends AbstractModule {
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected void configure() {
+
+            bind(EmployeeService.class).to(EmployeeServiceImpl.class);
+            bind(List.class).to(UnusedList.class);
+        }
+    }
+
+    /**
+     * A sample list implementation that is never provisioned.
+     */
+    @SuppressWarnings("rawtypes")
+    public static class UnusedList extends java.util.ArrayList {
+
+        /**
+         * Represents the serial version uid.
+         */
+        private static final long serialVersionUID = 1L;
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.arquillian.guice.impl.inject;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Injector;
+import com.google.inject.Module;
+import com.google.inject.Stage;
+import org.jboss.arquillian.guice.impl.model.EmployeeModule;
+import org.jboss.arquillian.guice.impl.model.EmployeeServiceImpl;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the {@link ConstructionReport} class.
+ */
+public class ConstructionReportTestCase {
+
+    /**
+     * Represents the instance of tested class.
+     */
+    private ConstructionReport instance;
+
+    /**
+     * Represents the injector key.
+     */
+    private InjectorKey injectorKey;
+
+    /**
+     * Sets up the model environment.
+     */
+    @Before
+    public void setUp() {
+
+        // given
+        instance = new ConstructionReport();
+        injectorKey = new InjectorKey(Arrays.<Class<? extends Module>>asList(EmployeeModule.class,
+                SingletonModule.class), Stage.DEVELOPMENT);
+    }
+
+    /**
+     * Tests the {@link ConstructionReport#addConstruction(InjectorKey, InjectorConstruction)} method.
+     */
+    @Test
+    public void shouldMeasureConstruction() {
+
+        // when
+        new InjectorBuilder(injectorKey, null, null, null, null, instance).call();
+
+        // then
+        List<InjectorConstruction> result = instance.getConstructions(injectorKey);
+        assertEquals("The construction has not been measured.", 1, result.size());
+
+        InjectorConstruction construction = result.get(0);
+        assertEquals("The modules have not been measured.", 2, construction.getModules().size());
+        assertEquals("The module is invalid.", EmployeeModule.class,
+                construction.getModules().get(0).getModuleClass());
+        assertEquals("The module bindings are invalid.", 1, construction.getModules().get(0).getBindings());
+        assertEquals("The module bindings are invalid.", 1, construction.getModules().get(1).getBindings());
+        assertEquals("The singletons are invalid.", 1, construction.getSingletons());
+        assertTrue("The just in time bindings have not been counted.", construction.getJustInTimeBindings() > 0);
+        assertTrue("The total time is invalid.",
+                construction.getTotalTime() >= construction.getCreateInjectorTime());
+    }
+
+    /**
+     * Tests the {@link ConstructionReport#addConstruction(InjectorKey, InjectorConstruction)} method when the module
+     * elements are being cached.
+     */
+    @Test
+    public void shouldMeasureCachedModules() {
+
+        // given
+        ModuleElementsCache moduleElementsCache = new ModuleElementsCache();
+
+        // when
+        new InjectorBuilder(injectorKey, null, moduleElementsCache, null, null, instance).call();
+        new InjectorBuilder(injectorKey, null, moduleElementsCache, null, null, instance).call();
+
+        // then
+        List<InjectorConstruction> result = instance.getConstructions(injectorKey);
+        assertEquals("The constructions have not been measured.", 2, result.size());
+        assertTrue("The module has not been cached.", result.get(1).getModules().get(0).isCached());
+        assertEquals("The module bindings are invalid.", 1, result.get(1).getModules().get(0).getBindings());
+    }
+
+    /**
+     * Tests the {@link ConstructionReport#addConstruction(InjectorKey, InjectorConstruction)} method when the modules
+     * install the same module.
+     */
+    @Test
+    public void shouldMeasureOverlappingModules() {
+
+        // given
+        InjectorKey overlappingKey = new InjectorKey(Arrays.<Class<? extends Module>>asList(
+                ModuleElementsCacheTestCase.FirstServletModule.class,
+                ModuleElementsCacheTestCase.SecondServletModule.class), Stage.DEVELOPMENT);
+
+        // when
+        Injector injector = new InjectorBuilder(overlappingKey, null, null, null, null, instance).call();
+
+        // then
+        assertNotNull("The injector hasn't been created.", injector);
+        assertEquals("The modules have not been measured.", 2,
+                instance.getConstructions(overlappingKey).get(0).getModules().size());
+    }
+
+    /**
+     * Tests the {@link ConstructionReport#writeReport(File)} method.
+     *
+     * @throws IOException if any error occurs
+     */
+    @Test
+    public void shouldWriteReport() throws IOException {
+
+        // given
+        instance.addTestClass(injectorKey, ConstructionReportTestCase.class);
+        new InjectorBuilder(injectorKey, null, null, null, null, instance).call();
+        File directory = new File("target", "construction-report-" + System.nanoTime());
+
+        // when
+        File report = instance.writeReport(directory);
+
+        // then
+        assertEquals("The report has been written to invalid file.", ConstructionReport.REPORT_FILE_NAME,
+                report.getName());
+        assertTrue("The report has not been written.", report.length() > 0);
+        assertTrue("The report summary has not been written.",
+                new File(directory, ConstructionReport.SUMMARY_FILE_NAME).length() > 0);
+    }
+
+    /**
+     * A sample module with single singleton binding.
+     */
+    public static class SingletonModule extends AbstractModule {
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected void configure() {
+
+            bind(Object.class).to(EmployeeServiceImpl.class).asEagerSingleton();
+        }
+    }
+}
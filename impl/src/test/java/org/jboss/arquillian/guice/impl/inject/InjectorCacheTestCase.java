@@ -0,0 +1,100 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.arquillian.guice.impl.inject;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Module;
+import com.google.inject.Stage;
+import org.jboss.arquillian.guice.impl.model.EmployeeModule;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests the {@link InjectorCache} class.
+ */
+public class InjectorCacheTestCase {
+
+    /**
+     * Represents the instance of the tested class.
+     */
+    private InjectorCache instance;
+
+    /**
+     * Sets up the model environment.
+     */
+    @Before
+    public void setUp() {
+
+        // given
+        instance = new InjectorCache(1);
+    }
+
+    /**
+     * Tests the {@link InjectorCache#get(InjectorKey)} method.
+     */
+    @Test
+    public void shouldRetrieveInjector() {
+
+        // given
+        Injector injector = Guice.createInjector(new EmployeeModule());
+        instance.put(key(EmployeeModule.class), injector);
+
+        // when
+        Injector result = instance.get(key(EmployeeModule.class));
+
+        // then
+        assertSame("The cached injector was not returned.", injector, result);
+    }
+
+    /**
+     * Tests the {@link InjectorCache#put(InjectorKey, Injector)} method when the cache is full.
+     */
+    @Test
+    public void shouldEvictLeastRecentlyUsedInjector() {
+
+        // given
+        instance.put(key(EmployeeModule.class), Guice.createInjector(new EmployeeModule()));
+
+        // when
+        instance.put(new InjectorKey(Collections.<Class<? extends Module>>emptyList(), Stage.DEVELOPMENT),
+                Guice.createInjector());
+
+        // then
+        assertEquals("The cache exceeded its maximum size.", 1, instance.size());
+        assertNull("The least recently used injector was not evicted.", instance.get(key(EmployeeModule.class)));
+    }
+
+    /**
+     * Creates the injector key for the given module class.
+     *
+     * @param module the module class
+     *
+     * @return the injector key
+     */
+    private static InjectorKey key(Class<? extends Module> module) {
+
+        return new InjectorKey(Arrays.<Class<? extends Module>>asList(module), Stage.DEVELOPMENT);
+    }
+}
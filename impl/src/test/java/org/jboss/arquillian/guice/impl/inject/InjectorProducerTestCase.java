@@ -16,13 +16,19 @@
  */
 package org.jboss.arquillian.guice.impl.inject;
 
+import com.google.inject.AbstractModule;
 import com.google.inject.Guice;
 import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.Stage;
+import org.jboss.arquillian.core.api.annotation.ApplicationScoped;
 import org.jboss.arquillian.guice.api.annotation.GuiceConfiguration;
 import org.jboss.arquillian.guice.api.annotation.GuiceInjector;
 import org.jboss.arquillian.guice.api.annotation.GuiceWebConfiguration;
 import org.jboss.arquillian.guice.api.utils.InjectorHolder;
+import org.jboss.arquillian.guice.impl.configuration.GuiceExtensionConfiguration;
 import org.jboss.arquillian.guice.impl.model.EmployeeModule;
+import org.jboss.arquillian.guice.impl.model.EmployeeService;
 import org.jboss.arquillian.test.spi.context.ClassContext;
 import org.jboss.arquillian.test.spi.event.suite.AfterSuite;
 import org.jboss.arquillian.test.spi.event.suite.BeforeClass;
@@ -32,11 +38,18 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
 
 /**
  * Tests the {@link InjectorProducer} class.
@@ -148,6 +161,292 @@ public class InjectorProducerTestCase extends AbstractTestTestBase {
         assertNotNull("The injector hasn't been created.", getManager().resolve(Injector.class));
     }
 
+    /**
+     * Tests the {@link InjectorProducer#initInjector(BeforeClass)} method when the injector cache is enabled.
+     */
+    @Test
+    public void shouldReuseCachedInjector() {
+
+        // given
+        GuiceExtensionConfiguration configuration = new GuiceExtensionConfiguration();
+        configuration.setInjectorCacheSize(1);
+        bind(ApplicationScoped.class, GuiceExtensionConfiguration.class, configuration);
+        getManager().fire(new BeforeSuite());
+
+        getManager().fire(new BeforeClass(TestClass.class));
+        Injector injector = getManager().resolve(Injector.class);
+
+        // when
+        getManager().fire(new BeforeClass(TestClassWithSameConfiguration.class));
+
+        // then
+        assertSame("The cached injector was not reused.", injector, getManager().resolve(Injector.class));
+    }
+
+    /**
+     * Tests the {@link InjectorProducer#initInjector(BeforeClass)} method when the injector cache is disabled.
+     */
+    @Test
+    public void shouldNotReuseInjector() {
+
+        // given
+        getManager().fire(new BeforeClass(TestClass.class));
+        Injector injector = getManager().resolve(Injector.class);
+
+        // when
+        getManager().fire(new BeforeClass(TestClassWithSameConfiguration.class));
+
+        // then
+        assertNotSame("The injector has been reused.", injector, getManager().resolve(Injector.class));
+    }
+
+    /**
+     * Tests the {@link InjectorProducer#initInjector(BeforeClass)} method when the parent modules has been configured.
+     */
+    @Test
+    public void shouldCreateChildInjector() {
+
+        // given
+        GuiceExtensionConfiguration configuration = new GuiceExtensionConfiguration();
+        configuration.setParentModules(Arrays.asList(EmployeeModule.class.getName()));
+        bind(ApplicationScoped.class, GuiceExtensionConfiguration.class, configuration);
+        getManager().fire(new BeforeSuite());
+
+        // when
+        getManager().fire(new BeforeClass(TestClassWithoutModules.class));
+
+        // then
+        Injector injector = getManager().resolve(Injector.class);
+        assertNotNull("The injector hasn't been created.", injector);
+        assertNotNull("The child injector hasn't been created.", injector.getParent());
+        assertNotNull("The parent binding could not be resolved.", injector.getInstance(EmployeeService.class));
+    }
+
+    /**
+     * Tests the {@link InjectorProducer#initInjector(BeforeClass)} method when the child injectors differ only by the
+     * stage declared by the test classes.
+     */
+    @Test
+    public void shouldReuseCachedChildInjectorInParentStage() {
+
+        // given
+        GuiceExtensionConfiguration configuration = new GuiceExtensionConfiguration();
+        configuration.setParentModules(Arrays.asList(EmployeeModule.class.getName()));
+        configuration.setInjectorCacheSize(1);
+        bind(ApplicationScoped.class, GuiceExtensionConfiguration.class, configuration);
+        getManager().fire(new BeforeSuite());
+
+        getManager().fire(new BeforeClass(TestClassWithoutModules.class));
+        Injector injector = getManager().resolve(Injector.class);
+
+        // when
+        getManager().fire(new BeforeClass(TestClassWithoutModulesInProductionStage.class));
+
+        // then
+        assertSame("The cached injector was not reused.", injector, getManager().resolve(Injector.class));
+        assertEquals("The injector was created in invalid stage.", Stage.DEVELOPMENT,
+                injector.getInstance(Stage.class));
+    }
+
+    /**
+     * Tests the {@link InjectorProducer#initInjector(BeforeClass)} method when the test class declares the stage.
+     */
+    @Test
+    public void shouldCreateInjectorInDeclaredStage() {
+
+        // given
+        GuiceExtensionConfiguration configuration = new GuiceExtensionConfiguration();
+        configuration.setStage(Stage.DEVELOPMENT);
+        bind(ApplicationScoped.class, GuiceExtensionConfiguration.class, configuration);
+
+        // when
+        getManager().fire(new BeforeClass(TestClassWithProductionStage.class));
+
+        // then
+        assertEquals("The injector was created in invalid stage.", Stage.PRODUCTION,
+                getManager().resolve(Injector.class).getInstance(Stage.class));
+    }
+
+    /**
+     * Tests the {@link InjectorProducer#initInjector(BeforeClass)} method when the stage has been configured for the
+     * extension.
+     */
+    @Test
+    public void shouldCreateInjectorInConfiguredStage() {
+
+        // given
+        GuiceExtensionConfiguration configuration = new GuiceExtensionConfiguration();
+        configuration.setStage(Stage.PRODUCTION);
+        bind(ApplicationScoped.class, GuiceExtensionConfiguration.class, configuration);
+
+        // when
+        getManager().fire(new BeforeClass(TestClass.class));
+
+        // then
+        assertEquals("The injector was created in invalid stage.", Stage.PRODUCTION,
+                getManager().resolve(Injector.class).getInstance(Stage.class));
+    }
+
+    /**
+     * Tests the {@link InjectorProducer#initInjector(BeforeClass)} method when the injector has been prebuilt in the
+     * background.
+     */
+    @Test
+    public void shouldUsePrebuiltInjector() {
+
+        // given
+        GuiceExtensionConfiguration configuration = new GuiceExtensionConfiguration();
+        configuration.setPrebuildTestClasses(Arrays.asList(TestClass.class.getName()));
+        bind(ApplicationScoped.class, GuiceExtensionConfiguration.class, configuration);
+        getManager().fire(new BeforeSuite());
+
+        // when
+        getManager().fire(new BeforeClass(TestClass.class));
+
+        // then
+        Injector injector = getManager().resolve(Injector.class);
+        assertNotNull("The injector hasn't been created.", injector);
+        assertNotNull("The injector is invalid.", injector.getInstance(EmployeeService.class));
+    }
+
+    /**
+     * Tests the {@link InjectorProducer#initInjector(BeforeClass)} method when the modules are configured
+     * concurrently.
+     */
+    @Test
+    public void shouldConfigureModulesConcurrently() {
+
+        // given
+        GuiceExtensionConfiguration configuration = new GuiceExtensionConfiguration();
+        configuration.setParallelModuleConfiguration(true);
+        bind(ApplicationScoped.class, GuiceExtensionConfiguration.class, configuration);
+        getManager().fire(new BeforeSuite());
+
+        // when
+        getManager().fire(new BeforeClass(TestClass.class));
+
+        // then
+        Injector injector = getManager().resolve(Injector.class);
+        assertNotNull("The injector hasn't been created.", injector);
+        assertNotNull("The injector is invalid.", injector.getInstance(EmployeeService.class));
+    }
+
+    /**
+     * Tests the {@link InjectorProducer#initInjector(BeforeClass)} method when the modules configured concurrently
+     * install the same module.
+     */
+    @Test
+    public void shouldConfigureOverlappingModulesConcurrently() {
+
+        // given
+        GuiceExtensionConfiguration configuration = new GuiceExtensionConfiguration();
+        configuration.setParallelModuleConfiguration(true);
+        bind(ApplicationScoped.class, GuiceExtensionConfiguration.class, configuration);
+        getManager().fire(new BeforeSuite());
+
+        // when
+        getManager().fire(new BeforeClass(TestClassWithOverlappingModules.class));
+
+        // then
+        assertNotNull("The injector hasn't been created.", getManager().resolve(Injector.class));
+    }
+
+    /**
+     * Tests the {@link InjectorProducer#initInjector(BeforeClass)} method when the modules configured concurrently
+     * install the same module, which must be configured only once along with each of the modules.
+     */
+    @Test
+    public void shouldConfigureSharedModuleOnce() {
+
+        // given
+        GuiceExtensionConfiguration configuration = new GuiceExtensionConfiguration();
+        configuration.setParallelModuleConfiguration(true);
+        bind(ApplicationScoped.class, GuiceExtensionConfiguration.class, configuration);
+        getManager().fire(new BeforeSuite());
+        FirstSharingModule.configured.set(0);
+        SecondSharingModule.configured.set(0);
+        SharedModule.configured.set(0);
+
+        // when
+        getManager().fire(new BeforeClass(TestClassWithSharingModules.class));
+
+        // then
+        Injector injector = getManager().resolve(Injector.class);
+        assertNotNull("The injector hasn't been created.", injector);
+        assertNotNull("The injector is invalid.", injector.getInstance(EmployeeService.class));
+        assertEquals("The first module has not been configured once.", 1, FirstSharingModule.configured.get());
+        assertEquals("The second module has not been configured once.", 1, SecondSharingModule.configured.get());
+        assertEquals("The shared module has not been configured once.", 1, SharedModule.configured.get());
+    }
+
+    /**
+     * Tests the {@link InjectorProducer#initSlowProvisionDetector(BeforeSuite)} method when the Guice version in use
+     * does not support the provision listeners.
+     */
+    @Test
+    public void shouldFailSlowProvisionDetectionWithoutProvisionListeners() {
+
+        // given
+        assumeTrue(!ProvisionObserverModule.isProvisionListenerSupported());
+        GuiceExtensionConfiguration configuration = new GuiceExtensionConfiguration();
+        configuration.setSlowProvisionThresholdMs(10);
+        bind(ApplicationScoped.class, GuiceExtensionConfiguration.class, configuration);
+
+        // when
+        try {
+            getManager().fire(new BeforeSuite());
+            fail("The unsupported slow provision detection has not been reported.");
+        } catch (RuntimeException e) {
+
+            // then
+            assertTrue("The failure does not name the property.",
+                    e.getMessage().contains("slowProvisionThresholdMs"));
+        }
+    }
+
+    /**
+     * Tests the {@link InjectorProducer#initInjector(BeforeClass)} method when the minimal injectors are enabled.
+     */
+    @Test
+    public void shouldCreateMinimalInjector() {
+
+        // given
+        GuiceExtensionConfiguration configuration = new GuiceExtensionConfiguration();
+        configuration.setMinimalInjector(true);
+        bind(ApplicationScoped.class, GuiceExtensionConfiguration.class, configuration);
+        getManager().fire(new BeforeSuite());
+
+        // when
+        getManager().fire(new BeforeClass(TestClass.class));
+
+        // then
+        Injector injector = getManager().resolve(Injector.class);
+        assertNotNull("The injector hasn't been created.", injector);
+        assertNull("The unused binding has not been pruned.",
+                injector.getExistingBinding(Key.get(EmployeeService.class)));
+    }
+
+    /**
+     * Tests the {@link InjectorProducer#initInjector(BeforeClass)} method when the test class exceeds its startup
+     * budget.
+     */
+    @Test
+    public void shouldFailOverStartupBudget() {
+
+        // when
+        try {
+            getManager().fire(new BeforeClass(TestClassWithStartupBudget.class));
+            fail("The exceeded startup budget has not been reported.");
+        } catch (RuntimeException e) {
+
+            // then
+            assertTrue("The failure does not break down the startup.",
+                    e.getMessage().contains("injector creation:"));
+        }
+
+        assertNotNull("The startup budget has not been retained.", getManager().resolve(StartupBudget.class));
+    }
+
     /**
      * A sample unit test with a custom guice configuration.
      *
@@ -166,6 +465,103 @@ public class InjectorProducerTestCase extends AbstractTestTestBase {
         }
     }
 
+    /**
+     * A sample unit test that declares the same guice configuration as {@link TestClass}.
+     */
+    @GuiceConfiguration(EmployeeModule.class)
+    private static class TestClassWithSameConfiguration {
+
+        /**
+         * Dummy test method.
+         */
+        @Test
+        public void test() {
+
+            // empty test
+        }
+    }
+
+    /**
+     * A sample unit test that does not declare any module on its own.
+     */
+    @GuiceConfiguration({})
+    private static class TestClassWithoutModules {
+
+        /**
+         * Dummy test method.
+         */
+        @Test
+        public void test() {
+
+            // empty test
+        }
+    }
+
+    /**
+     * A sample unit test that does not declare any module on its own, but declares the production stage.
+     */
+    @GuiceConfiguration(value = {}, stage = Stage.PRODUCTION)
+    private static class TestClassWithoutModulesInProductionStage {
+
+        /**
+         * Dummy test method.
+         */
+        @Test
+        public void test() {
+
+            // empty test
+        }
+    }
+
+    /**
+     * A sample unit test whose modules install the same module.
+     */
+    @GuiceConfiguration({ModuleElementsCacheTestCase.FirstServletModule.class,
+            ModuleElementsCacheTestCase.SecondServletModule.class})
+    private static class TestClassWithOverlappingModules {
+
+        /**
+         * Dummy test method.
+         */
+        @Test
+        public void test() {
+
+            // empty test
+        }
+    }
+
+    /**
+     * A sample unit test whose modules install the same counted module.
+     */
+    @GuiceConfiguration({FirstSharingModule.class, SecondSharingModule.class})
+    private static class TestClassWithSharingModules {
+
+        /**
+         * Dummy test method.
+         */
+        @Test
+        public void test() {
+
+            // empty test
+        }
+    }
+
+    /**
+     * A sample unit test that declares the production stage.
+     */
+    @GuiceConfiguration(value = EmployeeModule.class, stage = Stage.PRODUCTION)
+    private static class TestClassWithProductionStage {
+
+        /**
+         * Dummy test method.
+         */
+        @Test
+        public void test() {
+
+            // empty test
+        }
+    }
+
     /**
      * A sample unit test with a custom guice configuration.
      *
@@ -211,4 +607,118 @@ public class InjectorProducerTestCase extends AbstractTestTestBase {
             // empty test
         }
     }
+
+    /**
+     * A sample unit test whose modules exceed its startup budget.
+     */
+    @GuiceConfiguration(value = SlowModule.class, startupBudget = 1)
+    private static class TestClassWithStartupBudget {
+
+        /**
+         * Dummy test method.
+         */
+        @Test
+        public void test() {
+
+            // empty test
+        }
+    }
+
+    /**
+     * A sample module that is slow to configure.
+     */
+    public static class SlowModule extends AbstractModule {
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected void configure() {
+
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * A sample module installed by several modules, equal to any other instance of the module.
+     */
+    public static class SharedModule extends AbstractModule {
+
+        /**
+         * Represents the number of times the module has been configured.
+         */
+        static final AtomicInteger configured = new AtomicInteger();
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected void configure() {
+
+            configured.incrementAndGet();
+            install(new EmployeeModule());
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof SharedModule;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int hashCode() {
+            return SharedModule.class.hashCode();
+        }
+    }
+
+    /**
+     * A sample module that installs the shared module.
+     */
+    public static class FirstSharingModule extends AbstractModule {
+
+        /**
+         * Represents the number of times the module has been configured.
+         */
+        static final AtomicInteger configured = new AtomicInteger();
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected void configure() {
+
+            configured.incrementAndGet();
+            install(new SharedModule());
+        }
+    }
+
+    /**
+     * Another sample module that installs the shared module.
+     */
+    public static class SecondSharingModule extends AbstractModule {
+
+        /**
+         * Represents the number of times the module has been configured.
+         */
+        static final AtomicInteger configured = new AtomicInteger();
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected void configure() {
+
+            configured.incrementAndGet();
+            install(new SharedModule());
+        }
+    }
 }
@@ -0,0 +1,163 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.arquillian.guice.impl.inject;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Binder;
+import com.google.inject.Injector;
+import com.google.inject.Module;
+import com.google.inject.Stage;
+import com.google.inject.servlet.ServletModule;
+import org.jboss.arquillian.guice.impl.model.EmployeeService;
+import org.jboss.arquillian.guice.impl.model.EmployeeServiceImpl;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+/**
+ * Tests the {@link ModuleElementsCache} class.
+ */
+public class ModuleElementsCacheTestCase {
+
+    /**
+     * Represents the instance of the tested class.
+     */
+    private ModuleElementsCache instance;
+
+    /**
+     * Sets up the model environment.
+     */
+    @Before
+    public void setUp() {
+
+        // given
+        instance = new ModuleElementsCache();
+        CountingModule.configured = 0;
+    }
+
+    /**
+     * Tests the {@link ModuleElementsCache#get(InjectorKey)} method.
+     */
+    @Test
+    public void shouldConfigureModulesOnce() {
+
+        // given
+        InjectorKey injectorKey = new InjectorKey(
+                Collections.<Class<? extends Module>>singletonList(CountingModule.class), Stage.DEVELOPMENT);
+
+        // when
+        Injector first = new InjectorBuilder(injectorKey, null, instance, null, null, null).call();
+        Injector second = new InjectorBuilder(injectorKey, null, instance, null, null, null).call();
+
+        // then
+        assertNotNull("The recorded binding is missing.", first.getInstance(EmployeeService.class));
+        assertNotNull("The recorded binding is missing.", second.getInstance(EmployeeService.class));
+        assertEquals("The module has been configured more than once.", 1, CountingModule.configured);
+    }
+
+    /**
+     * Tests the {@link ModuleElementsCache#get(InjectorKey)} method for different stages.
+     */
+    @Test
+    public void shouldRecordModulesPerStage() {
+
+        // when
+        new InjectorBuilder(new InjectorKey(Collections.<Class<? extends Module>>singletonList(CountingModule.class),
+                Stage.DEVELOPMENT), null, instance, null, null, null).call();
+        new InjectorBuilder(new InjectorKey(Collections.<Class<? extends Module>>singletonList(CountingModule.class),
+                Stage.PRODUCTION), null, instance, null, null, null).call();
+
+        // then
+        assertEquals("The module has not been configured for each stage.", 2, CountingModule.configured);
+    }
+
+    /**
+     * Tests the {@link ModuleElementsCache#get(InjectorKey)} method when the modules install the same module.
+     */
+    @Test
+    public void shouldReplayOverlappingModules() {
+
+        // given
+        InjectorKey injectorKey = new InjectorKey(Arrays.<Class<? extends Module>>asList(
+                FirstServletModule.class, SecondServletModule.class), Stage.DEVELOPMENT);
+
+        // when
+        Injector first = new InjectorBuilder(injectorKey, null, instance, null, null, null).call();
+        Injector second = new InjectorBuilder(injectorKey, null, instance, null, null, null).call();
+
+        // then
+        assertNotNull("The injector hasn't been created.", first);
+        assertNotNull("The injector hasn't been created.", second);
+        assertNotNull("The elements have not been recorded.", instance.get(injectorKey));
+    }
+
+    /**
+     * A module that counts how many times it has been configured.
+     */
+    public static class CountingModule implements Module {
+
+        /**
+         * Represents the number of times the module has been configured.
+         */
+        private static int configured;
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void configure(Binder binder) {
+
+            configured++;
+            binder.bind(EmployeeService.class).to(EmployeeServiceImpl.class);
+        }
+    }
+
+    /**
+     * A module that installs the servlet module.
+     */
+    public static class FirstServletModule extends AbstractModule {
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected void configure() {
+
+            install(new ServletModule());
+        }
+    }
+
+    /**
+     * Another module that installs the servlet module.
+     */
+    public static class SecondServletModule extends AbstractModule {
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected void configure() {
+
+            install(new ServletModule());
+        }
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.arquillian.guice.impl.inject;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Inject;
+import com.google.inject.Injector;
+import com.google.inject.Module;
+import com.google.inject.Stage;
+import org.jboss.arquillian.guice.impl.model.EmployeeService;
+import org.jboss.arquillian.guice.impl.model.EmployeeServiceImpl;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the {@link ProvisionTracer} class.
+ */
+public class ProvisionTracerTestCase {
+
+    /**
+     * Represents the instance of tested class.
+     */
+    private ProvisionTracer instance;
+
+    /**
+     * Represents the injector key.
+     */
+    private InjectorKey injectorKey;
+
+    /**
+     * Represents the injector.
+     */
+    private Injector injector;
+
+    /**
+     * Sets up the model environment.
+     */
+    @Before
+    public void setUp() {
+
+        // given
+        instance = new ProvisionTracer();
+        injectorKey = new InjectorKey(Collections.<Class<? extends Module>>singletonList(TracedModule.class),
+                Stage.DEVELOPMENT);
+        injector = new InjectorBuilder(injectorKey, null, null, null,
+                Collections.<InjectorInstrumentation>singletonList(instance), null).call();
+    }
+
+    /**
+     * Tests the {@link ProvisionTracer#getStacks(InjectorKey)} method.
+     */
+    @Test
+    public void shouldTraceInjectorCreation() {
+
+        // when
+        Map<String, Long> stacks = instance.getStacks(injectorKey);
+
+        // then
+        assertTrue("The eager singleton has not been traced.", containsStack(stacks,
+                ProvisionTracer.CREATE_INJECTOR_PHASE, EmployeeServiceImpl.class));
+        assertFalse("The injection has been traced.", containsStack(stacks,
+                ProvisionTracer.INJECTION_PHASE, TracedClient.class));
+    }
+
+    /**
+     * Tests the {@link ProvisionTracer#getStacks(InjectorKey)} method.
+     */
+    @Test
+    public void shouldTraceInjection() {
+
+        // when
+        injector.getInstance(TracedClient.class);
+
+        // then
+        assertTrue("The injection has not been traced.", containsStack(instance.getStacks(injectorKey),
+                ProvisionTracer.INJECTION_PHASE, TracedClient.class));
+    }
+
+    /**
+     * Tests the {@link ProvisionTracer#getStacks(InjectorKey)} method when another injector is created for the same
+     * key.
+     */
+    @Test
+    public void shouldTraceRepeatedInjectorCreation() {
+
+        // when
+        new InjectorBuilder(injectorKey, null, null, null,
+                Collections.<InjectorInstrumentation>singletonList(instance), null).call();
+
+        // then
+        assertFalse("The eager singleton has been traced within the injection.", containsStack(
+                instance.getStacks(injectorKey), ProvisionTracer.INJECTION_PHASE, EmployeeServiceImpl.class));
+    }
+
+    /**
+     * Tests the {@link ProvisionTracer#writeReport(File)} method.
+     *
+     * @throws IOException if any error occurs
+     */
+    @Test
+    public void shouldWriteReport() throws IOException {
+
+        // given
+        instance.addTestClass(injectorKey, ProvisionTracerTestCase.class);
+        injector.getInstance(TracedClient.class);
+        File directory = new File("target", "provision-trace-" + System.nanoTime());
+
+        // when
+        File report = instance.writeReport(directory);
+
+        // then
+        assertEquals("The report has been written to invalid file.", ProvisionTracer.REPORT_FILE_NAME,
+                report.getName());
+
+        for (String line : readLines(report)) {
+
+            assertTrue("The stack does not start with the test class.",
+                    line.startsWith(ProvisionTracerTestCase.class.getName() + ";"));
+            assertTrue("The stack is not weighted.", line.matches(".* [0-9]+"));
+        }
+    }
+
+    /**
+     * Returns whether any of the stacks starts in the given phase and contains the given type.
+     *
+     * @param stacks the traced stacks
+     * @param phase  the phase
+     * @param type   the type
+     *
+     * @return true if such stack has been traced, false otherwise
+     */
+    private boolean containsStack(Map<String, Long> stacks, String phase, Class<?> type) {
+
+        for (String stack : stacks.keySet()) {
+
+            if (stack.startsWith(phase + ";") && stack.contains(type.getName())) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Reads the lines of the given file.
+     *
+     * @param file the file
+     *
+     * @return the file lines
+     *
+     * @throws IOException if any error occurs
+     */
+    private List<String> readLines(File file) throws IOException {
+
+        List<String> lines = new ArrayList<String>();
+        BufferedReader reader = new BufferedReader(new FileReader(file));
+
+        try {
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        } finally {
+            reader.close();
+        }
+
+        return lines;
+    }
+
+    /**
+     * A sample module with the eager singleton.
+     */
+    public static class TracedModule extends AbstractModule {
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected void configure() {
+
+            bind(EmployeeService.class).to(EmployeeServiceImpl.class).asEagerSingleton();
+        }
+    }
+
+    /**
+     * A sample class depending on the eager singleton.
+     */
+    public static class TracedClient {
+
+        /**
+         * Represents the employee service.
+         */
+        private final EmployeeService employeeService;
+
+        /**
+         * Creates new instance of {@link TracedClient} class.
+         *
+         * @param employeeService the employee service
+         */
+        @Inject
+        public TracedClient(EmployeeService employeeService) {
+            this.employeeService = employeeService;
+        }
+
+        /**
+         * Retrieves the employee service.
+         *
+         * @return the employee service
+         */
+        public EmployeeService getEmployeeService() {
+            return employeeService;
+        }
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.arquillian.guice.impl.inject;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Binding;
+import com.google.inject.Inject;
+import com.google.inject.Key;
+import com.google.inject.Stage;
+import com.google.inject.name.Named;
+import com.google.inject.name.Names;
+import com.google.inject.spi.Element;
+import com.google.inject.spi.Elements;
+import org.jboss.arquillian.guice.impl.model.EmployeeService;
+import org.jboss.arquillian.guice.impl.model.EmployeeServiceImpl;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the {@link ReachableBindings} class.
+ */
+public class ReachableBindingsTestCase {
+
+    /**
+     * Represents the module elements.
+     */
+    private List<Element> elements;
+
+    /**
+     * Sets up the model environment.
+     */
+    @Before
+    public void setUp() {
+
+        // given
+        elements = Elements.getElements(Stage.DEVELOPMENT, new AbstractModule() {
+            @Override
+            protected void configure() {
+                bind(EmployeeService.class).to(EmployeeServiceImpl.class);
+                bindConstant().annotatedWith(Names.named("name")).to("employee");
+                bind(Runnable.class).to(NamedTask.class).asEagerSingleton();
+            }
+        });
+    }
+
+    /**
+     * Tests the {@link ReachableBindings#prune(List, Set)} method.
+     */
+    @Test
+    public void shouldPruneUnreachableBindings() {
+
+        // when
+        Set<Key<?>> result = getBoundKeys(ReachableBindings.prune(elements,
+                Collections.<Key<?>>singleton(Key.get(EmployeeService.class))));
+
+        // then
+        assertEquals("The pruned bindings are invalid.",
+                Collections.<Key<?>>singleton(Key.get(EmployeeService.class)), result);
+    }
+
+    /**
+     * Tests the {@link ReachableBindings#prune(List, Set)} method.
+     */
+    @Test
+    public void shouldKeepTransitiveDependencies() {
+
+        // when
+        Set<Key<?>> result = getBoundKeys(ReachableBindings.prune(elements,
+                Collections.<Key<?>>singleton(Key.get(Runnable.class))));
+
+        // then
+        assertTrue("The root binding has been pruned.", result.contains(Key.get(Runnable.class)));
+        assertTrue("The dependency has been pruned.", result.contains(Key.get(String.class, Names.named("name"))));
+        assertFalse("The unreachable binding has not been pruned.", result.contains(Key.get(EmployeeService.class)));
+    }
+
+    /**
+     * Tests the {@link ReachableBindings#prune(List, Set)} method when the dependency is converted from the bound
+     * constant.
+     */
+    @Test
+    public void shouldKeepConvertedConstants() {
+
+        // given
+        List<Element> elements = Elements.getElements(Stage.DEVELOPMENT, new AbstractModule() {
+            @Override
+            protected void configure() {
+                bindConstant().annotatedWith(Names.named("port")).to("8080");
+                Names.bindProperties(binder(), Collections.singletonMap("timeout", "30"));
+                bindConstant().annotatedWith(Names.named("host")).to("localhost");
+            }
+        });
+        Set<Key<?>> rootKeys = new HashSet<Key<?>>();
+        rootKeys.add(Key.get(Integer.class, Names.named("port")));
+        rootKeys.add(Key.get(Long.class, Names.named("timeout")));
+
+        // when
+        Set<Key<?>> result = getBoundKeys(ReachableBindings.prune(elements, rootKeys));
+
+        // then
+        assertTrue("The converted constant has been pruned.", result.contains(Key.get(String.class,
+                Names.named("port"))));
+        assertTrue("The converted property has been pruned.", result.contains(Key.get(String.class,
+                Names.named("timeout"))));
+        assertFalse("The unreachable constant has not been pruned.", result.contains(Key.get(String.class,
+                Names.named("host"))));
+    }
+
+    /**
+     * Tests the {@link ReachableBindings#getRootKeys(Class)} method.
+     */
+    @Test
+    public void shouldRetrieveRootKeys() {
+
+        // when
+        Set<Key<?>> result = ReachableBindings.getRootKeys(TestClass.class);
+
+        // then
+        assertEquals("The root keys are invalid.",
+                Collections.<Key<?>>singleton(Key.get(EmployeeService.class)), result);
+    }
+
+    /**
+     * Tests the {@link ReachableBindings#getRootKeys(Class)} method when the test class declares public methods that
+     * are not test methods.
+     */
+    @Test
+    public void shouldRetrieveTestMethodParameters() {
+
+        // when
+        Set<Key<?>> result = ReachableBindings.getRootKeys(TestClassWithParameters.class);
+
+        // then
+        assertEquals("The root keys are invalid.",
+                Collections.<Key<?>>singleton(Key.get(EmployeeService.class)), result);
+    }
+
+    /**
+     * Retrieves the keys of the bindings within the given elements.
+     *
+     * @param elements the module elements
+     *
+     * @return the bound keys
+     */
+    private Set<Key<?>> getBoundKeys(List<Element> elements) {
+
+        Set<Key<?>> keys = new HashSet<Key<?>>();
+
+        for (Element element : elements) {
+
+            if (element instanceof Binding) {
+                keys.add(((Binding<?>) element).getKey());
+            }
+        }
+
+        return keys;
+    }
+
+    /**
+     * A sample task that depends on the named constant.
+     */
+    static class NamedTask implements Runnable {
+
+        /**
+         * Creates new instance of {@link NamedTask} class.
+         *
+         * @param name the name
+         */
+        @Inject
+        NamedTask(@Named("name") String name) {
+            // empty constructor
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void run() {
+            // empty method
+        }
+    }
+
+    /**
+     * A sample test class with single injection point.
+     */
+    private static class TestClass {
+
+        /**
+         * The injected {@link EmployeeService}.
+         */
+        @Inject
+        EmployeeService employeeService;
+    }
+
+    /**
+     * A sample test class with test method parameter.
+     */
+    public static class TestClassWithParameters {
+
+        /**
+         * Sample test method.
+         *
+         * @param employeeService the employee service
+         */
+        @Test
+        public void test(EmployeeService employeeService) {
+            // empty test
+        }
+
+        /**
+         * Sample helper method, which is not a test method.
+         *
+         * @param runnable the runnable
+         */
+        public void setRunnable(Runnable runnable) {
+            // empty method
+        }
+    }
+}
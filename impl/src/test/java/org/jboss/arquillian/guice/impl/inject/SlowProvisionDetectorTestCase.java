@@ -0,0 +1,209 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.arquillian.guice.impl.inject;
+
+import com.google.inject.Binding;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Module;
+import com.google.inject.Stage;
+import org.jboss.arquillian.guice.impl.model.EmployeeModule;
+import org.jboss.arquillian.guice.impl.model.EmployeeService;
+import org.jboss.arquillian.guice.impl.model.EmployeeServiceImpl;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests the {@link SlowProvisionDetector} class. The tests notify the observer directly, as the provision listeners
+ * would.
+ */
+public class SlowProvisionDetectorTestCase {
+
+    /**
+     * Represents the injector key.
+     */
+    private InjectorKey injectorKey;
+
+    /**
+     * Represents the injector.
+     */
+    private Injector injector;
+
+    /**
+     * Represents the binding of the service.
+     */
+    private Binding<?> serviceBinding;
+
+    /**
+     * Represents the binding of the service implementation.
+     */
+    private Binding<?> implementationBinding;
+
+    /**
+     * Sets up the model environment.
+     */
+    @Before
+    public void setUp() {
+
+        // given
+        injectorKey = new InjectorKey(Collections.<Class<? extends Module>>singletonList(EmployeeModule.class),
+                Stage.DEVELOPMENT);
+        injector = Guice.createInjector(new EmployeeModule());
+        serviceBinding = injector.getBinding(EmployeeService.class);
+        implementationBinding = injector.getBinding(EmployeeServiceImpl.class);
+    }
+
+    /**
+     * Tests the {@link SlowProvisionDetector#getObserver(InjectorKey)} method.
+     */
+    @Test
+    public void shouldDetectSlowProvision() {
+
+        // given
+        SlowProvisionDetector instance = new SlowProvisionDetector(10, true);
+
+        // when
+        provision(getObserver(instance, injector), serviceBinding, 20);
+
+        // then
+        List<String> slowProvisions = instance.getSlowProvisions(injector);
+        assertEquals("The slow provision has not been detected.", 1, slowProvisions.size());
+        assertTrue("The slow provision does not describe the binding.",
+                slowProvisions.get(0).startsWith(serviceBinding.getKey().toString()));
+        assertTrue("The slow provision does not describe the binding source.",
+                slowProvisions.get(0).endsWith(serviceBinding.getSource().toString()));
+    }
+
+    /**
+     * Tests the {@link SlowProvisionDetector#getObserver(InjectorKey)} method.
+     */
+    @Test
+    public void shouldExcludeNestedProvisions() {
+
+        // given
+        SlowProvisionDetector instance = new SlowProvisionDetector(10, true);
+        ProvisionObserver observer = getObserver(instance, injector);
+
+        // when
+        observer.beforeProvision(serviceBinding);
+        provision(observer, implementationBinding, 20);
+        observer.afterProvision(serviceBinding, TimeUnit.MILLISECONDS.toNanos(25));
+
+        // then
+        List<String> slowProvisions = instance.getSlowProvisions(injector);
+        assertEquals("The slow provisions are invalid.", 1, slowProvisions.size());
+        assertTrue("The nested slow provision has not been detected.",
+                slowProvisions.get(0).startsWith(implementationBinding.getKey().toString()));
+    }
+
+    /**
+     * Tests the {@link SlowProvisionDetector#verify(Injector)} method.
+     */
+    @Test
+    public void shouldFailOnSlowProvision() {
+
+        // given
+        SlowProvisionDetector instance = new SlowProvisionDetector(10, true);
+        provision(getObserver(instance, injector), serviceBinding, 20);
+
+        // when
+        try {
+            instance.verify(injector);
+            fail("The slow provision has not been reported.");
+        } catch (RuntimeException e) {
+
+            // then
+            assertTrue("The failure does not describe the slow provision.",
+                    e.getMessage().contains(serviceBinding.getKey().toString()));
+        }
+
+        instance.verify(injector);
+    }
+
+    /**
+     * Tests the {@link SlowProvisionDetector#verify(Injector)} method.
+     */
+    @Test
+    public void shouldNotFailWhenDisabled() {
+
+        // given
+        SlowProvisionDetector instance = new SlowProvisionDetector(10, false);
+        provision(getObserver(instance, injector), serviceBinding, 20);
+
+        // when
+        instance.verify(injector);
+
+        // then
+        assertTrue("The slow provision has been retained.", instance.getSlowProvisions(injector).isEmpty());
+    }
+
+    /**
+     * Tests the {@link SlowProvisionDetector#verify(Injector)} method when the slow provision has been detected within
+     * the injector of another test class.
+     */
+    @Test
+    public void shouldNotFailOnSlowProvisionOfOtherInjector() {
+
+        // given
+        SlowProvisionDetector instance = new SlowProvisionDetector(10, true);
+        Injector otherInjector = Guice.createInjector(new EmployeeModule());
+        provision(getObserver(instance, otherInjector), serviceBinding, 20);
+        getObserver(instance, injector);
+
+        // when
+        instance.verify(injector);
+
+        // then
+        assertEquals("The slow provision has not been retained.", 1, instance.getSlowProvisions(otherInjector).size());
+    }
+
+    /**
+     * Retrieves the observer of the given injector, as if the injector has been built by the {@link InjectorBuilder}.
+     *
+     * @param instance the slow provision detector
+     * @param injector the injector
+     *
+     * @return the provision observer
+     */
+    private ProvisionObserver getObserver(SlowProvisionDetector instance, Injector injector) {
+
+        ProvisionObserver observer = instance.getObserver(injectorKey);
+        instance.injectorCreated(injectorKey, observer, injector);
+        return observer;
+    }
+
+    /**
+     * Notifies the observer about the provision of the given binding.
+     *
+     * @param observer the provision observer
+     * @param binding  the provisioned binding
+     * @param duration the provision time in milliseconds
+     */
+    private void provision(ProvisionObserver observer, Binding<?> binding, long duration) {
+
+        observer.beforeProvision(binding);
+        observer.afterProvision(binding, TimeUnit.MILLISECONDS.toNanos(duration));
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.arquillian.guice.impl.inject;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests the {@link StartupBudget} class.
+ */
+public class StartupBudgetTestCase {
+
+    /**
+     * Tests the {@link StartupBudget#verifyCreation()} method.
+     */
+    @Test
+    public void shouldAcceptCreationWithinBudget() {
+
+        // given
+        StartupBudget instance = new StartupBudget("TestClass", "EmployeeModule", 100,
+                TimeUnit.MILLISECONDS.toNanos(50));
+
+        // when
+        instance.verifyCreation();
+        instance.verifyEnrichment(TimeUnit.MILLISECONDS.toNanos(40));
+    }
+
+    /**
+     * Tests the {@link StartupBudget#verifyCreation()} method.
+     */
+    @Test
+    public void shouldFailCreationOverBudget() {
+
+        // given
+        StartupBudget instance = new StartupBudget("TestClass", "EmployeeModule", 100,
+                TimeUnit.MILLISECONDS.toNanos(150));
+
+        // when
+        try {
+            instance.verifyCreation();
+            fail("The exceeded budget has not been reported.");
+        } catch (RuntimeException e) {
+
+            // then
+            assertTrue("The failure does not name the test class.", e.getMessage().contains("TestClass"));
+            assertTrue("The failure does not break down the creation.",
+                    e.getMessage().contains("injector creation: 150 ms (modules: EmployeeModule)"));
+        }
+    }
+
+    /**
+     * Tests the {@link StartupBudget#verifyEnrichment(long)} method.
+     */
+    @Test
+    public void shouldFailEnrichmentOverBudget() {
+
+        // given
+        StartupBudget instance = new StartupBudget("TestClass", "EmployeeModule", 100,
+                TimeUnit.MILLISECONDS.toNanos(50));
+
+        // when
+        try {
+            instance.verifyEnrichment(TimeUnit.MILLISECONDS.toNanos(60));
+            fail("The exceeded budget has not been reported.");
+        } catch (RuntimeException e) {
+
+            // then
+            assertTrue("The failure does not break down the enrichment.",
+                    e.getMessage().contains("enrichment: 60 ms"));
+            assertTrue("The failure does not sum the startup.", e.getMessage().contains("total: 110 ms"));
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.arquillian.guice.impl.inject;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import org.jboss.arquillian.guice.api.annotation.GuiceConfiguration;
+import org.jboss.arquillian.guice.api.annotation.GuiceInjector;
+import org.jboss.arquillian.guice.impl.index.TestClassIndex;
+import org.jboss.arquillian.guice.impl.model.EmployeeModule;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the {@link TestClassMetadataCache} class.
+ */
+public class TestClassMetadataCacheTestCase {
+
+    /**
+     * Represents the instance of the tested class.
+     */
+    private TestClassMetadataCache instance;
+
+    /**
+     * Sets up the model environment.
+     */
+    @Before
+    public void setUp() {
+
+        // given
+        instance = new TestClassMetadataCache(TestClassIndex.load(getClass().getClassLoader()));
+    }
+
+    /**
+     * Tests the {@link TestClassMetadataCache#get(Class)} method.
+     */
+    @Test
+    public void shouldComputeMetadataOnce() {
+
+        // when
+        TestClassMetadata metadata = instance.get(TestClass.class);
+
+        // then
+        assertSame("The metadata has been computed again.", metadata, instance.get(TestClass.class));
+    }
+
+    /**
+     * Tests the {@link TestClassMetadataCache#get(Class)} method.
+     */
+    @Test
+    public void shouldDescribeTestClass() {
+
+        // when
+        TestClassMetadata metadata = instance.get(TestClass.class);
+
+        // then
+        assertTrue("The test class has not been recognized.", metadata.isGuiceTest());
+        assertNotNull("The guice configuration is missing.", metadata.getConfiguration());
+        assertFalse("The test class does not use web configuration.", metadata.isWebConfiguration());
+        assertEquals("The custom injector method is missing.", 1, metadata.getCustomInjectorMethods().size());
+    }
+
+    /**
+     * Tests the {@link TestClassMetadataCache#get(Class)} method.
+     */
+    @Test
+    public void shouldFallbackToReflectionWithoutIndex() {
+
+        // given
+        instance = new TestClassMetadataCache(TestClassIndex.load(null));
+
+        // when
+        TestClassMetadata metadata = instance.get(TestClass.class);
+
+        // then
+        assertEquals("The custom injector method is missing.", 1, metadata.getCustomInjectorMethods().size());
+    }
+
+    /**
+     * A sample unit test with a custom guice configuration and custom injector.
+     */
+    @GuiceConfiguration(EmployeeModule.class)
+    private static class TestClass {
+
+        /**
+         * Creates custom guice injector.
+         *
+         * @return custom guice injector
+         */
+        @GuiceInjector
+        public static Injector createInjector() {
+
+            return Guice.createInjector(new EmployeeModule());
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.arquillian.guice.impl.model;
+
+import com.google.inject.AbstractModule;
+import org.jboss.arquillian.guice.api.annotation.LazyInject;
+
+/**
+ * A sample test class whose lazily injected service is declared with an interface not visible outside this package.
+ */
+public class AuditedTestClass {
+
+    /**
+     * The lazily injected {@link AuditService}.
+     */
+    @LazyInject
+    AuditService auditService;
+
+    /**
+     * Audits through the lazily injected service.
+     *
+     * @return the audit result
+     */
+    public String audit() {
+        return auditService.audit();
+    }
+
+    /**
+     * A sample service that is not visible outside this package.
+     */
+    interface AuditService {
+
+        /**
+         * Audits the employees.
+         *
+         * @return the audit result
+         */
+        String audit();
+    }
+
+    /**
+     * A sample implementation of the {@link AuditService}.
+     */
+    static class AuditServiceImpl implements AuditService {
+
+        /**
+         * {@inheritDoc}
+         */
+        public String audit() {
+            return "audited";
+        }
+    }
+
+    /**
+     * Represents the guice module binding the {@link AuditService}.
+     */
+    public static class AuditModule extends AbstractModule {
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected void configure() {
+
+            bind(AuditService.class).to(AuditServiceImpl.class);
+        }
+    }
+}
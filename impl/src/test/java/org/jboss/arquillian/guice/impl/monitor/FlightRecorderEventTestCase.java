@@ -0,0 +1,73 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.arquillian.guice.impl.monitor;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Tests the {@link FlightRecorderEvent} class.
+ */
+public class FlightRecorderEventTestCase {
+
+    /**
+     * Tests the {@link FlightRecorderEvent#begin(FlightRecorderEvent.Type)} method when no recording is active.
+     */
+    @Test
+    public void shouldNotRecordWithoutRecording() {
+
+        // when
+        FlightRecorderEvent event = FlightRecorderEvent.begin(FlightRecorderEvent.INJECTOR_CREATION);
+        event.commit("TestClass", "EmployeeModule", 1);
+
+        // then
+        assertFalse("The event is being recorded.", event.isRecording());
+    }
+
+    /**
+     * Tests the {@link FlightRecorderEvent#begin(FlightRecorderEvent.Type)} method when the recording is active.
+     *
+     * @throws Exception if any error occurs
+     */
+    @Test
+    public void shouldRecordWithinRecording() throws Exception {
+
+        // given
+        assumeTrue(FlightRecorderSupport.isSupported());
+        Class<?> recordingClass = Class.forName("jdk.jfr.Recording");
+        Object recording = recordingClass.newInstance();
+        recordingClass.getMethod("enable", String.class).invoke(recording, FlightRecorderEvent.ENRICHMENT.getName());
+        recordingClass.getMethod("start").invoke(recording);
+
+        try {
+
+            // when
+            FlightRecorderEvent event = FlightRecorderEvent.begin(FlightRecorderEvent.ENRICHMENT);
+            event.commit("TestClass", 1);
+
+            // then
+            assertTrue("The event is not being recorded.", event.isRecording());
+            assertTrue("The Flight Recorder support has been disabled.", FlightRecorderSupport.isSupported());
+        } finally {
+
+            recordingClass.getMethod("close").invoke(recording);
+        }
+    }
+}